@@ -0,0 +1,182 @@
+package com.example.travelapp.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tells the other nodes of a cluster which cache entries this node has written or
+ * dropped, and drops the entries the other nodes report.
+ *
+ * <p>Caches {@link #subscribe} under their name and {@link #publish} every local
+ * write. Published keys are not sent one by one: they are coalesced per cache,
+ * so a burst of writes to the same id costs one message, and a pending clear
+ * swallows every pending key of its cache. The pending set goes out as one batch
+ * every flush interval, or as soon as it reaches the maximum batch size. Inside a
+ * transaction, publishing waits for the commit, so that other nodes do not reload
+ * the old row between the invalidation and the commit. Messages this node sent
+ * are ignored when the transport delivers them back.
+ */
+public class CacheInvalidationBus implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationTransport transport;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService flusher;
+    private final ConcurrentMap<String, Consumer<Long>> subscribers = new ConcurrentHashMap<>();
+
+    private Map<String, Set<Long>> pendingKeys = new LinkedHashMap<>();
+    private Set<String> pendingClears = new LinkedHashSet<>();
+    private int pendingCount;
+    private boolean flushRequested;
+
+    public CacheInvalidationBus(InvalidationTransport transport, Duration flushInterval,
+                                int maxBatchSize) {
+        this.transport = transport;
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+        transport.subscribe(this::receive);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Registers the cache called {@code cacheName}; {@code invalidator} is given the
+     * key another node invalidated, or null if that node cleared the whole cache.
+     */
+    public void subscribe(String cacheName, Consumer<Long> invalidator) {
+        if (subscribers.putIfAbsent(cacheName, invalidator) != null) {
+            throw new IllegalStateException("Cache " + cacheName + " is already subscribed");
+        }
+    }
+
+    /** Queues {@code key}, or the whole cache if null, for invalidation on other nodes. */
+    public void publish(String cacheName, Long key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            enqueue(cacheName, key);
+                        }
+                    });
+            return;
+        }
+        enqueue(cacheName, key);
+    }
+
+    private void enqueue(String cacheName, Long key) {
+        boolean full;
+        synchronized (this) {
+            add(cacheName, key);
+            full = pendingCount >= maxBatchSize && !flushRequested;
+            if (full) {
+                flushRequested = true;
+            }
+        }
+        if (full) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    private void add(String cacheName, Long key) {
+        if (pendingClears.contains(cacheName)) {
+            return;
+        }
+        if (key == null) {
+            Set<Long> swallowed = pendingKeys.remove(cacheName);
+            pendingCount -= swallowed == null ? 0 : swallowed.size();
+            pendingClears.add(cacheName);
+            pendingCount++;
+        } else if (pendingKeys.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).add(key)) {
+            pendingCount++;
+        }
+    }
+
+    /** Sends everything pending as one batch; a batch the transport rejects is re-queued. */
+    public void flush() {
+        List<Invalidation> batch;
+        synchronized (this) {
+            flushRequested = false;
+            if (pendingCount == 0) {
+                return;
+            }
+            batch = new ArrayList<>(pendingCount);
+            for (String cacheName : pendingClears) {
+                batch.add(new Invalidation(nodeId, cacheName, null));
+            }
+            for (Map.Entry<String, Set<Long>> entry : pendingKeys.entrySet()) {
+                for (Long key : entry.getValue()) {
+                    batch.add(new Invalidation(nodeId, entry.getKey(), key));
+                }
+            }
+            pendingKeys = new LinkedHashMap<>();
+            pendingClears = new LinkedHashSet<>();
+            pendingCount = 0;
+        }
+        try {
+            transport.publish(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish {} cache invalidations, retrying with the next batch",
+                    batch.size(), e);
+            synchronized (this) {
+                for (Invalidation invalidation : batch) {
+                    add(invalidation.getCacheName(), invalidation.getKey());
+                }
+            }
+        }
+    }
+
+    void receive(List<Invalidation> batch) {
+        for (Invalidation invalidation : batch) {
+            if (nodeId.equals(invalidation.getOrigin())) {
+                continue;
+            }
+            Consumer<Long> invalidator = subscribers.get(invalidation.getCacheName());
+            if (invalidator == null) {
+                continue;
+            }
+            try {
+                invalidator.accept(invalidation.getKey());
+            } catch (RuntimeException e) {
+                // The transport has already moved past this batch; skipping the rest
+                // would leave other caches stale until their entries are rewritten.
+                logger.warn("Could not apply invalidation of {} key {}",
+                        invalidation.getCacheName(), invalidation.getKey(), e);
+            }
+        }
+    }
+
+    /** Sends what is still pending and stops the flusher; the transport is left open. */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flush();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.travelapp.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binary file of cache ids and their access frequencies, hottest first.
+ *
+ * <p>Layout: a magic number, a format version and an entry count, then one
+ * {@code long} id and one {@code int} frequency per entry, 12 bytes each. Files are
+ * written to a temporary sibling and moved into place, so a crash mid-write leaves
+ * the previous snapshot intact.
+ */
+public final class CacheSnapshot {
+
+    private static final int MAGIC = 0x4C465553;
+    private static final int VERSION = 1;
+
+    private CacheSnapshot() {
+    }
+
+    public static void write(Path file, Map<Long, Integer> frequencies) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(frequencies.size());
+            for (Map.Entry<Long, Integer> entry : frequencies.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot in file order. A missing file yields an empty map; a file
+     * with another magic number or version is rejected.
+     */
+    public static Map<Long, Integer> read(Path file) throws IOException {
+        Map<Long, Integer> frequencies = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return frequencies;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported cache snapshot " + file);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                frequencies.put(in.readLong(), in.readInt());
+            }
+        }
+        return frequencies;
+    }
+}
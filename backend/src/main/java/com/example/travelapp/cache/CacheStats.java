@@ -0,0 +1,31 @@
+package com.example.travelapp.cache;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Point-in-time snapshot of the counters of an {@link LfuCache} or an
+ * {@link OffHeapByteCache}.
+ */
+@Getter
+@AllArgsConstructor
+public class CacheStats {
+    private final String name;
+    private final long size;
+    private final long maximumSize;
+    private final long weightedSize;
+    private final long effectiveMaximumSize;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long evictions;
+    private final long admissionRejections;
+    private final long negativeHits;
+    private final Map<String, Long> frequencyHistogram;
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.travelapp.cache;
+
+import java.io.IOException;
+
+/**
+ * Converts cache values to and from bytes for the disk tier of an {@link LfuCache}.
+ */
+public interface EntryCodec<T> {
+
+    byte[] encode(T value) throws IOException;
+
+    T decode(byte[] bytes) throws IOException;
+}
@@ -0,0 +1,82 @@
+package com.example.travelapp.cache;
+
+/**
+ * Count-min sketch of 4-bit counters used by the TinyLFU admission filter.
+ *
+ * <p>Every key maps to one counter in each of four rows packed into a single
+ * {@code long[]}; the estimate is the minimum of the four. After {@code sampleSize}
+ * increments all counters are halved, so popularity decays over time and keys that
+ * were hot long ago stop outranking keys that are hot now.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    static final int MAX_COUNTER = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int size = Math.max(16, Integer.highestOneBit(Math.max(1, maximumSize) * 2 - 1));
+        this.table = new long[size];
+        this.tableMask = size - 1;
+        this.sampleSize = Math.max(1, maximumSize) * 10;
+    }
+
+    int frequency(long key) {
+        int frequency = MAX_COUNTER;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = indexHash(key, row);
+            frequency = Math.min(frequency, (int) ((table[index(hash)] >>> shift(hash)) & 0xFL));
+        }
+        return frequency;
+    }
+
+    /**
+     * Records one access to {@code key}.
+     *
+     * @return {@code true} if this increment triggered a halving of all counters
+     */
+    boolean increment(long key) {
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = indexHash(key, row);
+            int index = index(hash);
+            int shift = shift(hash);
+            if (((table[index] >>> shift) & 0xFL) < MAX_COUNTER) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long indexHash(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[row];
+        return hash + (hash >>> 32);
+    }
+
+    private int index(long hash) {
+        return (int) hash & tableMask;
+    }
+
+    private static int shift(long hash) {
+        return (int) (hash >>> 60) << 2;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.travelapp.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Scales a cache's weight budget down while the old generation is filling up.
+ *
+ * <p>Below {@code threshold} occupancy the factor is 1. Above it the factor falls
+ * linearly with the remaining headroom, so at a threshold of 0.75 and 90% usage the
+ * budget is 40% of the configured maximum, never less than {@link #MIN_FACTOR}.
+ * Occupancy is sampled at most once per second; between samples readers get the
+ * last factor from a volatile read.
+ */
+final class HeapPressure {
+
+    static final double MIN_FACTOR = 0.25;
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double threshold;
+    private final DoubleSupplier occupancy;
+    private final Ticker ticker;
+    private volatile long sampledAt;
+    private volatile double factor = 1.0;
+
+    HeapPressure(double threshold, DoubleSupplier occupancy, Ticker ticker) {
+        this.threshold = threshold;
+        this.occupancy = occupancy;
+        this.ticker = ticker;
+        this.sampledAt = ticker.read() - SAMPLE_INTERVAL_NANOS;
+    }
+
+    static HeapPressure oldGen(double threshold, Ticker ticker) {
+        MemoryPoolMXBean pool = findOldGenPool();
+        DoubleSupplier occupancy = pool == null ? () -> 0.0 : () -> occupancyOf(pool);
+        return new HeapPressure(threshold, occupancy, ticker);
+    }
+
+    double budgetFactor() {
+        long now = ticker.read();
+        if (now - sampledAt >= SAMPLE_INTERVAL_NANOS) {
+            sampledAt = now;
+            factor = factorFor(occupancy.getAsDouble());
+        }
+        return factor;
+    }
+
+    private double factorFor(double used) {
+        if (used <= threshold) {
+            return 1.0;
+        }
+        double headroom = Math.max(0.0, 1.0 - used) / (1.0 - threshold);
+        return Math.max(MIN_FACTOR, headroom);
+    }
+
+    /**
+     * The tenured pool of whichever collector is running ("G1 Old Gen",
+     * "PS Old Gen", "Tenured Gen", ...): the heap pool that supports a
+     * collection usage threshold and is not a young or survivor space.
+     */
+    private static MemoryPoolMXBean findOldGenPool() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            String name = pool.getName();
+            if (pool.getType() == MemoryType.HEAP
+                    && pool.isCollectionUsageThresholdSupported()
+                    && !name.contains("Eden")
+                    && !name.contains("Survivor")) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    private static double occupancyOf(MemoryPoolMXBean pool) {
+        MemoryUsage usage = pool.getUsage();
+        long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+        return max > 0 ? (double) usage.getUsed() / max : 0.0;
+    }
+}
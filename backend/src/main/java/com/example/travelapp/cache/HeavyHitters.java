@@ -0,0 +1,133 @@
+package com.example.travelapp.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters tracker over a stream of ids.
+ *
+ * <p>Each stripe monitors a fixed number of ids in a binary min-heap of counters.
+ * A monitored id has its counter incremented; an unmonitored id takes over the
+ * smallest counter, inheriting its count plus one and recording that count as its
+ * possible overestimate. Any id seen more than {@code n / capacity} times in a
+ * stripe's share of {@code n} lookups is guaranteed to be monitored. Ids are
+ * spread over independently locked stripes by hash, so an id's counter lives in
+ * exactly one stripe and the report is a merge of the stripes.
+ */
+final class HeavyHitters {
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    HeavyHitters(int capacity, int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(capacity, stripeCount)));
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(Math.max(1, capacity / count));
+        }
+    }
+
+    void record(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        stripes[(int) (h ^ (h >>> 32)) & stripeMask].record(id);
+    }
+
+    /** The {@code k} ids with the highest counts, highest first. */
+    List<HotKey> top(int k) {
+        List<HotKey> all = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.collect(all);
+        }
+        all.sort(Comparator.comparingLong(HotKey::getCount).reversed());
+        return all.subList(0, Math.min(k, all.size()));
+    }
+
+    private static final class Stripe {
+        private final long[] ids;
+        private final long[] counts;
+        private final long[] errors;
+        private final Map<Long, Integer> positions = new HashMap<>();
+        private int size;
+
+        Stripe(int capacity) {
+            this.ids = new long[capacity];
+            this.counts = new long[capacity];
+            this.errors = new long[capacity];
+        }
+
+        synchronized void record(long id) {
+            Integer position = positions.get(id);
+            if (position != null) {
+                counts[position]++;
+                siftDown(position);
+            } else if (size < ids.length) {
+                ids[size] = id;
+                counts[size] = 1;
+                errors[size] = 0;
+                positions.put(id, size);
+                siftUp(size++);
+            } else {
+                positions.remove(ids[0]);
+                errors[0] = counts[0];
+                counts[0]++;
+                ids[0] = id;
+                positions.put(id, 0);
+                siftDown(0);
+            }
+        }
+
+        synchronized void collect(List<HotKey> into) {
+            for (int i = 0; i < size; i++) {
+                into.add(new HotKey(ids[i], counts[i], errors[i]));
+            }
+        }
+
+        private void siftUp(int position) {
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (counts[parent] <= counts[position]) {
+                    return;
+                }
+                swap(position, parent);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int position) {
+            while (true) {
+                int smallest = position;
+                int left = 2 * position + 1;
+                int right = left + 1;
+                if (left < size && counts[left] < counts[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && counts[right] < counts[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == position) {
+                    return;
+                }
+                swap(position, smallest);
+                position = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            long count = counts[a];
+            long error = errors[a];
+            ids[a] = ids[b];
+            counts[a] = counts[b];
+            errors[a] = errors[b];
+            ids[b] = id;
+            counts[b] = count;
+            errors[b] = error;
+            positions.put(ids[a], a);
+            positions.put(ids[b], b);
+        }
+    }
+}
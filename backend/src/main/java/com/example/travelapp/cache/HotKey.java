@@ -0,0 +1,16 @@
+package com.example.travelapp.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An id reported by the heavy-hitters tracker of an {@link LfuCache}. The true
+ * number of lookups lies between {@code count - error} and {@code count}.
+ */
+@Getter
+@AllArgsConstructor
+public class HotKey {
+    private final long id;
+    private final long count;
+    private final long error;
+}
@@ -0,0 +1,66 @@
+package com.example.travelapp.cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Spring {@link CaffeineCache} that reports its evictions on the
+ * {@link CacheInvalidationBus} and drops what other nodes report. The bus only
+ * carries {@code Long} keys, so an eviction under any other key invalidates the
+ * whole cache on the other nodes.
+ *
+ * <p>Puts are not published: most of them are read-through fills after a
+ * {@code @Cacheable} miss, and publishing those would make every miss on one node
+ * evict the other nodes' copies. Code that changes the underlying data must evict
+ * ({@code @CacheEvict}) rather than put the new value.
+ */
+public class InvalidatingCaffeineCache extends CaffeineCache {
+
+    private final CacheInvalidationBus invalidationBus;
+
+    public InvalidatingCaffeineCache(String name,
+                                     com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                     boolean allowNullValues,
+                                     CacheInvalidationBus invalidationBus) {
+        super(name, cache, allowNullValues);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(name, this::invalidateLocally);
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        publish(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        publish(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        invalidationBus.publish(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        invalidationBus.publish(getName(), null);
+        return invalidated;
+    }
+
+    private void publish(Object key) {
+        invalidationBus.publish(getName(), key instanceof Long id ? id : null);
+    }
+
+    private void invalidateLocally(Long key) {
+        if (key == null) {
+            getNativeCache().invalidateAll();
+        } else {
+            getNativeCache().invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.travelapp.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One message on the {@link CacheInvalidationBus}: drop {@code key} from the cache
+ * called {@code cacheName} on every node but {@code origin}, or the whole cache if
+ * {@code key} is null.
+ */
+@Getter
+@AllArgsConstructor
+public class Invalidation {
+    private final String origin;
+    private final String cacheName;
+    private final Long key;
+}
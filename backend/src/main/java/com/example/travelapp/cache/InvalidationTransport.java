@@ -0,0 +1,21 @@
+package com.example.travelapp.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries batches of {@link Invalidation}s between the {@link CacheInvalidationBus}
+ * instances of different nodes. A transport may deliver a node's own messages back
+ * to it and may deliver a message more than once; the bus tolerates both.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    void publish(List<Invalidation> batch);
+
+    /** Registers the receiver for batches published by any node, this one included. */
+    void subscribe(Consumer<List<Invalidation>> receiver);
+
+    @Override
+    default void close() {
+    }
+}
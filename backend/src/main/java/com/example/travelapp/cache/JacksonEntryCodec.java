@@ -0,0 +1,30 @@
+package com.example.travelapp.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+
+/**
+ * {@link EntryCodec} writing values as JSON, suitable for the response DTOs.
+ */
+public final class JacksonEntryCodec<T> implements EntryCodec<T> {
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public JacksonEntryCodec(ObjectMapper objectMapper, Class<T> type) {
+        this.reader = objectMapper.readerFor(type);
+        this.writer = objectMapper.writerFor(type);
+    }
+
+    @Override
+    public byte[] encode(T value) throws IOException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Override
+    public T decode(byte[] bytes) throws IOException {
+        return reader.readValue(bytes);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.travelapp.cache;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Invalidation transport over a table in the application's own database, for
+ * clusters that have no message broker.
+ *
+ * <p>Publishing inserts one row per invalidation. Every node polls for rows with
+ * an id above the highest it has seen, starting from the table's maximum at
+ * startup since a fresh node has nothing cached. Identity values are handed out
+ * before commit, so a row with a lower id can become visible after a higher one;
+ * ids skipped over by a poll are therefore re-queried until they appear or until
+ * {@link #GAP_TIMEOUT} passes, after which the id is taken to be lost to a rollback
+ * or a sequence cache. Rows older than the retention period are deleted.
+ */
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+    static final String TABLE = "cache_invalidations";
+    static final Duration GAP_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_ROWS_PER_POLL = 1_000;
+    private static final int MAX_TRACKED_GAPS = 1_000;
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcInvalidationTransport.class);
+
+    private static final RowMapper<Row> ROW_MAPPER = (resultSet, rowNum) -> new Row(
+            resultSet.getLong("id"),
+            new Invalidation(resultSet.getString("origin"), resultSet.getString("cache_name"),
+                    resultSet.getObject("cache_key", Long.class)));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long retentionSeconds;
+    private final List<Consumer<List<Invalidation>>> receivers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService poller;
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private long lastSeenId;
+
+    private record Row(long id, Invalidation invalidation) {
+    }
+
+    public JdbcInvalidationTransport(JdbcTemplate jdbcTemplate, Duration pollInterval,
+                                     Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionSeconds = Math.max(1, retention.toSeconds());
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "origin VARCHAR(64) NOT NULL, "
+                + "cache_name VARCHAR(128) NOT NULL, "
+                + "cache_key BIGINT, "
+                + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL)");
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + TABLE, Long.class);
+        this.lastSeenId = maxId == null ? 0 : maxId;
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long pollMillis = Math.max(1, pollInterval.toMillis());
+        poller.scheduleWithFixedDelay(this::pollQuietly, pollMillis, pollMillis,
+                TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::purgeQuietly, retentionSeconds, retentionSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void publish(List<Invalidation> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO " + TABLE
+                        + " (origin, cache_name, cache_key) VALUES (?, ?, ?)",
+                batch, INSERT_BATCH_SIZE, (statement, invalidation) -> {
+                    statement.setString(1, invalidation.getOrigin());
+                    statement.setString(2, invalidation.getCacheName());
+                    statement.setObject(3, invalidation.getKey(), Types.BIGINT);
+                });
+    }
+
+    @Override
+    public void subscribe(Consumer<List<Invalidation>> receiver) {
+        receivers.add(receiver);
+    }
+
+    /** Delivers the rows that appeared since the last poll; returns how many. */
+    synchronized int poll() {
+        List<Row> rows = new ArrayList<>(jdbcTemplate.query("SELECT id, origin, cache_name, "
+                        + "cache_key FROM " + TABLE + " WHERE id > ? ORDER BY id LIMIT "
+                        + MAX_ROWS_PER_POLL, ROW_MAPPER, lastSeenId));
+        if (!gaps.isEmpty()) {
+            List<Object> gapIds = new ArrayList<>(gaps.keySet());
+            String placeholders = String.join(", ", Collections.nCopies(gapIds.size(), "?"));
+            for (Row row : jdbcTemplate.query("SELECT id, origin, cache_name, cache_key FROM "
+                    + TABLE + " WHERE id IN (" + placeholders + ")", ROW_MAPPER,
+                    gapIds.toArray())) {
+                gaps.remove(row.id());
+                rows.add(row);
+            }
+        }
+        long now = System.nanoTime();
+        for (Row row : rows) {
+            for (long missing = lastSeenId + 1; missing < row.id()
+                    && gaps.size() < MAX_TRACKED_GAPS; missing++) {
+                gaps.put(missing, now);
+            }
+            lastSeenId = Math.max(lastSeenId, row.id());
+        }
+        Iterator<Long> firstSeen = gaps.values().iterator();
+        while (firstSeen.hasNext()) {
+            if (now - firstSeen.next() > GAP_TIMEOUT.toNanos()) {
+                firstSeen.remove();
+            }
+        }
+        if (!rows.isEmpty()) {
+            List<Invalidation> batch = rows.stream().map(Row::invalidation).toList();
+            for (Consumer<List<Invalidation>> receiver : receivers) {
+                receiver.accept(batch);
+            }
+        }
+        return rows.size();
+    }
+
+    /** Deletes the rows every node has had the retention period to read. */
+    int purge() {
+        return jdbcTemplate.update("DELETE FROM " + TABLE
+                + " WHERE created_at < CURRENT_TIMESTAMP - INTERVAL '" + retentionSeconds
+                + "' SECOND");
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            logger.warn("Polling cache invalidations failed", e);
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            logger.warn("Purging cache invalidations failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+    }
+}
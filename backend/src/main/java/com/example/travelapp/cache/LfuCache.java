@@ -1,90 +1,588 @@
 package com.example.travelapp.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.Weigher;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import lombok.extern.slf4j.Slf4j;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-@Slf4j
-public abstract class LfuCache<T> {
+/**
+ * Least-frequently-used cache split into independently locked segments.
+ *
+ * <p>Keys are spread over the segments by hash and every segment runs its own
+ * constant-time LFU with its own share of the capacity, so readers of different
+ * keys do not serialize on one monitor. With a single segment the cache is an exact
+ * LFU; with several, eviction is LFU within the segment the new key lands in.
+ * The segments share one budget, so any entry that fits the whole cache is cached:
+ * a segment may borrow the weight the others leave unused, and gives it back,
+ * least frequently used entries first, when another segment needs its share.
+ * Subclasses may opt into a TinyLFU admission filter, a weight budget instead of
+ * an entry count, a budget that shrinks under heap pressure, expire- and
+ * refresh-after-write, and a memory-mapped second tier through {@link LfuCacheSpec}.
+ */
+public abstract class LfuCache<T> implements AutoCloseable {
 
-    private final int maxCapacity;
-    private final Map<Long, CacheEntry<T>> cache = new HashMap<>();
+    private static final int HISTOGRAM_SLOTS = 16;
 
-    protected static class CacheEntry<T> {
+    private final String name;
+    private final long maximumWeight;
+    private final Weigher<Long, T> weigher;
+    private final HeapPressure heapPressure;
+    private final Ticker ticker;
+    private final boolean timed;
+    private final long expireAfterWriteNanos;
+    private final long refreshAfterWriteNanos;
+    private final Executor refreshExecutor;
+    private final CacheStatsCounter stats = new CacheStatsCounter();
+    private final LfuSegment<T>[] segments;
+    private final AtomicLong sharedWeight = new AtomicLong();
+    private final int segmentMask;
+    private final ConcurrentMap<Long, CompletableFuture<T>> loading = new ConcurrentHashMap<>();
+    private final Cache<Long, Boolean> missing;
+    private final MappedRecordFile diskTier;
+    private final EntryCodec<T> codec;
+    private final HeavyHitters heavyHitters;
+    private volatile CacheInvalidationBus invalidationBus;
+    private final List<Consumer<Long>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    protected LfuCache(int maxCapacity) {
+        this(LfuCacheSpec.maximumSize(maxCapacity));
+    }
+
+    protected LfuCache(int maxCapacity, int concurrencyLevel) {
+        this(LfuCacheSpec.maximumSize(maxCapacity).concurrencyLevel(concurrencyLevel));
+    }
+
+    @SuppressWarnings("unchecked")
+    protected LfuCache(LfuCacheSpec spec) {
+        this.name = spec.getName() != null ? spec.getName() : getClass().getSimpleName();
+        this.maximumWeight = spec.getMaximumWeight();
+        this.weigher = (Weigher<Long, T>) spec.getWeigher();
+        this.heapPressure = spec.getHeapPressure();
+        this.ticker = spec.getTicker();
+        this.expireAfterWriteNanos = spec.getExpireAfterWrite() == null
+                ? 0 : spec.getExpireAfterWrite().toNanos();
+        this.refreshAfterWriteNanos = spec.getRefreshAfterWrite() == null
+                ? 0 : spec.getRefreshAfterWrite().toNanos();
+        this.refreshExecutor = spec.getRefreshExecutor();
+        this.timed = expireAfterWriteNanos > 0 || refreshAfterWriteNanos > 0;
+        this.codec = (EntryCodec<T>) spec.getDiskTierCodec();
+        this.diskTier = spec.getDiskTierDirectory() == null ? null
+                : new MappedRecordFile(spec.getDiskTierDirectory(), name,
+                        spec.getDiskTierCapacityBytes(), expireAfterWriteNanos, ticker,
+                        spec.getDiskTierExecutor());
+        int segmentCount = segmentCount(maximumWeight, spec.getConcurrencyLevel());
+        this.segments = newSegmentArray(segmentCount);
+        this.segmentMask = segmentCount - 1;
+        long baseWeight = maximumWeight / segmentCount;
+        long remainder = maximumWeight % segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new LfuSegment<>(baseWeight + (i < remainder ? 1 : 0),
+                    maximumWeight, sharedWeight, spec.isTinyLfuAdmission(),
+                    expireAfterWriteNanos, stats, diskTier == null ? null : this::demote);
+        }
+        this.heavyHitters = spec.getHeavyHitterCapacity() <= 0 ? null
+                : new HeavyHitters(spec.getHeavyHitterCapacity(), segmentCount);
+        this.missing = spec.getNegativeTtl() == null ? null : Caffeine.newBuilder()
+                .maximumSize(spec.getNegativeMaximumSize())
+                .expireAfterWrite(spec.getNegativeTtl())
+                .ticker(spec.getTicker())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> LfuSegment<T>[] newSegmentArray(int length) {
+        return (LfuSegment<T>[]) new LfuSegment<?>[length];
+    }
+
+    private static int segmentCount(long maximumWeight, int concurrencyLevel) {
+        int limit = (int) Math.max(1, Math.min(maximumWeight, concurrencyLevel));
+        return Integer.highestOneBit(limit);
+    }
+
+    private int weigh(Long id, T value) {
+        if (weigher == null) {
+            return 1;
+        }
+        int weight = weigher.weigh(id, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight " + weight + " for id " + id);
+        }
+        return weight;
+    }
+
+    private double budgetFactor() {
+        return heapPressure == null ? 1.0 : heapPressure.budgetFactor();
+    }
+
+    private long now() {
+        return timed ? ticker.read() : 0L;
+    }
+
+    private LfuSegment<T> segmentFor(Long id) {
+        return segments[segmentIndex(id)];
+    }
+
+    private int segmentIndex(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & segmentMask;
+    }
+
+    /**
+     * Makes the other segments give back room for an entry heavier than its own
+     * segment's share but within the whole budget. Like {@link #reclaim}, must not
+     * be called under a segment lock.
+     */
+    private void makeRoom(int index, int weight, double budgetFactor) {
+        if (weight > segments[index].share(budgetFactor)
+                && weight <= (long) (maximumWeight * budgetFactor)) {
+            reclaim(index, weight, budgetFactor);
+        }
+    }
+
+    /**
+     * Evicts from the segments other than {@code keep} until they weigh no more than
+     * the budget less {@code reserved}. Segments holding more than their share give
+     * back first; the rest only if that is not enough. Takes the other segments'
+     * locks one at a time, so must not be called under a segment lock.
+     */
+    private void reclaim(int keep, long reserved, double budgetFactor) {
+        long budget = (long) (maximumWeight * budgetFactor);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 1; i < segments.length; i++) {
+                LfuSegment<T> segment = segments[(keep + i) & segmentMask];
+                long excess = sharedWeight.get() - segments[keep].weightedSize()
+                        - (budget - reserved);
+                if (excess <= 0) {
+                    return;
+                }
+                segment.giveBack(excess, pass == 0 ? segment.share(budgetFactor) : 0);
+            }
+        }
+    }
+
+    public T get(Long id) {
+        return segmentFor(id).get(id, now());
+    }
+
+    /**
+     * Returns the cached value or loads it with {@code loader}. Concurrent misses
+     * for the same id share a single in-flight load: the first caller runs the
+     * loader, the others wait for its result or exception. A {@code null} result
+     * means the id does not exist; with negative caching enabled it is remembered
+     * and later lookups return {@code null} without calling the loader. A load
+     * overtaken by {@link #put}, {@link #remove} or {@link #clear} is handed to its
+     * callers but not cached, so it cannot resurrect an invalidated entry.
+     * With refresh-after-write, a hit on an entry due for refresh returns the
+     * current value and reloads it in the background with the same loader.
+     */
+    public T get(Long id, Function<Long, ? extends T> loader) {
+        if (heavyHitters != null) {
+            heavyHitters.record(id);
+        }
+        LfuSegment<T> segment = segmentFor(id);
+        long now = now();
+        T cached = segment.get(id, now);
+        if (cached != null) {
+            if (refreshAfterWriteNanos > 0
+                    && segment.claimRefresh(id, now, refreshAfterWriteNanos)) {
+                refreshAsync(id, loader, segment);
+            }
+            return cached;
+        }
+        if (missing != null && missing.getIfPresent(id) != null) {
+            stats.recordNegativeHit();
+            return null;
+        }
+        CompletableFuture<T> load = new CompletableFuture<>();
+        CompletableFuture<T> inFlight = loading.putIfAbsent(id, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            T value = segment.peek(id, now());
+            if (value == null) {
+                value = promote(id, segment, load);
+            }
+            if (value == null) {
+                value = loader.apply(id);
+                store(id, value, segment, load, now());
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(id, load);
+        }
+    }
+
+    /**
+     * Caches the result of {@code load} unless a put, remove or clear has
+     * overtaken it. A {@code null} result drops any cached value and, with
+     * negative caching, remembers the id as missing.
+     */
+    private void store(Long id, T value, LfuSegment<T> segment, CompletableFuture<T> load,
+                       long writeTime) {
+        int weight = value != null ? weigh(id, value) : 0;
+        double budgetFactor = budgetFactor();
+        int index = segmentIndex(id);
+        makeRoom(index, weight, budgetFactor);
+        synchronized (segment) {
+            if (loading.get(id) != load) {
+                return;
+            }
+            if (value != null) {
+                segment.put(id, value, weight, budgetFactor, writeTime);
+            } else {
+                segment.remove(id);
+                if (missing != null) {
+                    missing.put(id, Boolean.TRUE);
+                }
+            }
+        }
+        reclaim(index, segment.weightedSize(), budgetFactor);
+    }
+
+    /**
+     * Reloads a cached entry on the refresh executor. The reload registers as the
+     * id's in-flight load, so a put or remove during it wins, and a reader that
+     * misses meanwhile waits for it instead of loading again.
+     */
+    private void refreshAsync(Long id, Function<Long, ? extends T> loader,
+                              LfuSegment<T> segment) {
+        CompletableFuture<T> refresh = new CompletableFuture<>();
+        if (loading.putIfAbsent(id, refresh) != null) {
+            segment.releaseRefresh(id);
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    T value = loader.apply(id);
+                    store(id, value, segment, refresh, now());
+                    refresh.complete(value);
+                } catch (RuntimeException | Error e) {
+                    segment.releaseRefresh(id);
+                    refresh.completeExceptionally(e);
+                } finally {
+                    loading.remove(id, refresh);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            segment.releaseRefresh(id);
+            refresh.completeExceptionally(e);
+            loading.remove(id, refresh);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the id's entry out of the disk tier and stores it back on the heap
+     * with its original write time. Returns null if the tier does not hold a live,
+     * readable copy.
+     */
+    private T promote(Long id, LfuSegment<T> segment, CompletableFuture<T> load) {
+        if (diskTier == null) {
+            return null;
+        }
+        MappedRecordFile.Record record = diskTier.take(id);
+        if (record == null
+                || expireAfterWriteNanos > 0 && now() - record.writeTime >= expireAfterWriteNanos) {
+            return null;
+        }
         T value;
-        int frequency;
+        try {
+            value = codec.decode(record.payload);
+        } catch (IOException e) {
+            return null;
+        }
+        store(id, value, segment, load, record.writeTime);
+        return value;
+    }
 
-        CacheEntry(T value) {
-            this.value = value;
-            this.frequency = 1;
+    /**
+     * Writes an entry evicted from the heap to the disk tier; called under its segment
+     * lock. Failures only lose the disk copy, never the eviction that triggered them.
+     */
+    private void demote(Long id, T value, long writeTime) {
+        try {
+            diskTier.append(id, writeTime, codec.encode(value));
+        } catch (IOException | RuntimeException e) {
+            diskTier.remove(id);
         }
     }
 
-    protected LfuCache(int maxCapacity) {
-        this.maxCapacity = maxCapacity;
-    }
-
-    public synchronized T get(Long id) {
-        CacheEntry<T> entry = cache.get(id);
-        if (entry != null) {
-            entry.frequency++;
-            log.info(
-                    "Cache hit: Retrieved item with ID {} from cache (frequency: {})",
-                    id,
-                    entry.frequency
-            );
-            return entry.value;
-        }
-        return null;
-    }
-
-    public synchronized void put(Long id, T value) {
-        if (cache.containsKey(id)) {
-            CacheEntry<T> entry = cache.get(id);
-            entry.value = value;
-            entry.frequency++;
-            log.info(
-                    "Cache update: Updated item with ID {} in cache (frequency: {})",
-                    id,
-                    entry.frequency
-            );
-        } else {
-            if (cache.size() >= maxCapacity) {
-                evictLeastFrequentlyUsed();
+    /**
+     * Caches {@code value} under {@code id}. Inside a transaction the value is only
+     * stored once the transaction commits, so a rollback leaves nothing behind and
+     * readers keep seeing the committed value until then.
+     */
+    public void put(Long id, T value) {
+        if (!afterCommit(() -> putLocally(id, value))) {
+            putLocally(id, value);
+        }
+        publish(id);
+    }
+
+    private void putLocally(Long id, T value) {
+        int index = segmentIndex(id);
+        LfuSegment<T> segment = segments[index];
+        int weight = weigh(id, value);
+        double budgetFactor = budgetFactor();
+        makeRoom(index, weight, budgetFactor);
+        synchronized (segment) {
+            loading.remove(id);
+            if (missing != null) {
+                missing.invalidate(id);
+            }
+            if (diskTier != null) {
+                diskTier.remove(id);
+            }
+            segment.put(id, value, weight, budgetFactor, now());
+        }
+        reclaim(index, segment.weightedSize(), budgetFactor);
+        notifyInvalidated(id);
+    }
+
+    /**
+     * Drops {@code id}. Inside a transaction it is dropped again once the transaction
+     * commits, since a reader may reload and cache the old row before then.
+     */
+    public void remove(Long id) {
+        removeLocally(id);
+        afterCommit(() -> removeLocally(id));
+        publish(id);
+    }
+
+    private void removeLocally(Long id) {
+        LfuSegment<T> segment = segmentFor(id);
+        synchronized (segment) {
+            loading.remove(id);
+            if (missing != null) {
+                missing.invalidate(id);
             }
-            cache.put(id, new CacheEntry<>(value));
-            log.info("Cache add: Added item with ID {} to cache", id);
+            if (diskTier != null) {
+                diskTier.remove(id);
+            }
+            segment.remove(id);
+        }
+        notifyInvalidated(id);
+    }
+
+    public int size() {
+        int size = 0;
+        for (LfuSegment<T> segment : segments) {
+            size += segment.size();
         }
+        return size;
     }
 
-    private void evictLeastFrequentlyUsed() {
-        Long lfuKey = null;
-        int minFrequency = Integer.MAX_VALUE;
+    /** Sum of entry weights; equals {@link #size()} for a count-bounded cache. */
+    public long weightedSize() {
+        return sharedWeight.get();
+    }
+
+    /** Drops every entry; inside a transaction, again once it commits. */
+    public void clear() {
+        clearLocally();
+        afterCommit(this::clearLocally);
+        publish(null);
+    }
 
-        for (Map.Entry<Long, CacheEntry<T>> entry : cache.entrySet()) {
-            if (entry.getValue().frequency < minFrequency) {
-                minFrequency = entry.getValue().frequency;
-                lfuKey = entry.getKey();
+    /**
+     * Runs {@code action} after the current transaction commits and returns true, or
+     * returns false without running it when no transaction is active.
+     */
+    private static boolean afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+        return true;
+    }
+
+    private void clearLocally() {
+        for (LfuSegment<T> segment : segments) {
+            synchronized (segment) {
+                loading.keySet().removeIf(id -> segmentFor(id) == segment);
+                segment.clear();
             }
         }
-        if (lfuKey != null) {
-            cache.remove(lfuKey);
-            log.info(
-                    "Cache eviction: Removed least frequently used item with ID {} (frequency: {})",
-                    lfuKey,
-                    minFrequency
-            );
+        if (missing != null) {
+            missing.invalidateAll();
         }
+        if (diskTier != null) {
+            diskTier.clear();
+        }
+        notifyInvalidated(null);
+    }
+
+    /**
+     * Subscribes this cache to {@code bus}: from now on {@link #put}, {@link #remove}
+     * and {@link #clear} are reported to the other nodes, and what they report is
+     * dropped here. Loads, refreshes and restores are reads and are not reported.
+     */
+    public void attach(CacheInvalidationBus bus) {
+        bus.subscribe(name, this::invalidateLocally);
+        this.invalidationBus = bus;
+    }
+
+    /**
+     * Registers a listener told about every id whose cached value was replaced or
+     * dropped by a write, here or on another node, or null when the whole cache was
+     * cleared. Evictions are not reported. Used to keep derived copies, such as
+     * serialized responses, in step with this cache.
+     */
+    public void addInvalidationListener(Consumer<Long> listener) {
+        invalidationListeners.add(listener);
     }
 
-    public synchronized void remove(Long id) {
-        if (cache.remove(id) != null) {
-            log.info("Cache remove: Removed item with ID {} from cache", id);
+    private void notifyInvalidated(Long id) {
+        for (Consumer<Long> listener : invalidationListeners) {
+            listener.accept(id);
         }
     }
 
-    public synchronized void clear() {
-        cache.clear();
-        log.info("Cache cleared: All items removed");
+    private void invalidateLocally(Long id) {
+        if (id == null) {
+            clearLocally();
+        } else {
+            removeLocally(id);
+        }
+    }
+
+    private void publish(Long id) {
+        CacheInvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(name, id);
+        }
+    }
+
+    /**
+     * The {@code k} most looked-up ids with their estimated lookup counts, highest
+     * first; empty unless heavy-hitter tracking is enabled.
+     */
+    public List<HotKey> topKeys(int k) {
+        return heavyHitters == null ? List.of() : heavyHitters.top(k);
+    }
+
+    /** Number of entries held in the disk tier; zero without one. */
+    public int diskTierSize() {
+        return diskTier == null ? 0 : diskTier.size();
+    }
+
+    /** Releases the disk tier's file, if any. */
+    @Override
+    public void close() throws IOException {
+        if (diskTier != null) {
+            diskTier.close();
+        }
+    }
+
+    /**
+     * Up to {@code limit} cached ids with their access frequencies, most
+     * frequently used first. Used to snapshot the working set on shutdown.
+     */
+    public Map<Long, Integer> hottest(int limit) {
+        Map<Long, Integer> frequencies = new HashMap<>();
+        for (LfuSegment<T> segment : segments) {
+            segment.collectFrequencies(frequencies);
+        }
+        Map<Long, Integer> hottest = new LinkedHashMap<>();
+        frequencies.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(entry -> hottest.put(entry.getKey(), entry.getValue()));
+        return hottest;
+    }
+
+    /**
+     * Preloads a value with the frequency it had in an earlier run. Unlike
+     * {@link #put} it never evicts, so restoring hottest-first fills the cache with
+     * the old working set and stops once the budget is used. Returns whether the
+     * value was cached.
+     */
+    public boolean restore(Long id, T value, int frequency) {
+        LfuSegment<T> segment = segmentFor(id);
+        int weight = weigh(id, value);
+        double budgetFactor = budgetFactor();
+        synchronized (segment) {
+            if (missing != null) {
+                missing.invalidate(id);
+            }
+            return segment.restore(id, value, weight, frequency, budgetFactor, now());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Snapshot of the counters plus a histogram of entries by access frequency,
+     * keyed by power-of-two frequency ranges ("1", "2-3", "4-7", ...). For a
+     * weighted cache the maximum is a weight, as in Caffeine's eviction policy.
+     */
+    public CacheStats stats() {
+        long[] slots = new long[HISTOGRAM_SLOTS];
+        for (LfuSegment<T> segment : segments) {
+            segment.collectFrequencyHistogram(slots);
+        }
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot] > 0) {
+                histogram.put(histogramLabel(slot), slots[slot]);
+            }
+        }
+        return new CacheStats(name, size(), maximumWeight, weightedSize(),
+                (long) (maximumWeight * budgetFactor()), stats.hits(), stats.misses(),
+                stats.puts(), stats.evictions(), stats.rejections(), stats.negativeHits(),
+                histogram);
+    }
+
+    private static String histogramLabel(int slot) {
+        long low = 1L << slot;
+        if (slot == HISTOGRAM_SLOTS - 1) {
+            return low + "+";
+        }
+        long high = (low << 1) - 1;
+        return low == high ? Long.toString(low) : low + "-" + high;
     }
 }
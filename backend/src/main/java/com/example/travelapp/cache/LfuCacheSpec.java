@@ -0,0 +1,226 @@
+package com.example.travelapp.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.Weigher;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Settings of an {@link LfuCache}, built fluently in the subclass constructor.
+ *
+ * <pre>{@code
+ * super(LfuCacheSpec.maximumSize(10_000).name("users").concurrencyLevel(16).tinyLfuAdmission());
+ * }</pre>
+ *
+ * <p>A cache is bounded either by entry count ({@link #maximumSize}) or by the
+ * total weight its weigher assigns to the entries ({@link #maximumWeight}).
+ */
+public final class LfuCacheSpec {
+
+    private final long maximumWeight;
+    private final Weigher<Long, ?> weigher;
+    private String name;
+    private int concurrencyLevel = 1;
+    private boolean tinyLfuAdmission;
+    private int negativeMaximumSize;
+    private Duration negativeTtl;
+    private HeapPressure heapPressure;
+    private Duration expireAfterWrite;
+    private Duration refreshAfterWrite;
+    private Executor refreshExecutor;
+    private Path diskTierDirectory;
+    private int diskTierCapacityBytes;
+    private EntryCodec<?> diskTierCodec;
+    private Executor diskTierExecutor;
+    private int heavyHitterCapacity;
+    private Ticker ticker = Ticker.systemTicker();
+
+    private LfuCacheSpec(long maximumWeight, Weigher<Long, ?> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    public static LfuCacheSpec maximumSize(int maximumSize) {
+        return new LfuCacheSpec(maximumSize, null);
+    }
+
+    /**
+     * Bounds the cache by the sum of {@code weigher} over its entries. The weigher
+     * runs once per put, outside the segment lock, and must not return a negative value.
+     */
+    public static <T> LfuCacheSpec maximumWeight(long maximumWeight, Weigher<Long, T> weigher) {
+        return new LfuCacheSpec(maximumWeight, weigher);
+    }
+
+    /** Name under which the cache reports its statistics. */
+    public LfuCacheSpec name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /** Number of independently locked segments; rounded down to a power of two. */
+    public LfuCacheSpec concurrencyLevel(int concurrencyLevel) {
+        this.concurrencyLevel = concurrencyLevel;
+        return this;
+    }
+
+    /**
+     * Admits a new key into a full cache only if the frequency sketch rates it
+     * higher than the entry it would evict, and ages entry frequencies whenever
+     * the sketch is halved.
+     */
+    public LfuCacheSpec tinyLfuAdmission() {
+        this.tinyLfuAdmission = true;
+        return this;
+    }
+
+    /**
+     * Remembers up to {@code maximumSize} ids for which the loader found nothing,
+     * for {@code ttl}, so repeated lookups of unknown ids skip the loader.
+     * A {@code put} of the id forgets it immediately.
+     */
+    public LfuCacheSpec negativeCaching(int maximumSize, Duration ttl) {
+        this.negativeMaximumSize = maximumSize;
+        this.negativeTtl = ttl;
+        return this;
+    }
+
+    /**
+     * Shrinks the budget while old-gen occupancy is above {@code oldGenOccupancy}
+     * (between 0 and 1). The budget is enforced lazily: a put trims the cache
+     * down to the current budget, starting with the segment it lands in.
+     */
+    public LfuCacheSpec heapPressureThreshold(double oldGenOccupancy) {
+        return heapPressure(HeapPressure.oldGen(oldGenOccupancy, Ticker.systemTicker()));
+    }
+
+    LfuCacheSpec heapPressure(HeapPressure heapPressure) {
+        this.heapPressure = heapPressure;
+        return this;
+    }
+
+    /** Drops an entry once {@code duration} has passed since it was last written. */
+    public LfuCacheSpec expireAfterWrite(Duration duration) {
+        this.expireAfterWrite = duration;
+        return this;
+    }
+
+    /**
+     * Once {@code duration} has passed since an entry was written, the next read
+     * through {@link LfuCache#get(Long, java.util.function.Function)} reloads it on
+     * {@code executor} while readers keep getting the current value. Should be
+     * shorter than {@link #expireAfterWrite} so hot entries are refreshed before
+     * they expire.
+     */
+    public LfuCacheSpec refreshAfterWrite(Duration duration, Executor executor) {
+        this.refreshAfterWrite = duration;
+        this.refreshExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Adds a second tier: entries evicted for capacity are serialized with
+     * {@code codec} into a memory-mapped file of {@code capacityBytes} in
+     * {@code directory}, and moved back to the heap when read through
+     * {@link LfuCache#get(Long, java.util.function.Function)}. The file is
+     * compacted on {@code compactionExecutor}. Records are addressed by int
+     * offsets, so the file holds at most {@link Integer#MAX_VALUE} bytes.
+     */
+    public <T> LfuCacheSpec diskTier(Path directory, long capacityBytes, EntryCodec<T> codec,
+                                     Executor compactionExecutor) {
+        if (capacityBytes <= 0 || capacityBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Disk tier capacity must be between 1 and "
+                    + Integer.MAX_VALUE + " bytes, got " + capacityBytes);
+        }
+        this.diskTierDirectory = directory;
+        this.diskTierCapacityBytes = (int) capacityBytes;
+        this.diskTierCodec = codec;
+        this.diskTierExecutor = compactionExecutor;
+        return this;
+    }
+
+    /**
+     * Tracks the most looked-up ids with {@code capacity} Space-Saving counters,
+     * fed by every {@link LfuCache#get(Long, java.util.function.Function)} call,
+     * hits and misses alike.
+     */
+    public LfuCacheSpec trackHeavyHitters(int capacity) {
+        this.heavyHitterCapacity = capacity;
+        return this;
+    }
+
+    /** Time source for expiring entries; tests pass a controllable one. */
+    public LfuCacheSpec ticker(Ticker ticker) {
+        this.ticker = ticker;
+        return this;
+    }
+
+    long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    Weigher<Long, ?> getWeigher() {
+        return weigher;
+    }
+
+    HeapPressure getHeapPressure() {
+        return heapPressure;
+    }
+
+    Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    Duration getRefreshAfterWrite() {
+        return refreshAfterWrite;
+    }
+
+    Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    Path getDiskTierDirectory() {
+        return diskTierDirectory;
+    }
+
+    int getDiskTierCapacityBytes() {
+        return diskTierCapacityBytes;
+    }
+
+    EntryCodec<?> getDiskTierCodec() {
+        return diskTierCodec;
+    }
+
+    Executor getDiskTierExecutor() {
+        return diskTierExecutor;
+    }
+
+    int getHeavyHitterCapacity() {
+        return heavyHitterCapacity;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getConcurrencyLevel() {
+        return concurrencyLevel;
+    }
+
+    boolean isTinyLfuAdmission() {
+        return tinyLfuAdmission;
+    }
+
+    int getNegativeMaximumSize() {
+        return negativeMaximumSize;
+    }
+
+    Duration getNegativeTtl() {
+        return negativeTtl;
+    }
+
+    Ticker getTicker() {
+        return ticker;
+    }
+}
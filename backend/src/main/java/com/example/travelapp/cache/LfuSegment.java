@@ -0,0 +1,414 @@
+package com.example.travelapp.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One lock stripe of an {@link LfuCache} with constant-time get, put and eviction.
+ *
+ * <p>Entries are grouped into frequency buckets kept in a doubly-linked list in
+ * ascending frequency order, so the head bucket always holds the minimum frequency.
+ * Inside a bucket entries are ordered from the oldest to the most recently touched,
+ * so among equally frequent entries the least recently used one is evicted first.
+ * Capacity is a weight budget; a count-bounded cache gives every entry weight 1.
+ * The segments of a cache share one budget: each may always fill its own share and
+ * may borrow whatever weight the others leave unused, so an entry is only too heavy
+ * to cache when it outweighs the whole cache. Giving borrowed weight back is up to
+ * the {@link LfuCache}.
+ * Entries past their expire-after-write age are dropped lazily when read.
+ */
+final class LfuSegment<T> {
+
+    private static final int MAX_SKETCH_SIZE = 1 << 20;
+
+    private final long maxWeight;
+    private final long totalWeight;
+    private final AtomicLong sharedWeight;
+    private final long expireAfterWriteNanos;
+    private final CacheStatsCounter stats;
+    private final EvictionListener<T> evictionListener;
+    private final FrequencySketch sketch;
+    private final Map<Long, CacheEntry<T>> cache = new HashMap<>();
+    private FrequencyBucket<T> minFrequencyBucket;
+    private long weightedSize;
+
+    /** Called under the segment lock for every entry evicted for capacity. */
+    interface EvictionListener<T> {
+        void onEviction(Long id, T value, long writeTime);
+    }
+
+    static final class CacheEntry<T> {
+        final Long key;
+        T value;
+        int weight;
+        int frequency;
+        long writeTime;
+        boolean refreshing;
+        FrequencyBucket<T> bucket;
+        CacheEntry<T> prev;
+        CacheEntry<T> next;
+
+        CacheEntry(Long key, T value, int weight, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+            this.frequency = 1;
+        }
+    }
+
+    private static final class FrequencyBucket<T> {
+        private final int frequency;
+        private FrequencyBucket<T> prev;
+        private FrequencyBucket<T> next;
+        private CacheEntry<T> head;
+        private CacheEntry<T> tail;
+        private int size;
+
+        FrequencyBucket(int frequency) {
+            this.frequency = frequency;
+        }
+
+        void append(CacheEntry<T> entry) {
+            entry.bucket = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+            size++;
+        }
+
+        void unlink(CacheEntry<T> entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+            size--;
+        }
+
+        boolean isEmpty() {
+            return head == null;
+        }
+    }
+
+    /**
+     * The admission sketch is sized as if every entry weighed 1, which overestimates
+     * the entry count of a weighted segment and only costs a larger table. An
+     * {@code expireAfterWriteNanos} of zero means entries never expire; the
+     * eviction listener may be null. {@code sharedWeight} is the weight of all
+     * segments of the cache together, whose budget is {@code totalWeight}.
+     */
+    LfuSegment(long maxWeight, long totalWeight, AtomicLong sharedWeight,
+               boolean tinyLfuAdmission, long expireAfterWriteNanos,
+               CacheStatsCounter stats, EvictionListener<T> evictionListener) {
+        this.maxWeight = maxWeight;
+        this.totalWeight = totalWeight;
+        this.sharedWeight = sharedWeight;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.stats = stats;
+        this.evictionListener = evictionListener;
+        this.sketch = tinyLfuAdmission
+                ? new FrequencySketch((int) Math.min(maxWeight, MAX_SKETCH_SIZE))
+                : null;
+    }
+
+    synchronized T get(Long id, long now) {
+        recordAccess(id);
+        CacheEntry<T> entry = liveEntry(id, now);
+        if (entry != null) {
+            touch(entry);
+            stats.recordHit();
+            return entry.value;
+        }
+        stats.recordMiss();
+        return null;
+    }
+
+    /** Returns the cached value without counting an access. */
+    synchronized T peek(Long id, long now) {
+        CacheEntry<T> entry = liveEntry(id, now);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Marks the entry as being refreshed if it was written at least
+     * {@code refreshAfterNanos} ago and no refresh is running yet. Returns
+     * whether the caller won the claim and should reload the value.
+     */
+    synchronized boolean claimRefresh(Long id, long now, long refreshAfterNanos) {
+        CacheEntry<T> entry = cache.get(id);
+        if (entry == null || entry.refreshing || now - entry.writeTime < refreshAfterNanos) {
+            return false;
+        }
+        entry.refreshing = true;
+        return true;
+    }
+
+    /** Lets a later read retry a refresh that failed. */
+    synchronized void releaseRefresh(Long id) {
+        CacheEntry<T> entry = cache.get(id);
+        if (entry != null) {
+            entry.refreshing = false;
+        }
+    }
+
+    private CacheEntry<T> liveEntry(Long id, long now) {
+        CacheEntry<T> entry = cache.get(id);
+        if (entry != null && expireAfterWriteNanos > 0
+                && now - entry.writeTime >= expireAfterWriteNanos) {
+            cache.remove(id);
+            detach(entry);
+            addWeight(-entry.weight);
+            return null;
+        }
+        return entry;
+    }
+
+    /** This segment's own share of the budget, scaled by {@code budgetFactor}. */
+    long share(double budgetFactor) {
+        return (long) (maxWeight * budgetFactor);
+    }
+
+    /** The weight the other segments leave unused, counting this segment's own. */
+    private long unused(double budgetFactor) {
+        return (long) (totalWeight * budgetFactor) - (sharedWeight.get() - weightedSize);
+    }
+
+    private void addWeight(long delta) {
+        weightedSize += delta;
+        sharedWeight.addAndGet(delta);
+    }
+
+    /**
+     * Stores {@code value} with {@code weight}, evicting least frequently used
+     * entries until the segment fits its share of the budget, scaled by
+     * {@code budgetFactor}, or what the other segments leave unused if that is more.
+     * A value heavier than that is not cached.
+     */
+    synchronized void put(Long id, T value, int weight, double budgetFactor, long now) {
+        stats.recordPut();
+        long budget = Math.max(share(budgetFactor), unused(budgetFactor));
+        CacheEntry<T> entry = cache.get(id);
+        if (entry != null) {
+            addWeight(weight - entry.weight);
+            entry.value = value;
+            entry.weight = weight;
+            entry.writeTime = now;
+            entry.refreshing = false;
+            touch(entry);
+            evictUntilWithin(budget);
+            return;
+        }
+        if (weight > budget) {
+            return;
+        }
+        if (weightedSize + weight > budget) {
+            if (!admit(id)) {
+                stats.recordRejection();
+                return;
+            }
+            evictUntilWithin(budget - weight);
+        }
+        CacheEntry<T> created = new CacheEntry<>(id, value, weight, now);
+        cache.put(id, created);
+        addWeight(weight);
+        FrequencyBucket<T> first = minFrequencyBucket;
+        if (first == null || first.frequency != 1) {
+            first = insertBucketAfter(null, 1);
+        }
+        first.append(created);
+    }
+
+    /**
+     * Inserts a value with a frequency carried over from an earlier run, without
+     * evicting anything or counting a put. Returns false if the id is already
+     * cached or the value does not fit the budget the whole cache has left.
+     */
+    synchronized boolean restore(Long id, T value, int weight, int frequency,
+                                 double budgetFactor, long now) {
+        if (cache.containsKey(id) || weightedSize + weight > unused(budgetFactor)) {
+            return false;
+        }
+        int restored = Math.max(1, frequency);
+        int sketchCount = Math.min(restored, FrequencySketch.MAX_COUNTER);
+        for (int i = 0; sketch != null && i < sketchCount; i++) {
+            recordAccess(id);
+        }
+        CacheEntry<T> created = new CacheEntry<>(id, value, weight, now);
+        created.frequency = restored;
+        cache.put(id, created);
+        addWeight(weight);
+        FrequencyBucket<T> anchor = null;
+        FrequencyBucket<T> bucket = minFrequencyBucket;
+        while (bucket != null && bucket.frequency < restored) {
+            anchor = bucket;
+            bucket = bucket.next;
+        }
+        if (bucket == null || bucket.frequency != restored) {
+            bucket = insertBucketAfter(anchor, restored);
+        }
+        bucket.append(created);
+        return true;
+    }
+
+    private void recordAccess(Long id) {
+        if (sketch != null && sketch.increment(id)) {
+            ageFrequencies();
+        }
+    }
+
+    private boolean admit(Long candidate) {
+        if (sketch == null || minFrequencyBucket == null) {
+            return true;
+        }
+        Long victim = minFrequencyBucket.head.key;
+        return sketch.frequency(candidate) > sketch.frequency(victim);
+    }
+
+    /**
+     * Halves every entry frequency, keeping the relative order of entries, so that
+     * entries which stopped being read eventually become eviction candidates again.
+     * Entries read more than once never drop below 2, which keeps one-off keys in
+     * the lowest bucket evicting each other instead of the working set.
+     */
+    private void ageFrequencies() {
+        FrequencyBucket<T> bucket = minFrequencyBucket;
+        minFrequencyBucket = null;
+        FrequencyBucket<T> last = null;
+        while (bucket != null) {
+            FrequencyBucket<T> nextBucket = bucket.next;
+            CacheEntry<T> entry = bucket.head;
+            while (entry != null) {
+                CacheEntry<T> nextEntry = entry.next;
+                entry.frequency = Math.max(Math.min(entry.frequency, 2), entry.frequency / 2);
+                if (last == null || last.frequency != entry.frequency) {
+                    last = insertBucketAfter(last, entry.frequency);
+                }
+                last.append(entry);
+                entry = nextEntry;
+            }
+            bucket = nextBucket;
+        }
+    }
+
+    private void touch(CacheEntry<T> entry) {
+        FrequencyBucket<T> current = entry.bucket;
+        int nextFrequency = entry.frequency + 1;
+        FrequencyBucket<T> target = current.next;
+        if (target == null || target.frequency != nextFrequency) {
+            target = insertBucketAfter(current, nextFrequency);
+        }
+        detach(entry);
+        entry.frequency = nextFrequency;
+        target.append(entry);
+    }
+
+    private FrequencyBucket<T> insertBucketAfter(FrequencyBucket<T> anchor, int frequency) {
+        FrequencyBucket<T> bucket = new FrequencyBucket<>(frequency);
+        FrequencyBucket<T> successor = anchor == null ? minFrequencyBucket : anchor.next;
+        bucket.prev = anchor;
+        bucket.next = successor;
+        if (successor != null) {
+            successor.prev = bucket;
+        }
+        if (anchor == null) {
+            minFrequencyBucket = bucket;
+        } else {
+            anchor.next = bucket;
+        }
+        return bucket;
+    }
+
+    private void detach(CacheEntry<T> entry) {
+        FrequencyBucket<T> bucket = entry.bucket;
+        bucket.unlink(entry);
+        if (bucket.isEmpty()) {
+            if (bucket.prev == null) {
+                minFrequencyBucket = bucket.next;
+            } else {
+                bucket.prev.next = bucket.next;
+            }
+            if (bucket.next != null) {
+                bucket.next.prev = bucket.prev;
+            }
+        }
+    }
+
+    private void evictUntilWithin(long budget) {
+        while (weightedSize > budget && minFrequencyBucket != null) {
+            CacheEntry<T> victim = minFrequencyBucket.head;
+            detach(victim);
+            cache.remove(victim.key);
+            addWeight(-victim.weight);
+            stats.recordEviction();
+            if (evictionListener != null) {
+                evictionListener.onEviction(victim.key, victim.value, victim.writeTime);
+            }
+        }
+    }
+
+    /**
+     * Evicts least frequently used entries to give back up to {@code excess} weight,
+     * without going below {@code floor}. Returns the weight given back.
+     */
+    synchronized long giveBack(long excess, long floor) {
+        long before = weightedSize;
+        evictUntilWithin(Math.max(floor, weightedSize - excess));
+        return before - weightedSize;
+    }
+
+    synchronized void remove(Long id) {
+        CacheEntry<T> entry = cache.remove(id);
+        if (entry != null) {
+            detach(entry);
+            addWeight(-entry.weight);
+        }
+    }
+
+    synchronized int size() {
+        return cache.size();
+    }
+
+    synchronized long weightedSize() {
+        return weightedSize;
+    }
+
+    synchronized void clear() {
+        cache.clear();
+        minFrequencyBucket = null;
+        addWeight(-weightedSize);
+    }
+
+    synchronized void collectFrequencies(Map<Long, Integer> frequencies) {
+        for (CacheEntry<T> entry : cache.values()) {
+            frequencies.put(entry.key, entry.frequency);
+        }
+    }
+
+    /**
+     * Adds this segment's entry counts to {@code histogram}, indexed by the
+     * power-of-two frequency range: slot 0 is frequency 1, slot 1 is 2-3,
+     * slot 2 is 4-7 and so on. Costs one step per distinct frequency.
+     */
+    synchronized void collectFrequencyHistogram(long[] histogram) {
+        for (FrequencyBucket<T> bucket = minFrequencyBucket; bucket != null;
+             bucket = bucket.next) {
+            int slot = 31 - Integer.numberOfLeadingZeros(bucket.frequency);
+            histogram[Math.min(slot, histogram.length - 1)] += bucket.size;
+        }
+    }
+}
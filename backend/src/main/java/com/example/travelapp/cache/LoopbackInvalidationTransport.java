@@ -0,0 +1,27 @@
+package com.example.travelapp.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers every batch synchronously to every subscriber in this JVM. With one bus
+ * it is the single-node default; sharing one instance between several buses
+ * simulates a cluster in a test.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private final List<Consumer<List<Invalidation>>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<Invalidation> batch) {
+        for (Consumer<List<Invalidation>> receiver : receivers) {
+            receiver.accept(batch);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<List<Invalidation>> receiver) {
+        receivers.add(receiver);
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.travelapp.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Append-only, memory-mapped store of byte records keyed by {@code long} id, used
+ * as the second tier of an {@link LfuCache}.
+ *
+ * <p>Each record is an id, a write time, a length and the payload. Writing an id
+ * again or removing it only updates the in-heap index; the old bytes become garbage.
+ * Once garbage exceeds half the file, or a record no longer fits, a compaction runs
+ * on the given executor: it copies the live records into a fresh file without
+ * holding the lock, then, under the lock, copies whatever was written meanwhile and
+ * swaps the files. Compaction drops records older than the expire-after-write, and
+ * then the oldest appended records until the rest fill at most half the file, so a
+ * full file of records nobody reads frees space for new ones. Records that do not
+ * fit are dropped, which is harmless for a cache. The file is scratch space:
+ * leftovers from earlier runs are deleted on open.
+ */
+final class MappedRecordFile implements AutoCloseable {
+
+    private static final int HEADER_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int LENGTH_OFFSET = Long.BYTES + Long.BYTES;
+    private static final String SUFFIX = ".l2";
+
+    private final Path directory;
+    private final String name;
+    private final int capacity;
+    private final long expireAfterWriteNanos;
+    private final Ticker ticker;
+    private final Executor compactionExecutor;
+
+    private Map<Long, Integer> index = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private Path file;
+    private int generation;
+    private int writePosition;
+    private long liveBytes;
+    private boolean compacting;
+    private boolean closed;
+    private long clears;
+
+    static final class Record {
+        final long writeTime;
+        final byte[] payload;
+
+        Record(long writeTime, byte[] payload) {
+            this.writeTime = writeTime;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Write times are read from {@code ticker}; an {@code expireAfterWriteNanos} of 0
+     * keeps records until they are taken, removed or evicted for space.
+     */
+    MappedRecordFile(Path directory, String name, int capacity, long expireAfterWriteNanos,
+                     Ticker ticker, Executor compactionExecutor) {
+        this.directory = directory;
+        this.name = name;
+        this.capacity = capacity;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.ticker = ticker;
+        this.compactionExecutor = compactionExecutor;
+        try {
+            Files.createDirectories(directory);
+            deleteLeftovers();
+            this.file = fileFor(generation);
+            this.channel = open(file);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open cache tier file in " + directory, e);
+        }
+    }
+
+    /** Returns false if the record does not fit until the next compaction. */
+    synchronized boolean append(long id, long writeTime, byte[] payload) {
+        int length = HEADER_BYTES + payload.length;
+        if (!closed && writePosition + (long) length > capacity && length <= capacity / 2) {
+            // Frees space for later appends, or for this one on a direct executor.
+            scheduleCompaction();
+        }
+        if (closed || writePosition + (long) length > capacity) {
+            return false;
+        }
+        int offset = writePosition;
+        buffer.putLong(offset, id);
+        buffer.putLong(offset + Long.BYTES, writeTime);
+        buffer.putInt(offset + LENGTH_OFFSET, payload.length);
+        buffer.put(offset + HEADER_BYTES, payload);
+        writePosition += length;
+        liveBytes += length;
+        Integer previous = index.put(id, offset);
+        if (previous != null) {
+            liveBytes -= recordLength(buffer, previous);
+        }
+        scheduleCompactionIfWorthwhile();
+        return true;
+    }
+
+    /** Removes the record and returns it, or null if the id is not stored. */
+    synchronized Record take(long id) {
+        Integer offset = index.remove(id);
+        if (offset == null) {
+            return null;
+        }
+        byte[] payload = new byte[buffer.getInt(offset + LENGTH_OFFSET)];
+        buffer.get(offset + HEADER_BYTES, payload);
+        long writeTime = buffer.getLong(offset + Long.BYTES);
+        liveBytes -= HEADER_BYTES + payload.length;
+        scheduleCompactionIfWorthwhile();
+        return new Record(writeTime, payload);
+    }
+
+    synchronized void remove(long id) {
+        Integer offset = index.remove(id);
+        if (offset != null) {
+            liveBytes -= recordLength(buffer, offset);
+            scheduleCompactionIfWorthwhile();
+        }
+    }
+
+    /** Rewinds the file; a compaction in progress is discarded. */
+    synchronized void clear() {
+        clears++;
+        index = new HashMap<>();
+        writePosition = 0;
+        liveBytes = 0;
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    synchronized long fileBytes() {
+        return writePosition;
+    }
+
+    private void scheduleCompactionIfWorthwhile() {
+        if (writePosition - liveBytes > capacity / 2) {
+            scheduleCompaction();
+        }
+    }
+
+    private void scheduleCompaction() {
+        if (compacting || closed) {
+            return;
+        }
+        compacting = true;
+        try {
+            compactionExecutor.execute(this::compact);
+        } catch (RejectedExecutionException e) {
+            // The executor is saturated; the next append, take or remove tries again.
+            compacting = false;
+        }
+    }
+
+    /**
+     * Copies the live records into the next generation's file, minus expired ones
+     * and, oldest first, those beyond half the capacity. The bulk copy works on a
+     * snapshot of the index outside the lock, which is safe because records are
+     * never overwritten in place; the swap re-checks the index under the lock.
+     * A compaction that fails or is overtaken closes and deletes its target file.
+     */
+    void compact() {
+        Map<Long, Integer> snapshot;
+        ByteBuffer source;
+        Path targetFile;
+        long clearsAtStart;
+        synchronized (this) {
+            if (closed) {
+                compacting = false;
+                return;
+            }
+            snapshot = new HashMap<>(index);
+            source = buffer.duplicate();
+            targetFile = fileFor(generation + 1);
+            clearsAtStart = clears;
+        }
+        FileChannel targetChannel = null;
+        FileChannel replaced = null;
+        Path replacedFile = null;
+        try {
+            targetChannel = open(targetFile);
+            MappedByteBuffer target = targetChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    capacity);
+            long now = ticker.read();
+            List<Map.Entry<Long, Integer>> kept = new ArrayList<>(snapshot.size());
+            long keptBytes = 0;
+            for (Map.Entry<Long, Integer> entry : snapshot.entrySet()) {
+                if (!expired(source, entry.getValue(), now)) {
+                    kept.add(entry);
+                    keptBytes += recordLength(source, entry.getValue());
+                }
+            }
+            kept.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+            int first = 0;
+            while (keptBytes > capacity / 2) {
+                keptBytes -= recordLength(source, kept.get(first++).getValue());
+            }
+            Map<Long, Integer> moved = new HashMap<>();
+            int position = 0;
+            for (Map.Entry<Long, Integer> entry : kept.subList(first, kept.size())) {
+                int length = recordLength(source, entry.getValue());
+                copy(source, entry.getValue(), target, position, length);
+                moved.put(entry.getKey(), position);
+                position += length;
+            }
+            synchronized (this) {
+                if (closed || clears != clearsAtStart) {
+                    return;
+                }
+                Map<Long, Integer> newIndex = new HashMap<>();
+                for (Map.Entry<Long, Integer> entry : index.entrySet()) {
+                    Integer offset = entry.getValue();
+                    if (offset.equals(snapshot.get(entry.getKey()))) {
+                        Integer movedTo = moved.get(entry.getKey());
+                        if (movedTo != null) {
+                            newIndex.put(entry.getKey(), movedTo);
+                        }
+                        continue;
+                    }
+                    int length = recordLength(buffer, offset);
+                    if (!expired(buffer, offset, now) && position + (long) length <= capacity) {
+                        copy(buffer, offset, target, position, length);
+                        newIndex.put(entry.getKey(), position);
+                        position += length;
+                    }
+                }
+                replaced = channel;
+                replacedFile = file;
+                channel = targetChannel;
+                buffer = target;
+                file = targetFile;
+                generation++;
+                index = newIndex;
+                writePosition = position;
+                liveBytes = position;
+            }
+            replaced.close();
+            Files.deleteIfExists(replacedFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cache tier compaction failed for " + targetFile, e);
+        } finally {
+            if (replaced == null) {
+                discard(targetChannel, targetFile);
+            }
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    /** Closes and deletes a file that never became the live one, ignoring failures. */
+    private static void discard(FileChannel channel, Path path) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Left for deleteLeftovers on the next start.
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        index = new HashMap<>();
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    private boolean expired(ByteBuffer source, int offset, long now) {
+        return expireAfterWriteNanos > 0
+                && now - source.getLong(offset + Long.BYTES) >= expireAfterWriteNanos;
+    }
+
+    private static int recordLength(ByteBuffer source, int offset) {
+        return HEADER_BYTES + source.getInt(offset + LENGTH_OFFSET);
+    }
+
+    private static void copy(ByteBuffer source, int from, ByteBuffer target, int to, int length) {
+        byte[] bytes = new byte[length];
+        source.get(from, bytes);
+        target.put(to, bytes);
+    }
+
+    private Path fileFor(int fileGeneration) {
+        return directory.resolve(name + "." + fileGeneration + SUFFIX);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private void deleteLeftovers() throws IOException {
+        try (DirectoryStream<Path> leftovers =
+                     Files.newDirectoryStream(directory, name + ".*" + SUFFIX)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+}
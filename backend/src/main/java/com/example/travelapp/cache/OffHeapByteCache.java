@@ -0,0 +1,116 @@
+package com.example.travelapp.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache of values kept as encoded bytes in direct memory rather than as objects on
+ * the heap, for large values that are only ever written out again, such as response
+ * bodies. Lookups return a fresh copy of the bytes; the heap holds only the index.
+ *
+ * <p>Ids are spread over independently locked {@link SlabSegment}s by hash. The
+ * capacity is divided into fixed-size slabs, one of which per segment is held in
+ * reserve for compaction, and values larger than a slab are never cached.
+ */
+public abstract class OffHeapByteCache<T> {
+
+    private final String name;
+    private final long capacityBytes;
+    private final EntryCodec<T> codec;
+    private final CacheStatsCounter stats = new CacheStatsCounter();
+    private final SlabSegment[] segments;
+    private final int segmentMask;
+
+    protected OffHeapByteCache(String name, long capacityBytes, int slabBytes,
+                               int concurrencyLevel, EntryCodec<T> codec) {
+        this.name = name;
+        this.codec = codec;
+        long totalSlabs = Math.max(2, capacityBytes / slabBytes);
+        int segmentCount = Integer.highestOneBit(
+                (int) Math.max(1, Math.min(concurrencyLevel, totalSlabs / 2)));
+        int slabsPerSegment = (int) Math.min(Integer.MAX_VALUE, totalSlabs / segmentCount);
+        this.capacityBytes = (long) slabsPerSegment * segmentCount * slabBytes;
+        this.segments = new SlabSegment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new SlabSegment(slabsPerSegment, slabBytes, stats);
+        }
+    }
+
+    private SlabSegment segmentFor(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return segments[(int) (h ^ (h >>> 32)) & segmentMask];
+    }
+
+    public byte[] get(Long id) {
+        return segmentFor(id).get(id);
+    }
+
+    /**
+     * Returns the cached bytes, or loads the value, encodes it, caches the bytes and
+     * returns them. Returns null if the loader does; exceptions from the loader
+     * propagate.
+     */
+    public byte[] get(Long id, Function<Long, ? extends T> loader) {
+        SlabSegment segment = segmentFor(id);
+        byte[] bytes = segment.get(id);
+        if (bytes != null) {
+            return bytes;
+        }
+        long stamp = segment.stamp();
+        T value = loader.apply(id);
+        if (value == null) {
+            return null;
+        }
+        try {
+            bytes = codec.encode(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode entry " + id + " of " + name, e);
+        }
+        segment.put(id, bytes, stamp);
+        return bytes;
+    }
+
+    public void remove(Long id) {
+        segmentFor(id).remove(id);
+    }
+
+    public void clear() {
+        for (SlabSegment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (SlabSegment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /** Bytes held by cached values; excludes garbage awaiting compaction. */
+    public long usedBytes() {
+        long used = 0;
+        for (SlabSegment segment : segments) {
+            used += segment.usedBytes();
+        }
+        return used;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Counters of this cache; sizes are in bytes and rejections count values that
+     * were too large or raced with an invalidation.
+     */
+    public CacheStats stats() {
+        return new CacheStats(name, size(), capacityBytes, usedBytes(), capacityBytes,
+                stats.hits(), stats.misses(), stats.puts(), stats.evictions(),
+                stats.rejections(), 0, Map.of());
+    }
+}
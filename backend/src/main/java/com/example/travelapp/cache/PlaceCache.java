@@ -0,0 +1,23 @@
+package com.example.travelapp.cache;
+
+import com.example.travelapp.model.dto.response.PlaceResponseDto;
+import java.time.Duration;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PlaceCache extends LfuCache<PlaceResponseDto> {
+    private static final int MAX_CAPACITY = 1_000;
+    private static final int CONCURRENCY_LEVEL = 16;
+    private static final int HOT_KEY_CAPACITY = 512;
+    private static final int NEGATIVE_CAPACITY = 10_000;
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(30);
+
+    public PlaceCache() {
+        super(LfuCacheSpec.maximumSize(MAX_CAPACITY)
+                .name("places")
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .tinyLfuAdmission()
+                .trackHeavyHitters(HOT_KEY_CAPACITY)
+                .negativeCaching(NEGATIVE_CAPACITY, NEGATIVE_TTL));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.travelapp.cache;
+
+import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized JSON of {@link RouteResponseDto}s, kept off-heap so that long routes,
+ * which carry every place, do not sit in the old generation as object graphs.
+ * Served as-is by {@code GET /api/routes/{id}}.
+ *
+ * <p>The bytes are derived from {@link RouteCache}: every write to that cache,
+ * local or reported by another node, drops the matching bytes here. The JSON is
+ * written by the application's own {@link ObjectMapper}, so it is identical to what
+ * the message converters would produce.
+ */
+@Component
+public class RouteJsonCache extends OffHeapByteCache<RouteResponseDto> {
+    private static final int SLAB_BYTES = 1 << 20;
+    private static final int CONCURRENCY_LEVEL = 8;
+
+    public RouteJsonCache(RouteCache routeCache, ObjectMapper objectMapper,
+                          @Value("${app.cache.route-json.capacity-mb:64}") int capacityMb) {
+        super("routes-json", (long) capacityMb << 20, SLAB_BYTES, CONCURRENCY_LEVEL,
+                new JacksonEntryCodec<>(objectMapper, RouteResponseDto.class));
+        routeCache.addInvalidationListener(id -> {
+            if (id == null) {
+                clear();
+            } else {
+                remove(id);
+            }
+        });
+    }
+}
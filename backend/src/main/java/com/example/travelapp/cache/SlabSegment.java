@@ -0,0 +1,201 @@
+package com.example.travelapp.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One independently locked part of an {@link OffHeapByteCache}: a set of
+ * equally sized direct {@link ByteBuffer} slabs that values are appended to, and an
+ * on-heap index from id to slab, offset and length.
+ *
+ * <p>Slabs fill one at a time. When the last free slab is full, the oldest full slab
+ * is reclaimed into the spare slab, which is kept empty for that purpose: values
+ * read since they were written there are compacted into the spare, everything
+ * else in the old slab, including bytes left behind by overwrites and removals, is
+ * dropped, and the old slab becomes the new spare. That is a second-chance FIFO
+ * over slabs; a value survives as long as it keeps being read.
+ *
+ * <p>Every removal and clear bumps a counter. A caller that loads a value stamps
+ * the counter first and the store refuses the value if the counter moved, so a
+ * load that raced with an invalidation cannot put stale bytes back.
+ */
+final class SlabSegment {
+
+    private static final class Entry {
+        int slab;
+        int offset;
+        final int length;
+        boolean referenced;
+
+        Entry(int slab, int offset, int length) {
+            this.slab = slab;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private final int slabBytes;
+    private final ByteBuffer[] slabs;
+    private final List<List<Long>> residents;
+    private final int[] liveBytes;
+    private final CacheStatsCounter stats;
+    private final Map<Long, Entry> index = new HashMap<>();
+    private final ArrayDeque<Integer> sealed = new ArrayDeque<>();
+    private final ArrayDeque<Integer> free = new ArrayDeque<>();
+    private int current;
+    private int spare;
+    private int writeOffset;
+    private long invalidations;
+
+    SlabSegment(int slabCount, int slabBytes, CacheStatsCounter stats) {
+        if (slabCount < 2) {
+            throw new IllegalArgumentException("A slab segment needs at least two slabs");
+        }
+        this.slabBytes = slabBytes;
+        this.slabs = new ByteBuffer[slabCount];
+        this.residents = new ArrayList<>(slabCount);
+        this.liveBytes = new int[slabCount];
+        this.stats = stats;
+        for (int i = 0; i < slabCount; i++) {
+            residents.add(new ArrayList<>());
+        }
+        reset();
+    }
+
+    private void reset() {
+        index.clear();
+        sealed.clear();
+        free.clear();
+        for (int i = 0; i < slabs.length; i++) {
+            residents.get(i).clear();
+            liveBytes[i] = 0;
+            if (i > 1) {
+                free.add(i);
+            }
+        }
+        current = allocate(0);
+        spare = 1;
+        writeOffset = 0;
+    }
+
+    /** Slabs are allocated on first use so an idle cache does not hold its capacity. */
+    private int allocate(int slab) {
+        if (slabs[slab] == null) {
+            slabs[slab] = ByteBuffer.allocateDirect(slabBytes);
+        }
+        return slab;
+    }
+
+    synchronized byte[] get(Long id) {
+        Entry entry = index.get(id);
+        if (entry == null) {
+            stats.recordMiss();
+            return null;
+        }
+        entry.referenced = true;
+        byte[] bytes = new byte[entry.length];
+        slabs[entry.slab].get(entry.offset, bytes);
+        stats.recordHit();
+        return bytes;
+    }
+
+    synchronized long stamp() {
+        return invalidations;
+    }
+
+    /** Stores the bytes unless an invalidation happened since {@code stamp}. */
+    synchronized boolean put(Long id, byte[] bytes, long stamp) {
+        if (stamp != invalidations || bytes.length > slabBytes) {
+            stats.recordRejection();
+            return false;
+        }
+        unlink(id);
+        ensureRoom(bytes.length);
+        slabs[current].put(writeOffset, bytes);
+        index.put(id, new Entry(current, writeOffset, bytes.length));
+        residents.get(current).add(id);
+        liveBytes[current] += bytes.length;
+        writeOffset += bytes.length;
+        stats.recordPut();
+        return true;
+    }
+
+    synchronized void remove(Long id) {
+        invalidations++;
+        unlink(id);
+    }
+
+    synchronized void clear() {
+        invalidations++;
+        reset();
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    synchronized long usedBytes() {
+        long used = 0;
+        for (int live : liveBytes) {
+            used += live;
+        }
+        return used;
+    }
+
+    private void unlink(Long id) {
+        Entry entry = index.remove(id);
+        if (entry != null) {
+            liveBytes[entry.slab] -= entry.length;
+        }
+    }
+
+    private void ensureRoom(int length) {
+        while (slabBytes - writeOffset < length) {
+            sealed.add(current);
+            Integer next = free.poll();
+            if (next != null) {
+                current = allocate(next);
+                writeOffset = 0;
+            } else {
+                reclaim(sealed.poll());
+            }
+        }
+    }
+
+    /**
+     * Compacts the referenced values of {@code victim} into the spare slab, which
+     * becomes the slab being written, and evicts the rest. Survivors lose their
+     * referenced bit, so repeated reclaims terminate even if every value was read.
+     */
+    private void reclaim(int victim) {
+        int target = allocate(spare);
+        int offset = 0;
+        for (Long id : residents.get(victim)) {
+            Entry entry = index.get(id);
+            if (entry == null || entry.slab != victim) {
+                continue;
+            }
+            if (entry.referenced && offset + entry.length <= slabBytes) {
+                slabs[target].put(offset, slabs[victim], entry.offset, entry.length);
+                entry.slab = target;
+                entry.offset = offset;
+                entry.referenced = false;
+                residents.get(target).add(id);
+                liveBytes[target] += entry.length;
+                offset += entry.length;
+            } else {
+                index.remove(id);
+                stats.recordEviction();
+            }
+        }
+        residents.get(victim).clear();
+        liveBytes[victim] = 0;
+        spare = victim;
+        current = target;
+        writeOffset = offset;
+    }
+}
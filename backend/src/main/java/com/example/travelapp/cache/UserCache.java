@@ -1,11 +1,71 @@
 package com.example.travelapp.cache;
 
-import com.example.travelapp.model.User;
+import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.example.travelapp.model.dto.response.UserResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Users are bounded by weight rather than count: a user with thousands of routes
+ * holds thousands of route and place DTOs, so each entry weighs one unit for the
+ * user plus one per route and one per place on those routes.
+ *
+ * <p>Writes on other instances reach this cache through the
+ * {@link CacheInvalidationBus}; in case a message is lost, entries are also reloaded
+ * in the background on the task executor a minute after they were written and
+ * dropped after ten minutes if nobody read them in between.
+ *
+ * <p>If {@code app.cache.disk-tier.directory} is set, users evicted from the heap
+ * move to a memory-mapped file there instead of being dropped.
+ */
 @Component
-public class UserCache extends LfuCache<User> {
-    public UserCache() {
-        super(2);
+public class UserCache extends LfuCache<UserResponseDto> {
+    private static final long MAX_WEIGHT = 20_000;
+    private static final int CONCURRENCY_LEVEL = 16;
+    private static final double HEAP_PRESSURE_THRESHOLD = 0.75;
+    private static final Duration REFRESH_AFTER_WRITE = Duration.ofMinutes(1);
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+    private static final int HOT_KEY_CAPACITY = 512;
+    private static final int NEGATIVE_CAPACITY = 10_000;
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(30);
+
+    public UserCache(@Qualifier("taskExecutor") Executor taskExecutor,
+                     @Value("${app.cache.disk-tier.directory:}") String diskTierDirectory,
+                     @Value("${app.cache.disk-tier.capacity-mb:256}") int diskTierCapacityMb) {
+        super(spec(taskExecutor, diskTierDirectory, diskTierCapacityMb));
+    }
+
+    private static LfuCacheSpec spec(Executor taskExecutor, String diskTierDirectory,
+                                     int diskTierCapacityMb) {
+        LfuCacheSpec spec = LfuCacheSpec.maximumWeight(MAX_WEIGHT, UserCache::estimateWeight)
+                .name("users")
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .tinyLfuAdmission()
+                .heapPressureThreshold(HEAP_PRESSURE_THRESHOLD)
+                .refreshAfterWrite(REFRESH_AFTER_WRITE, taskExecutor)
+                .expireAfterWrite(EXPIRE_AFTER_WRITE)
+                .trackHeavyHitters(HOT_KEY_CAPACITY)
+                .negativeCaching(NEGATIVE_CAPACITY, NEGATIVE_TTL);
+        if (!diskTierDirectory.isBlank()) {
+            spec.diskTier(Path.of(diskTierDirectory), (long) diskTierCapacityMb << 20,
+                    new JacksonEntryCodec<>(new ObjectMapper(), UserResponseDto.class),
+                    taskExecutor);
+        }
+        return spec;
+    }
+
+    static int estimateWeight(Long id, UserResponseDto user) {
+        long weight = 1;
+        if (user.getRoutes() != null) {
+            for (RouteResponseDto route : user.getRoutes()) {
+                weight += 1 + (route.getPlaces() != null ? route.getPlaces().size() : 0);
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
     }
 }
@@ -1,29 +1,90 @@
 package com.example.travelapp.config;
 
+import com.example.travelapp.cache.CacheInvalidationBus;
+import com.example.travelapp.cache.InvalidatingCaffeineCache;
+import com.example.travelapp.cache.InvalidationTransport;
+import com.example.travelapp.cache.JdbcInvalidationTransport;
+import com.example.travelapp.cache.LfuCache;
+import com.example.travelapp.cache.LoopbackInvalidationTransport;
+import com.example.travelapp.index.VisitedPlacesIndex;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final Duration INVALIDATION_RETENTION = Duration.ofMinutes(10);
+
+    /** Log task ids come from a per-node counter, so other nodes' tasks are unrelated. */
+    private static final Set<String> NODE_LOCAL_CACHES = Set.of("logTasks");
+
+    @Bean
+    public InvalidationTransport invalidationTransport(
+            @Value("${app.cache.invalidation.transport:loopback}") String transport,
+            @Value("${app.cache.invalidation.poll-interval-ms:500}") long pollIntervalMs,
+            ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        switch (transport) {
+            case "loopback":
+                return new LoopbackInvalidationTransport();
+            case "jdbc":
+                return new JdbcInvalidationTransport(jdbcTemplate.getObject(),
+                        Duration.ofMillis(pollIntervalMs), INVALIDATION_RETENTION);
+            default:
+                throw new IllegalStateException(
+                        "Unknown cache invalidation transport: " + transport);
+        }
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(
+            InvalidationTransport invalidationTransport, List<LfuCache<?>> lfuCaches,
+            VisitedPlacesIndex visitedPlacesIndex,
+            @Value("${app.cache.invalidation.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${app.cache.invalidation.max-batch-size:500}") int maxBatchSize) {
+        CacheInvalidationBus bus = new CacheInvalidationBus(invalidationTransport,
+                Duration.ofMillis(flushIntervalMs), maxBatchSize);
+        for (LfuCache<?> cache : lfuCaches) {
+            cache.attach(bus);
+        }
+        visitedPlacesIndex.attach(bus);
+        return bus;
+    }
 
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    public CacheManager cacheManager(CacheInvalidationBus cacheInvalidationBus) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(
+                    String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                if (NODE_LOCAL_CACHES.contains(name)) {
+                    return super.adaptCaffeineCache(name, cache);
+                }
+                return new InvalidatingCaffeineCache(name, cache, isAllowNullValues(),
+                        cacheInvalidationBus);
+            }
+        };
         cacheManager.registerCustomCache("logTasks",
                 Caffeine.newBuilder()
                         .maximumSize(100)
                         .expireAfterWrite(1, TimeUnit.HOURS)
+                        .recordStats()
                         .build());
         cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(20).expireAfterWrite(10, TimeUnit.MINUTES));
+                .maximumSize(20).expireAfterWrite(10, TimeUnit.MINUTES).recordStats());
         return cacheManager;
     }
-}
\ No newline at end of file
+}
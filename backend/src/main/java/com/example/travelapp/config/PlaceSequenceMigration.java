@@ -0,0 +1,51 @@
+package com.example.travelapp.config;
+
+import com.example.travelapp.model.Place;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves {@code places_seq} past the ids already in {@code Places}. Place ids used
+ * to come from an identity column, and the sequence that replaced it starts at 1
+ * when schema update creates it. On PostgreSQL this is the one-off equivalent of
+ * {@code SELECT setval('places_seq', (SELECT MAX(id) FROM places) + 50)}; once
+ * the sequence is ahead of the table it does nothing.
+ *
+ * <p>It runs while the context initializes its singletons, after the entity
+ * manager factory has updated the schema and before the web server starts, so no
+ * request can take an id from the unadvanced sequence.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class PlaceSequenceMigration implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceSequenceMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlaceSequenceMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM places", Long.class);
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM places_seq",
+                Long.class);
+        if (maxId != null && lastValue != null && lastValue < maxId) {
+            jdbcTemplate.queryForObject("SELECT setval('places_seq', ?)", Long.class,
+                    maxId + Place.ID_ALLOCATION_SIZE);
+            logger.info("Advanced places_seq from {} past existing place id {}", lastValue, maxId);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.travelapp.config;
+
+import com.example.travelapp.model.RoutePlace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives {@code route_places} rows written before the position column existed a
+ * position. Those rows came from an unordered bag, so ordering them by place id is
+ * as good as any order; spacing them {@link RoutePlace#POSITION_GAP} apart leaves
+ * room to move places between them. Once every row has a position it does nothing.
+ */
+@Component
+public class RoutePlacePositionMigration implements ApplicationRunner {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(RoutePlacePositionMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RoutePlacePositionMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = jdbcTemplate.update("UPDATE route_places SET position_index = place_id * ? "
+                + "WHERE position_index IS NULL", RoutePlace.POSITION_GAP);
+        if (updated > 0) {
+            logger.info("Assigned positions to {} route places", updated);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.travelapp.controller;
+
+import com.example.travelapp.model.dto.response.CacheStatsResponseDto;
+import com.example.travelapp.model.dto.response.HotKeyResponseDto;
+import com.example.travelapp.service.CacheMetricsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "http://localhost:5173")
+@Tag(name = "Caches", description = "Cache statistics")
+public class CacheController {
+
+    private final CacheMetricsService cacheMetricsService;
+
+    public CacheController(CacheMetricsService cacheMetricsService) {
+        this.cacheMetricsService = cacheMetricsService;
+    }
+
+    @Operation(summary = "Get cache statistics",
+            description = "Returns hit, miss, put and eviction counters of every cache")
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsResponseDto>> getAllStats() {
+        return ResponseEntity.ok(cacheMetricsService.getAllStats());
+    }
+
+    @Operation(summary = "Get statistics of one cache",
+            description = "Returns the counters and frequency histogram of the named cache")
+    @GetMapping("/stats/{name}")
+    public ResponseEntity<CacheStatsResponseDto> getStats(
+            @Parameter(description = "Cache name", example = "users")
+            @PathVariable String name) {
+        return ResponseEntity.ok(cacheMetricsService.getStats(name));
+    }
+
+    @Operation(summary = "Get the hottest ids of one cache",
+            description = "Returns the most looked-up ids of the named entity cache, "
+                    + "counting hits and misses, highest first")
+    @GetMapping("/top-keys/{name}")
+    public ResponseEntity<List<HotKeyResponseDto>> getTopKeys(
+            @Parameter(description = "Cache name", example = "users")
+            @PathVariable String name,
+            @Parameter(description = "Number of ids to return, at most 100", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(cacheMetricsService.getTopKeys(name, limit));
+    }
+}
@@ -2,16 +2,24 @@ package com.example.travelapp.controller;
 
 
 import com.example.travelapp.model.dto.request.PlaceRequestDto;
+import com.example.travelapp.model.dto.response.ImportReportDto;
+import com.example.travelapp.model.dto.response.PageResponseDto;
 import com.example.travelapp.model.dto.response.PlaceResponseDto;
 import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.example.travelapp.service.ExportService;
+import com.example.travelapp.service.ImportService;
 import com.example.travelapp.service.PlaceService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.util.List;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 
@@ -33,9 +42,14 @@ import org.springframework.web.bind.annotation.RestController;
 public class PlaceController {
 
     private final PlaceService placeService;
+    private final ExportService exportService;
+    private final ImportService importService;
 
-    public PlaceController(PlaceService placeService) {
+    public PlaceController(PlaceService placeService, ExportService exportService,
+                           ImportService importService) {
         this.placeService = placeService;
+        this.exportService = exportService;
+        this.importService = importService;
     }
 
     @Operation(
@@ -58,6 +72,65 @@ public class PlaceController {
         return ResponseEntity.ok(placeService.getAllPlaces());
     }
 
+    @Operation(
+            summary = "Get a page of places",
+            description = "Retrieve places ordered by ID, one page at a time. Pass the"
+                    + " nextCursor of a page to get the following one.",
+            responses = {
+                @ApiResponse(responseCode = "200",
+                        description = "Page of places retrieved successfully"),
+                @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                            content = @Content(schema = @Schema(example =
+                                    "{ \"timestamp\": \"2025-03-24T12:00:00\","
+                                            +
+                                    " \"status\": 400, \"message\": \"Invalid cursor\","
+                                            +
+                                            " \"path\": \"/places/page\" }")))
+            }
+    )
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<PlaceResponseDto>> getPlacesPage(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of places per page, at most 100", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(placeService.getPlacesPage(cursor, size));
+    }
+
+    @Operation(
+            summary = "Export all places",
+            description = "Stream every place as one JSON array, written while it is"
+                    + " read from the database. Meant for consumers that need the whole"
+                    + " table; interactive clients should use the paged listing.",
+            responses = {
+                @ApiResponse(responseCode = "200", description = "Export streamed",
+                        content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                array = @ArraySchema(schema = @Schema(
+                                        implementation = PlaceResponseDto.class))))
+            }
+    )
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPlaces() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(exportService::exportPlaces);
+    }
+
+    @Operation(
+            summary = "Import places from newline-delimited JSON",
+            description = "Read one place request per line while the upload arrives,"
+                    + " validate each line and save valid ones in chunks. Invalid lines are"
+                    + " skipped and listed in the report with their line numbers.",
+            responses = {
+                @ApiResponse(responseCode = "200", description = "Import finished; see report")
+            }
+    )
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReportDto> importPlaces(
+            @Parameter(description = "One JSON object per line") InputStream body) {
+        return ResponseEntity.ok(importService.importPlaces(body));
+    }
+
     @Operation(
             summary = "Get places not visited by a user",
             description = "Retrieve a list of places not yet visited by a specific user.",
@@ -1,17 +1,26 @@
 package com.example.travelapp.controller;
 
+import com.example.travelapp.model.dto.request.RoutePlacesRequestDto;
 import com.example.travelapp.model.dto.request.RouteRequestDto;
+import com.example.travelapp.model.dto.response.ImportReportDto;
+import com.example.travelapp.model.dto.response.PageResponseDto;
+import com.example.travelapp.model.dto.response.RoutePlaceResultDto;
 import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.example.travelapp.service.ExportService;
+import com.example.travelapp.service.ImportService;
 import com.example.travelapp.service.RouteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import java.io.InputStream;
 import java.util.List;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,6 +32,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 
@@ -33,9 +43,14 @@ import org.springframework.web.bind.annotation.RestController;
 public class RouteController {
 
     private final RouteService routeService;
+    private final ExportService exportService;
+    private final ImportService importService;
 
-    public RouteController(RouteService routeService) {
+    public RouteController(RouteService routeService, ExportService exportService,
+                           ImportService importService) {
         this.routeService = routeService;
+        this.exportService = exportService;
+        this.importService = importService;
     }
 
     @Operation(
@@ -59,6 +74,65 @@ public class RouteController {
         return ResponseEntity.ok(routeService.getAllRoutes());
     }
 
+    @Operation(
+            summary = "Get a page of routes",
+            description = "Retrieve routes ordered by ID, one page at a time. Pass the"
+                    + " nextCursor of a page to get the following one.",
+            responses = {
+                @ApiResponse(responseCode = "200",
+                        description = "Page of routes retrieved successfully"),
+                @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                            content = @Content(schema = @Schema(example =
+                                    "{ \"timestamp\": \"2025-03-24T12:00:00\","
+                                            +
+                                    " \"status\": 400, \"message\": \"Invalid cursor\","
+                                            +
+                                            " \"path\": \"/routes/page\" }")))
+            }
+    )
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<RouteResponseDto>> getRoutesPage(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of routes per page, at most 100", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(routeService.getRoutesPage(cursor, size));
+    }
+
+    @Operation(
+            summary = "Export all routes",
+            description = "Stream every route as one JSON array, written while it is"
+                    + " read from the database. Meant for consumers that need the whole"
+                    + " table; interactive clients should use the paged listing.",
+            responses = {
+                @ApiResponse(responseCode = "200", description = "Export streamed",
+                        content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                array = @ArraySchema(schema = @Schema(
+                                        implementation = RouteResponseDto.class))))
+            }
+    )
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRoutes() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(exportService::exportRoutes);
+    }
+
+    @Operation(
+            summary = "Import routes from newline-delimited JSON",
+            description = "Read one route request per line while the upload arrives,"
+                    + " validate each line and save valid ones in chunks. Invalid lines are"
+                    + " skipped and listed in the report with their line numbers.",
+            responses = {
+                @ApiResponse(responseCode = "200", description = "Import finished; see report")
+            }
+    )
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReportDto> importRoutes(
+            @Parameter(description = "One JSON object per line") InputStream body) {
+        return ResponseEntity.ok(importService.importRoutes(body));
+    }
+
     @Operation(
             summary = "Get routes with more than a certain number of places",
             description = "Retrieve routes that have more than the specified number of places.",
@@ -93,7 +167,9 @@ public class RouteController {
             description = "Retrieve the details of a specific route by its ID.",
             responses = {
                 @ApiResponse(responseCode = "200",
-                        description = "Route details retrieved successfully"),
+                        description = "Route details retrieved successfully",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = RouteResponseDto.class))),
                 @ApiResponse(responseCode = "404",
                         description = "Route not found",
                             content = @Content(schema = @Schema(example =
@@ -111,9 +187,11 @@ public class RouteController {
                                             " \"path\": \"/routes/123\" }")))
             }
     )
-    @GetMapping("/{id}")
-    public ResponseEntity<RouteResponseDto> getRouteById(@PathVariable Long id) {
-        return ResponseEntity.ok(routeService.getRouteById(id));
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getRouteById(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(routeService.getRouteJson(id));
     }
 
     @Operation(
@@ -229,4 +307,54 @@ public class RouteController {
         routeService.removePlaceFromRoute(routeId, placeId);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Move place within route",
+            description = "This endpoint moves a place of the route in front of another "
+                    + "place of the route, or to the end when no place is given.")
+    @PutMapping("/{routeId}/move/{placeId}")
+    public ResponseEntity<Void> movePlaceInRoute(
+            @Parameter(description = "Route ID", required = true)
+            @PathVariable Long routeId,
+            @Parameter(description = "Place ID", required = true)
+            @PathVariable Long placeId,
+            @Parameter(description = "ID of the place to move in front of")
+            @RequestParam(required = false) Long before) {
+        routeService.movePlaceInRoute(routeId, placeId, before);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Add places to route",
+            description = "Appends the listed places to the route in the given order. Each "
+                    + "place gets its own status, so unknown or duplicate places do not "
+                    + "fail the others.")
+    @PostMapping("/{routeId}/places")
+    public ResponseEntity<List<RoutePlaceResultDto>> addPlacesToRoute(
+            @Parameter(description = "Route ID", required = true)
+            @PathVariable Long routeId,
+            @RequestBody @Valid RoutePlacesRequestDto dto) {
+        return ResponseEntity.ok(routeService.addPlacesToRoute(routeId, dto.getPlaceIds()));
+    }
+
+    @Operation(summary = "Remove places from route",
+            description = "Removes the listed places from the route, reporting a status "
+                    + "for each place.")
+    @PostMapping("/{routeId}/places/remove")
+    public ResponseEntity<List<RoutePlaceResultDto>> removePlacesFromRoute(
+            @Parameter(description = "Route ID", required = true)
+            @PathVariable Long routeId,
+            @RequestBody @Valid RoutePlacesRequestDto dto) {
+        return ResponseEntity.ok(routeService.removePlacesFromRoute(routeId,
+                dto.getPlaceIds()));
+    }
+
+    @Operation(summary = "Replace places of route",
+            description = "Makes the listed places, in the given order, the places of the "
+                    + "route. Places no longer listed are reported as removed.")
+    @PutMapping("/{routeId}/places")
+    public ResponseEntity<List<RoutePlaceResultDto>> replaceRoutePlaces(
+            @Parameter(description = "Route ID", required = true)
+            @PathVariable Long routeId,
+            @RequestBody @Valid RoutePlacesRequestDto dto) {
+        return ResponseEntity.ok(routeService.replaceRoutePlaces(routeId, dto.getPlaceIds()));
+    }
 }
@@ -1,9 +1,11 @@
 package com.example.travelapp.controller;
 
 import com.example.travelapp.model.dto.request.UserRequestDto;
+import com.example.travelapp.model.dto.response.PageResponseDto;
 import com.example.travelapp.model.dto.response.UserResponseDto;
 import com.example.travelapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
@@ -54,6 +57,31 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    @Operation(
+            summary = "Get a page of users",
+            description = "Retrieve users ordered by ID, one page at a time. Pass the"
+                    + " nextCursor of a page to get the following one.",
+            responses = {
+                @ApiResponse(responseCode = "200",
+                        description = "Page of users retrieved successfully"),
+                @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                            content = @Content(schema = @Schema(example =
+                                    "{ \"timestamp\": \"2025-03-24T12:00:00\","
+                                            +
+                                    " \"status\": 400, \"message\": \"Invalid cursor\","
+                                            +
+                                            " \"path\": \"/users/page\" }")))
+            }
+    )
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<UserResponseDto>> getUsersPage(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of users per page, at most 100", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.getUsersPage(cursor, size));
+    }
+
     @Operation(
             summary = "Get user by ID",
             description = "Retrieve a user by their unique ID.",
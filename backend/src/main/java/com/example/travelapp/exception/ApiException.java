@@ -11,5 +11,14 @@ public abstract class ApiException extends RuntimeException {
         super(message);
         this.status = status;
     }
+
+    /**
+     * For errors on hot paths whose origin is obvious from the status and
+     * message: skips capturing the stack trace, the costly part of throwing.
+     */
+    protected ApiException(HttpStatus status, String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.status = status;
+    }
 }
 
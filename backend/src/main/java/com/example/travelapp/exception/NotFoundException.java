@@ -7,5 +7,14 @@ public class NotFoundException extends ApiException {
     public NotFoundException(String message) {
         super(HttpStatus.NOT_FOUND, message);
     }
+
+    private NotFoundException(String message, boolean writableStackTrace) {
+        super(HttpStatus.NOT_FOUND, message, writableStackTrace);
+    }
+
+    /** Not-found without a stack trace, for lookups by id on read endpoints. */
+    public static NotFoundException withoutStackTrace(String message) {
+        return new NotFoundException(message, false);
+    }
 }
 
@@ -0,0 +1,527 @@
+package com.example.travelapp.index;
+
+import com.example.travelapp.cache.CacheInvalidationBus;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RoutePlaceRepository;
+import com.example.travelapp.repository.projection.VisitRow;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Answers which places a user has not visited, a visit being a place on any route
+ * the user wrote, from memory instead of a {@code NOT IN} subquery over routes.
+ *
+ * <p>The ids of all places and, per user, the ids of the places on their routes
+ * are held as {@link IntBitmap}s, so the answer is one {@code andNot}. The
+ * bitmaps are built from the database at startup and then kept current by the
+ * services: additions are applied as they are, while a user whose routes lost
+ * places is reloaded with one query, because a place may still be on another of
+ * their routes. Changes are applied once their transaction commits, and are
+ * published on the cache invalidation bus so that other nodes reload the same
+ * users and places. Those reloads run on the index's own thread, coalesced, so
+ * the bus's poller never waits for the database on the index's behalf. Bits
+ * of deleted places may stay in a user's bitmap; they are masked by the
+ * all-places bitmap and dropped by the next rebuild.
+ *
+ * <p>Place ids must fit in an int. Until the index is built, or if an id does not
+ * fit, {@link #findPlacesNotVisitedBy} returns null and callers query the database.
+ */
+@Component
+public class VisitedPlacesIndex implements ApplicationRunner, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(VisitedPlacesIndex.class);
+
+    static final String USERS = "visitedPlaces.users";
+    static final String PLACES = "visitedPlaces.places";
+    private static final int RELOAD_ATTEMPTS = 3;
+
+    private final PlaceRepository placeRepository;
+    private final RoutePlaceRepository routePlaceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private final ExecutorService reloader;
+    private volatile CacheInvalidationBus invalidationBus;
+
+    private IntBitmap places = new IntBitmap();
+    private Map<Long, Visits> visits = new HashMap<>();
+    private boolean ready;
+    private boolean overflowed;
+    private Set<Long> missedUsers;
+    private Set<Long> missedPlaces;
+
+    private final Object pendingLock = new Object();
+    private Set<Long> pendingUsers = new LinkedHashSet<>();
+    private Set<Long> pendingPlaces = new LinkedHashSet<>();
+    private boolean rebuildPending;
+    private boolean drainScheduled;
+
+    public VisitedPlacesIndex(PlaceRepository placeRepository,
+                              RoutePlaceRepository routePlaceRepository,
+                              PlatformTransactionManager transactionManager) {
+        this(placeRepository, routePlaceRepository, transactionManager,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "visited-places-reloader");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    VisitedPlacesIndex(PlaceRepository placeRepository,
+                       RoutePlaceRepository routePlaceRepository,
+                       PlatformTransactionManager transactionManager,
+                       ExecutorService reloader) {
+        this.placeRepository = placeRepository;
+        this.routePlaceRepository = routePlaceRepository;
+        this.reloader = reloader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Subscribes this index to {@code bus}: from now on its changes are published
+     * to other nodes, and the users and places other nodes report are reloaded.
+     */
+    public void attach(CacheInvalidationBus bus) {
+        bus.subscribe(USERS, this::onUserInvalidated);
+        bus.subscribe(PLACES, this::onPlaceInvalidated);
+        this.invalidationBus = bus;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Could not build the visited places index, "
+                    + "not-visited queries go to the database", e);
+        }
+    }
+
+    /** Stops applying changes reported by other nodes. */
+    @Override
+    public void close() {
+        reloader.shutdownNow();
+    }
+
+    /**
+     * Ids of the places the user has not visited, in ascending order, or null when
+     * the index cannot answer and the database has to be asked instead.
+     */
+    public int[] findPlacesNotVisitedBy(Long userId) {
+        lock.readLock().lock();
+        try {
+            if (!ready || overflowed) {
+                return null;
+            }
+            Visits visited = visits.get(userId);
+            return visited == null ? places.toArray()
+                    : places.andNot(visited.placeIds).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Records new places, visited by nobody yet. */
+    public void addPlaces(Collection<Long> placeIds) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Long placeId : placeIds) {
+                    addPlace(placeId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        placeIds.forEach(placeId -> publish(PLACES, placeId));
+    }
+
+    public void removePlace(Long placeId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                dropPlace(placeId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        publish(PLACES, placeId);
+    }
+
+    /** Records that routes written by the user now include {@code placeIds}. */
+    public void addVisits(Long userId, Collection<Long> placeIds) {
+        if (userId == null || placeIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Visits visited = visits.computeIfAbsent(userId, id -> new Visits());
+                for (Long placeId : placeIds) {
+                    add(visited.placeIds, placeId);
+                }
+                visited.version++;
+                missed(missedUsers, userId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        publish(USERS, userId);
+    }
+
+    /**
+     * Reloads the places of the user's routes from the database, after any change
+     * that may have taken places off them: a removed place, a deleted route or a
+     * route given to another author.
+     */
+    public void reloadUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        afterCommit(() -> reload(userId));
+        publish(USERS, userId);
+    }
+
+    public void removeUser(Long userId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                replace(userId, List.of());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        publish(USERS, userId);
+    }
+
+    /**
+     * Rebuilds both bitmaps from the database without blocking readers, who keep
+     * the previous bitmaps meanwhile. Users and places changed during the rebuild
+     * are reloaded once the new bitmaps are in place, since the snapshot may have
+     * been read before or after their change.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                missedUsers = new HashSet<>();
+                missedPlaces = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Snapshot snapshot;
+            try {
+                snapshot = transactionTemplate.execute(status -> load());
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    missedUsers = null;
+                    missedPlaces = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            Set<Long> users;
+            Set<Long> placeIds;
+            lock.writeLock().lock();
+            try {
+                places = snapshot.places;
+                visits = snapshot.visits;
+                overflowed = snapshot.overflowed;
+                ready = true;
+                users = missedUsers;
+                placeIds = missedPlaces;
+                missedUsers = null;
+                missedPlaces = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            users.forEach(this::reload);
+            placeIds.forEach(this::refreshPlace);
+
+            if (snapshot.overflowed) {
+                logger.warn("Place ids exceed the int range, "
+                        + "not-visited queries go to the database");
+            }
+            logger.info("Indexed {} places and the visits of {} users ({} KiB) in {} ms",
+                    snapshot.places.cardinality(), snapshot.visits.size(),
+                    snapshot.sizeInBytes() / 1024,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+
+    private Snapshot load() {
+        Snapshot snapshot = new Snapshot();
+        try (Stream<Long> placeIds = placeRepository.streamAllIds()) {
+            placeIds.forEach(placeId -> snapshot.add(snapshot.places, placeId));
+        }
+        try (Stream<VisitRow> rows = routePlaceRepository.streamVisits()) {
+            rows.forEach(row -> snapshot.add(snapshot.visits
+                    .computeIfAbsent(row.getUserId(), id -> new Visits()).placeIds,
+                    row.getPlaceId()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replaces the user's bitmap with a fresh read. The read runs outside the lock,
+     * so it is only applied if no addition reached the user in the meantime;
+     * otherwise it is retried, and the last attempt reads under the lock.
+     */
+    private void reload(Long userId) {
+        for (int attempt = 1; attempt < RELOAD_ATTEMPTS; attempt++) {
+            long version = version(userId);
+            List<Long> placeIds = transactionTemplate.execute(status ->
+                    routePlaceRepository.findPlaceIdsVisitedBy(userId));
+            lock.writeLock().lock();
+            try {
+                if (version(userId) == version) {
+                    replace(userId, placeIds);
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            replace(userId, transactionTemplate.execute(status ->
+                    routePlaceRepository.findPlaceIdsVisitedBy(userId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refreshPlace(Long placeId) {
+        boolean exists = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                placeRepository.existsById(placeId)));
+        lock.writeLock().lock();
+        try {
+            if (exists) {
+                addPlace(placeId);
+            } else {
+                dropPlace(placeId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onUserInvalidated(Long userId) {
+        synchronized (pendingLock) {
+            if (userId == null) {
+                rebuildPending = true;
+            } else {
+                pendingUsers.add(userId);
+            }
+        }
+        scheduleDrain();
+    }
+
+    private void onPlaceInvalidated(Long placeId) {
+        synchronized (pendingLock) {
+            if (placeId == null) {
+                rebuildPending = true;
+            } else {
+                pendingPlaces.add(placeId);
+            }
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        synchronized (pendingLock) {
+            if (drainScheduled) {
+                return;
+            }
+            drainScheduled = true;
+        }
+        try {
+            reloader.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; nothing will read the index any more.
+            synchronized (pendingLock) {
+                drainScheduled = false;
+            }
+        }
+    }
+
+    /**
+     * Applies what other nodes reported until nothing is pending. A pending rebuild
+     * stands in for every pending user and place, since it reads them all again.
+     */
+    private void drain() {
+        while (true) {
+            boolean rebuildNow;
+            Set<Long> users;
+            Set<Long> placeIds;
+            synchronized (pendingLock) {
+                if (!rebuildPending && pendingUsers.isEmpty() && pendingPlaces.isEmpty()) {
+                    drainScheduled = false;
+                    return;
+                }
+                rebuildNow = rebuildPending;
+                users = pendingUsers;
+                placeIds = pendingPlaces;
+                rebuildPending = false;
+                pendingUsers = new LinkedHashSet<>();
+                pendingPlaces = new LinkedHashSet<>();
+            }
+            if (rebuildNow) {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.warn("Could not rebuild the visited places index "
+                            + "as another node requested", e);
+                }
+                continue;
+            }
+            users.forEach(userId -> apply("user", userId, this::reload));
+            placeIds.forEach(placeId -> apply("place", placeId, this::refreshPlace));
+        }
+    }
+
+    private void apply(String kind, Long id, Consumer<Long> change) {
+        try {
+            change.accept(id);
+        } catch (RuntimeException e) {
+            logger.warn("Could not apply visited places {} {} reported by another node",
+                    kind, id, e);
+        }
+    }
+
+    private long version(Long userId) {
+        lock.readLock().lock();
+        try {
+            Visits visited = visits.get(userId);
+            return visited == null ? 0 : visited.version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Requires the write lock. */
+    private void replace(Long userId, List<Long> placeIds) {
+        Visits visited = visits.computeIfAbsent(userId, id -> new Visits());
+        visited.placeIds = new IntBitmap();
+        for (Long placeId : placeIds) {
+            add(visited.placeIds, placeId);
+        }
+        visited.version++;
+        missed(missedUsers, userId);
+    }
+
+    /** Requires the write lock. */
+    private void addPlace(Long placeId) {
+        add(places, placeId);
+        missed(missedPlaces, placeId);
+    }
+
+    /** Requires the write lock. */
+    private void dropPlace(Long placeId) {
+        if (fitsInt(placeId)) {
+            places.remove(placeId.intValue());
+        }
+        missed(missedPlaces, placeId);
+    }
+
+    /** Requires the write lock. */
+    private void add(IntBitmap bitmap, Long id) {
+        if (fitsInt(id)) {
+            bitmap.add(id.intValue());
+        } else if (!overflowed) {
+            overflowed = true;
+            logger.warn("Id {} exceeds the int range, not-visited queries go to the database", id);
+        }
+    }
+
+    private static boolean fitsInt(Long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    /** Notes a change made while a rebuild is reading, to reapply it afterwards. */
+    private static void missed(Set<Long> missed, Long id) {
+        if (missed != null) {
+            missed.add(id);
+        }
+    }
+
+    private void publish(String name, Long key) {
+        CacheInvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.publish(name, key);
+        }
+    }
+
+    /** Runs {@code action} once the current transaction commits, or now outside one. */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            action.run();
+                        }
+                    });
+            return;
+        }
+        action.run();
+    }
+
+    private static final class Visits {
+        private IntBitmap placeIds = new IntBitmap();
+        private long version;
+    }
+
+    private static final class Snapshot {
+        private final IntBitmap places = new IntBitmap();
+        private final Map<Long, Visits> visits = new HashMap<>();
+        private boolean overflowed;
+
+        private void add(IntBitmap bitmap, Long id) {
+            if (fitsInt(id)) {
+                bitmap.add(id.intValue());
+            } else {
+                overflowed = true;
+            }
+        }
+
+        private long sizeInBytes() {
+            long bytes = places.sizeInBytes();
+            for (Visits visited : visits.values()) {
+                bytes += visited.placeIds.sizeInBytes();
+            }
+            return bytes;
+        }
+    }
+}
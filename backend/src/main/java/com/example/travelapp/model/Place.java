@@ -1,15 +1,12 @@
 package com.example.travelapp.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import java.util.ArrayList;
-import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -23,15 +20,19 @@ import lombok.Setter;
 @Table(name = "Places")
 @Schema(hidden = true)
 public class Place {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Ids come from a pooled sequence, 50 per round trip, so inserts can be batched;
+     * an IDENTITY column forces Hibernate to execute each insert on its own to read
+     * the key back.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "places_seq")
+    @SequenceGenerator(name = "places_seq", sequenceName = "places_seq",
+            allocationSize = Place.ID_ALLOCATION_SIZE)
     private Long id;
     private String name;
     private String address;
     private String description;
-    @ManyToMany(mappedBy = "places", cascade = {CascadeType.DETACH, CascadeType.MERGE,
-        CascadeType.PERSIST, CascadeType.REFRESH})
-    private List<Route> routes = new ArrayList<>();
-
-
 }
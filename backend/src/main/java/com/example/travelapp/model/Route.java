@@ -3,29 +3,32 @@ package com.example.travelapp.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import lombok.AllArgsConstructor;
+import java.util.Set;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @Entity
-@Table(name = "Routes")
+@Table(name = "Routes", indexes =
+        @Index(name = "idx_routes_place_count", columnList = "place_count"))
 @Schema(hidden = true)
 public class Route {
     @Id
@@ -37,13 +40,56 @@ public class Route {
     @ManyToOne(fetch = FetchType.LAZY)
     private User author;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = {
-        CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
-    @JoinTable(
-            name = "route_places",
-            joinColumns = @JoinColumn(name = "route_id"),
-            inverseJoinColumns = @JoinColumn(name = "place_id")
-    )
-    private List<Place> places = new ArrayList<>();
+    /**
+     * Places of the route in position order. Adding, removing and moving a place of
+     * a stored route goes through {@code RoutePlaceRepository} one row at a time
+     * rather than through this collection.
+     */
+    @OneToMany(mappedBy = "route", cascade = CascadeType.ALL, orphanRemoval = true,
+            fetch = FetchType.EAGER)
+    @OrderBy("position")
+    private List<RoutePlace> stops = new ArrayList<>();
 
+    /**
+     * Number of stops, kept in step by every write to {@code route_places} so routes
+     * can be filtered by size through an index instead of counting the join table.
+     * {@code PlaceCountReconciler} repairs any drift.
+     */
+    @ColumnDefault("0")
+    @Column(name = "place_count", nullable = false)
+    private int placeCount;
+
+    public Route(Long id, String name, String description, User author, List<Place> places) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.author = author;
+        setPlaces(places);
+    }
+
+    public List<Place> getPlaces() {
+        return stops.stream().map(RoutePlace::getPlace).toList();
+    }
+
+    /**
+     * Replaces the stops of a route that has not been saved yet, spaced in list order.
+     * A place listed twice is kept at its first position, since a route holds each
+     * place once.
+     */
+    public void setPlaces(List<Place> places) {
+        stops.clear();
+        placeCount = 0;
+        if (places == null) {
+            return;
+        }
+        Set<Long> placeIds = new HashSet<>();
+        for (Place place : places) {
+            if (place.getId() != null && !placeIds.add(place.getId())) {
+                continue;
+            }
+            stops.add(new RoutePlace(this, place,
+                    RoutePlace.POSITION_GAP * (stops.size() + 1)));
+        }
+        placeCount = stops.size();
+    }
 }
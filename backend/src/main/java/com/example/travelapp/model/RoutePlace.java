@@ -0,0 +1,79 @@
+package com.example.travelapp.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A place on a route, one row of {@code route_places}. Rows are keyed by
+ * (route, place) and ordered by a sparse {@code position_index}: appending takes
+ * the route's highest position plus {@link #POSITION_GAP}, and moving a place
+ * takes the midpoint of its new neighbours. Adding, removing and reordering a
+ * place therefore touch one row instead of rewriting the whole route.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "route_places", indexes = {
+    @Index(name = "idx_route_places_route_position", columnList = "route_id, position_index"),
+    @Index(name = "idx_route_places_place", columnList = "place_id")
+})
+@Schema(hidden = true)
+public class RoutePlace implements Persistable<RoutePlaceId> {
+    public static final long POSITION_GAP = 1024;
+
+    @EmbeddedId
+    private RoutePlaceId id = new RoutePlaceId();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("routeId")
+    @JoinColumn(name = "route_id")
+    private Route route;
+
+    @ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.DETACH)
+    @MapsId("placeId")
+    @JoinColumn(name = "place_id")
+    private Place place;
+
+    /** Nullable only so schema update can add the column to existing rows. */
+    @Column(name = "position_index")
+    private Long position;
+
+    /** Set once the row exists, so {@code saveAll} persists new rows instead of merging them. */
+    @Transient
+    private boolean stored;
+
+    public RoutePlace(Route route, Place place, Long position) {
+        this.id = new RoutePlaceId(route.getId(), place.getId());
+        this.route = route;
+        this.place = place;
+        this.position = position;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        stored = true;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.travelapp.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO for adding, removing or replacing places of a route in one call")
+public class RoutePlacesRequestDto {
+
+    public static final int MAX_PLACES = 1000;
+
+    @NotNull(message = "placeIds is required")
+    @Size(max = MAX_PLACES, message = "At most " + MAX_PLACES + " places per request")
+    @Schema(
+            description = "Place IDs, in route order",
+            example = "[101, 102, 103]"
+    )
+    private List<@NotNull(message = "placeIds must not contain null") Long> placeIds =
+            new ArrayList<>();
+}
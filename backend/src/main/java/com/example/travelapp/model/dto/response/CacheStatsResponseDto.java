@@ -0,0 +1,64 @@
+package com.example.travelapp.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Cache statistics")
+public class CacheStatsResponseDto {
+
+    @Schema(description = "Cache name", example = "users")
+    private String name;
+
+    @Schema(description = "Cache implementation", example = "lfu")
+    private String type;
+
+    @Schema(description = "Current number of entries", example = "2")
+    private long size;
+
+    @Schema(description = "Configured maximum number of entries, or total weight for "
+            + "weighted caches, if known", example = "1000")
+    private Long maximumSize;
+
+    @Schema(description = "Total weight of the entries, if the cache tracks weights",
+            example = "2")
+    private Long weightedSize;
+
+    @Schema(description = "Maximum currently enforced, lowered under heap pressure, if tracked",
+            example = "1000")
+    private Long effectiveMaximumSize;
+
+    @Schema(description = "Number of lookups that found an entry", example = "950")
+    private long hits;
+
+    @Schema(description = "Number of lookups that found nothing", example = "50")
+    private long misses;
+
+    @Schema(description = "Share of lookups served from the cache", example = "0.95")
+    private double hitRate;
+
+    @Schema(description = "Number of put calls, if tracked", example = "60")
+    private Long puts;
+
+    @Schema(description = "Number of entries evicted for capacity", example = "10")
+    private long evictions;
+
+    @Schema(description = "Number of new keys refused by the admission filter, if tracked",
+            example = "5")
+    private Long admissionRejections;
+
+    @Schema(description = "Number of lookups answered from the negative cache, if tracked",
+            example = "12")
+    private Long negativeHits;
+
+    @Schema(description = "Entries per access-frequency range, if tracked",
+            example = "{\"1\": 700, \"2-3\": 250, \"4-7\": 50}")
+    private Map<String, Long> frequencyHistogram;
+}
@@ -0,0 +1,24 @@
+package com.example.travelapp.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Frequently looked-up id of a cache")
+public class HotKeyResponseDto {
+
+    @Schema(description = "Entity id", example = "42")
+    private long id;
+
+    @Schema(description = "Estimated number of lookups, hits and misses alike", example = "1520")
+    private long count;
+
+    @Schema(description = "Maximum overestimate of the count", example = "3")
+    private long error;
+}
@@ -0,0 +1,22 @@
+package com.example.travelapp.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A line of an import that was not imported")
+public class ImportErrorDto {
+
+    @Schema(description = "1-based line number in the uploaded file", example = "42")
+    private long line;
+
+    @Schema(description = "Why the line was rejected",
+            example = "Validation failed: Name must be between 3 and 25 characters")
+    private String message;
+}
@@ -0,0 +1,29 @@
+package com.example.travelapp.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of a newline-delimited JSON import")
+public class ImportReportDto {
+
+    @Schema(description = "Non-blank lines read", example = "100000")
+    private long processed;
+
+    @Schema(description = "Lines saved", example = "99998")
+    private long imported;
+
+    @Schema(description = "Rejected lines in file order, up to the reporting limit")
+    private List<ImportErrorDto> errors = new ArrayList<>();
+
+    @Schema(description = "Whether more lines were rejected than are listed in errors")
+    private boolean errorsTruncated;
+}
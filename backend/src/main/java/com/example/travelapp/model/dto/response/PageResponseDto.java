@@ -0,0 +1,24 @@
+package com.example.travelapp.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "One page of a listing ordered by id")
+public class PageResponseDto<T> {
+
+    @Schema(description = "Items of this page in ascending id order")
+    private List<T> items = new ArrayList<>();
+
+    @Schema(description = "Opaque token for the next page; absent on the last page",
+            example = "dXNlcnM6NDI")
+    private String nextCursor;
+}
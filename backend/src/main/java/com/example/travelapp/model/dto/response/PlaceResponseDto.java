@@ -1,11 +1,16 @@
 package com.example.travelapp.model.dto.response;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import lombok.Getter;
-import lombok.Setter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
-@Getter
-@Setter
+/** Immutable: the place and route caches share one instance between all readers. */
+@Value
+@AllArgsConstructor
+@Builder
+@Jacksonized
 @Schema(description = "DTO for returning place details")
 public class PlaceResponseDto {
 
@@ -13,23 +18,23 @@ public class PlaceResponseDto {
             description = "Place ID",
             example = "101"
     )
-    private Long id;
+    Long id;
 
     @Schema(
             description = "Place name",
             example = "Mountain Peak"
     )
-    private String name;
+    String name;
 
     @Schema(
             description = "Place address",
             example = "123 Mountain Road, Peak City"
     )
-    private String address;
+    String address;
 
     @Schema(
             description = "Place description",
             example = "The highest point of the mountain, offering breathtaking views"
     )
-    private String description;
+    String description;
 }
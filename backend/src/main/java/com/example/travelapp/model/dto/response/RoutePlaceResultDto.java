@@ -0,0 +1,32 @@
+package com.example.travelapp.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "What a batch change to a route did with one place")
+public class RoutePlaceResultDto {
+
+    /** Outcome for one place id of a batch request. */
+    public enum Status {
+        ADDED,
+        REMOVED,
+        KEPT,
+        ALREADY_IN_ROUTE,
+        NOT_IN_ROUTE,
+        NOT_FOUND,
+        DUPLICATE
+    }
+
+    @Schema(description = "Place ID", example = "101")
+    private Long placeId;
+
+    @Schema(description = "Outcome for the place", example = "ADDED")
+    private Status status;
+}
@@ -2,19 +2,17 @@ package com.example.travelapp.model.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
-import java.util.ArrayList;
 import java.util.List;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 
-
-@Getter
-@Setter
-@AllArgsConstructor
-@NoArgsConstructor
+/**
+ * Immutable, since caches hand the same instance to every reader; the place list
+ * is copied into an unmodifiable one.
+ */
+@Value
 @Schema(description = "DTO for returning route details")
 public class RouteResponseDto {
 
@@ -23,26 +21,26 @@ public class RouteResponseDto {
             description = "Route ID",
             example = "10"
     )
-    private Long id;
+    Long id;
 
     @Schema(
             description = "Route name",
             example = "Mountain Adventure"
     )
-    private String name;
+    String name;
 
     @Schema(
             description = "Route description",
             example = "A beautiful mountain route with scenic views"
     )
-    private String description;
+    String description;
 
     @JsonProperty(required = true)
     @Schema(
             description = "ID of the author of the route",
             example = "1"
     )
-    private Long authorId;
+    Long authorId;
 
     @Schema(
             description = "List of places associated with the route",
@@ -50,5 +48,16 @@ public class RouteResponseDto {
                     +
                     "\"Mountain Peak\"}, {\"id\": 102, \"name\": \"Lake View\"}]"
     )
-    private List<PlaceResponseDto> places = new ArrayList<>();
+    List<PlaceResponseDto> places;
+
+    @Builder
+    @Jacksonized
+    public RouteResponseDto(Long id, String name, String description, Long authorId,
+                            List<PlaceResponseDto> places) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.authorId = authorId;
+        this.places = places != null ? List.copyOf(places) : List.of();
+    }
 }
@@ -1,29 +1,34 @@
 package com.example.travelapp.model.dto.response;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import java.util.ArrayList;
 import java.util.List;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 
-@Getter
-@Setter
-@AllArgsConstructor
-@NoArgsConstructor
+/** Immutable, like the route DTOs it holds; cached users are shared between readers. */
+@Value
 @Schema(description = "User response DTO")
 public class UserResponseDto {
     @Schema(description = "User ID", example = "1")
-    private Long id;
+    Long id;
 
     @Schema(description = "User's full name", example = "John Doe")
-    private String name;
+    String name;
 
     @Schema(description = "User's email address", example = "john.doe@example.com")
-    private String email;
+    String email;
 
     @Schema(description = "List of user's routes")
-    private List<RouteResponseDto> routes = new ArrayList<>();
+    List<RouteResponseDto> routes;
+
+    @Builder
+    @Jacksonized
+    public UserResponseDto(Long id, String name, String email, List<RouteResponseDto> routes) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.routes = routes != null ? List.copyOf(routes) : List.of();
+    }
 }
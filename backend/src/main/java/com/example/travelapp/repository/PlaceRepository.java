@@ -1,16 +1,51 @@
 package com.example.travelapp.repository;
 
 import com.example.travelapp.model.Place;
+import com.example.travelapp.repository.projection.PlaceRow;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 
 
 public interface PlaceRepository extends JpaRepository<Place, Long> {
     @Query("SELECT p FROM Place p WHERE p.id NOT IN "
-            + "(SELECT DISTINCT pl.id FROM Place pl "
-            + "JOIN pl.routes r WHERE r.author.id = :userId)")
+            + "(SELECT rp.id.placeId FROM RoutePlace rp WHERE rp.route.author.id = :userId)")
     List<Place> findPlacesNotVisitedByUser(@Param("userId") Long userId);
+
+    @Query("SELECT new com.example.travelapp.repository.projection.PlaceRow("
+            + "p.id, p.name, p.address, p.description) FROM Place p")
+    List<PlaceRow> findAllRows();
+
+    @Query("SELECT new com.example.travelapp.repository.projection.PlaceRow("
+            + "p.id, p.name, p.address, p.description) FROM Place p "
+            + "WHERE p.id > :cursor ORDER BY p.id")
+    List<PlaceRow> findRowsAfter(@Param("cursor") Long cursor, Limit limit);
+
+    @Query("SELECT new com.example.travelapp.repository.projection.PlaceRow("
+            + "p.id, p.name, p.address, p.description) FROM Place p "
+            + "WHERE p.id BETWEEN :first AND :last ORDER BY p.id")
+    List<PlaceRow> findRowsByIdBetween(@Param("first") Long first, @Param("last") Long last);
+
+    /** Every place in id order, read through a JDBC cursor inside a transaction. */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RouteRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Place p ORDER BY p.id")
+    Stream<Place> streamAll();
+
+    /** Every place id, read through a JDBC cursor inside a transaction. */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RouteRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id FROM Place p")
+    Stream<Long> streamAllIds();
 }
@@ -0,0 +1,111 @@
+package com.example.travelapp.repository;
+
+import com.example.travelapp.model.RoutePlace;
+import com.example.travelapp.model.RoutePlaceId;
+import com.example.travelapp.repository.projection.VisitRow;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Single-row changes to the places of a route. Each statement touches the one
+ * {@code route_places} row involved, found through its primary key or the
+ * (route_id, position_index) index, so its cost does not grow with the route.
+ */
+public interface RoutePlaceRepository extends JpaRepository<RoutePlace, RoutePlaceId> {
+
+    /** Appends a place after the route's last place, reading the last position in the same statement. */
+    @Modifying
+    @Query(value = "INSERT INTO route_places (route_id, place_id, position_index) "
+            + "SELECT :routeId, :placeId, COALESCE(MAX(position_index), 0) + "
+            + RoutePlace.POSITION_GAP + " FROM route_places WHERE route_id = :routeId",
+            nativeQuery = true)
+    int append(@Param("routeId") Long routeId, @Param("placeId") Long placeId);
+
+    @Modifying
+    @Query("DELETE FROM RoutePlace rp WHERE rp.id.routeId = :routeId AND rp.id.placeId = :placeId")
+    int deleteByRouteIdAndPlaceId(@Param("routeId") Long routeId, @Param("placeId") Long placeId);
+
+    @Modifying
+    @Query("DELETE FROM RoutePlace rp WHERE rp.id.routeId = :routeId "
+            + "AND rp.id.placeId IN :placeIds")
+    int deleteByRouteIdAndPlaceIdIn(@Param("routeId") Long routeId,
+                                    @Param("placeIds") Collection<Long> placeIds);
+
+    /** Which of {@code placeIds} are on the route; reads only those rows. */
+    @Query("SELECT rp.id.placeId FROM RoutePlace rp WHERE rp.id.routeId = :routeId "
+            + "AND rp.id.placeId IN :placeIds")
+    List<Long> findPlaceIdsOnRoute(@Param("routeId") Long routeId,
+                                   @Param("placeIds") Collection<Long> placeIds);
+
+    /** The route's rows in position order, with their places in the same select. */
+    @Query("SELECT rp FROM RoutePlace rp JOIN FETCH rp.place "
+            + "WHERE rp.id.routeId = :routeId ORDER BY rp.position")
+    List<RoutePlace> findStops(@Param("routeId") Long routeId);
+
+    @Query("SELECT rp.position FROM RoutePlace rp "
+            + "WHERE rp.id.routeId = :routeId AND rp.id.placeId = :placeId")
+    Optional<Long> findPosition(@Param("routeId") Long routeId, @Param("placeId") Long placeId);
+
+    @Query("SELECT MAX(rp.position) FROM RoutePlace rp WHERE rp.id.routeId = :routeId")
+    Long findLastPosition(@Param("routeId") Long routeId);
+
+    /** Position of the place just before {@code position}, ignoring the place being moved. */
+    @Query("SELECT MAX(rp.position) FROM RoutePlace rp WHERE rp.id.routeId = :routeId "
+            + "AND rp.position < :position AND rp.id.placeId <> :placeId")
+    Long findPositionBefore(@Param("routeId") Long routeId, @Param("position") Long position,
+                            @Param("placeId") Long placeId);
+
+    @Modifying
+    @Query("UPDATE RoutePlace rp SET rp.position = :position "
+            + "WHERE rp.id.routeId = :routeId AND rp.id.placeId = :placeId")
+    int updatePosition(@Param("routeId") Long routeId, @Param("placeId") Long placeId,
+                       @Param("position") Long position);
+
+    /**
+     * Spaces a route's places {@link RoutePlace#POSITION_GAP} apart again, keeping
+     * their order, once repeated moves have used up the gap between two of them.
+     */
+    @Modifying
+    @Query("UPDATE RoutePlace rp SET rp.position = " + RoutePlace.POSITION_GAP
+            + " * (SELECT COUNT(o) FROM RoutePlace o WHERE o.id.routeId = :routeId "
+            + "AND (o.position < rp.position "
+            + "OR (o.position = rp.position AND o.id.placeId <= rp.id.placeId))) "
+            + "WHERE rp.id.routeId = :routeId")
+    int respace(@Param("routeId") Long routeId);
+
+    /**
+     * Removes a place from every route in one statement, using the place_id index.
+     * Pending changes are flushed first and the persistence context is cleared
+     * afterwards, so no loaded route keeps the deleted rows.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM RoutePlace rp WHERE rp.id.placeId = :placeId")
+    int deleteByPlaceId(@Param("placeId") Long placeId);
+
+    /** The places on any of the user's routes. */
+    @Query("SELECT DISTINCT rp.id.placeId FROM RoutePlace rp WHERE rp.route.author.id = :userId")
+    List<Long> findPlaceIdsVisitedBy(@Param("userId") Long userId);
+
+    /**
+     * Author and place of every row of routes that have an author, read through a
+     * JDBC cursor inside a transaction. A place on several of a user's routes
+     * appears once per route.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RouteRepository.EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.travelapp.repository.projection.VisitRow("
+            + "r.author.id, rp.id.placeId) FROM RoutePlace rp JOIN rp.route r "
+            + "WHERE r.author IS NOT NULL")
+    Stream<VisitRow> streamVisits();
+}
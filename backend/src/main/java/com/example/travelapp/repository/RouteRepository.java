@@ -1,17 +1,105 @@
 package com.example.travelapp.repository;
 
 import com.example.travelapp.model.Route;
+import com.example.travelapp.repository.projection.RoutePlaceRow;
+import com.example.travelapp.repository.projection.RouteRow;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 
 public interface RouteRepository extends JpaRepository<Route, Long> {
-    @Query(value = "SELECT r.* FROM Routes r "
-            + "JOIN route_places rp ON r.id = rp.route_id "
-            + "GROUP BY r.id "
-            + "HAVING COUNT(rp.place_id) >= :minPlaces", nativeQuery = true)
+    /** Rows the JDBC driver fetches per round trip while an export streams. */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /** A range scan of the place_count index rather than an aggregate over route_places. */
+    @Query("SELECT r FROM Route r WHERE r.placeCount >= :minPlaces")
     List<Route> findRoutesWithMinimumPlaces(@Param("minPlaces") int minPlaces);
 
-}
\ No newline at end of file
+
+    @Query("SELECT new com.example.travelapp.repository.projection.RouteRow("
+            + "r.id, r.name, r.description, r.author.id) FROM Route r")
+    List<RouteRow> findAllRows();
+
+    @Query("SELECT new com.example.travelapp.repository.projection.RoutePlaceRow("
+            + "rp.id.routeId, p.id, p.name, p.address, p.description) FROM RoutePlace rp "
+            + "JOIN rp.place p ORDER BY rp.id.routeId, rp.position")
+    List<RoutePlaceRow> findAllPlaceRows();
+
+    @Query("SELECT new com.example.travelapp.repository.projection.RouteRow("
+            + "r.id, r.name, r.description, r.author.id) FROM Route r "
+            + "WHERE r.id > :cursor ORDER BY r.id")
+    List<RouteRow> findRowsAfter(@Param("cursor") Long cursor, Limit limit);
+
+    @Query("SELECT new com.example.travelapp.repository.projection.RouteRow("
+            + "r.id, r.name, r.description, r.author.id) FROM Route r WHERE r.id = :id")
+    Optional<RouteRow> findRowById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.travelapp.repository.projection.RouteRow("
+            + "r.id, r.name, r.description, r.author.id) FROM Route r "
+            + "WHERE r.id IN (SELECT rp.id.routeId FROM RoutePlace rp "
+            + "WHERE rp.id.placeId = :placeId) ORDER BY r.id")
+    List<RouteRow> findRowsByPlaceId(@Param("placeId") Long placeId, Limit limit);
+
+    @Query("SELECT r FROM Route r WHERE r.id IN (SELECT rp.id.routeId FROM RoutePlace rp "
+            + "WHERE rp.id.placeId = :placeId) ORDER BY r.id")
+    List<Route> findAllByPlaceId(@Param("placeId") Long placeId);
+
+    @Query("SELECT new com.example.travelapp.repository.projection.RouteRow("
+            + "r.id, r.name, r.description, r.author.id) FROM Route r "
+            + "WHERE r.author.id IN :authorIds ORDER BY r.id")
+    List<RouteRow> findRowsByAuthorIds(@Param("authorIds") Collection<Long> authorIds);
+
+    @Query("SELECT new com.example.travelapp.repository.projection.RoutePlaceRow("
+            + "rp.id.routeId, p.id, p.name, p.address, p.description) FROM RoutePlace rp "
+            + "JOIN rp.place p WHERE rp.id.routeId IN :routeIds "
+            + "ORDER BY rp.id.routeId, rp.position")
+    List<RoutePlaceRow> findPlaceRowsByRouteIds(@Param("routeIds") Collection<Long> routeIds);
+
+    /** Adds {@code delta} to the stored place count of one route. */
+    @Modifying
+    @Query("UPDATE Route r SET r.placeCount = r.placeCount + :delta WHERE r.id = :id")
+    int adjustPlaceCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /** Takes one off the place count of every route the place is on; run before the rows go. */
+    @Modifying
+    @Query("UPDATE Route r SET r.placeCount = r.placeCount - 1 WHERE r.id IN "
+            + "(SELECT rp.id.routeId FROM RoutePlace rp WHERE rp.id.placeId = :placeId)")
+    int decrementPlaceCounts(@Param("placeId") Long placeId);
+
+    /**
+     * Sets place_count from route_places for the routes with ids in
+     * ({@code fromId}, {@code toId}] whose count has drifted; returns how many.
+     */
+    @Modifying
+    @Query("UPDATE Route r SET r.placeCount = CAST((SELECT COUNT(rp) FROM RoutePlace rp "
+            + "WHERE rp.id.routeId = r.id) AS Integer) "
+            + "WHERE r.id > :fromId AND r.id <= :toId AND r.placeCount <> "
+            + "(SELECT COUNT(rp) FROM RoutePlace rp WHERE rp.id.routeId = r.id)")
+    int reconcilePlaceCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT MAX(r.id) FROM Route r")
+    Long findMaxId();
+
+    /**
+     * Every route with its places, in id order, read through a JDBC cursor. Places
+     * are fetch-joined so rows of one route arrive together instead of one extra
+     * select per route. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Route r LEFT JOIN FETCH r.stops s LEFT JOIN FETCH s.place "
+            + "ORDER BY r.id, s.position")
+    Stream<Route> streamAll();
+}
@@ -1,10 +1,22 @@
 package com.example.travelapp.repository;
 
 import com.example.travelapp.model.User;
+import com.example.travelapp.repository.projection.UserRow;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Query("SELECT new com.example.travelapp.repository.projection.UserRow("
+            + "u.id, u.name, u.email) FROM User u")
+    List<UserRow> findAllRows();
+
+    @Query("SELECT new com.example.travelapp.repository.projection.UserRow("
+            + "u.id, u.name, u.email) FROM User u WHERE u.id > :cursor ORDER BY u.id")
+    List<UserRow> findRowsAfter(@Param("cursor") Long cursor, Limit limit);
 }
@@ -0,0 +1,14 @@
+package com.example.travelapp.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Columns of a place needed for a {@code PlaceResponseDto}. */
+@Getter
+@AllArgsConstructor
+public class PlaceRow {
+    private final Long id;
+    private final String name;
+    private final String address;
+    private final String description;
+}
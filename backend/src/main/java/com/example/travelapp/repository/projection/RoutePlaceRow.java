@@ -0,0 +1,15 @@
+package com.example.travelapp.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A place on a route: one row of {@code route_places} joined with its place. */
+@Getter
+@AllArgsConstructor
+public class RoutePlaceRow {
+    private final Long routeId;
+    private final Long id;
+    private final String name;
+    private final String address;
+    private final String description;
+}
@@ -0,0 +1,14 @@
+package com.example.travelapp.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Columns of a route itself, without its places. */
+@Getter
+@AllArgsConstructor
+public class RouteRow {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final Long authorId;
+}
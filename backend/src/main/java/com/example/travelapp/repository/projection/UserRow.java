@@ -0,0 +1,13 @@
+package com.example.travelapp.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Columns of a user itself, without their routes. */
+@Getter
+@AllArgsConstructor
+public class UserRow {
+    private final Long id;
+    private final String name;
+    private final String email;
+}
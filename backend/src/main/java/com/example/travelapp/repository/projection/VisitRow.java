@@ -0,0 +1,12 @@
+package com.example.travelapp.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A place on one of a user's routes. */
+@Getter
+@AllArgsConstructor
+public class VisitRow {
+    private final Long userId;
+    private final Long placeId;
+}
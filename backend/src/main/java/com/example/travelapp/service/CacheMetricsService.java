@@ -0,0 +1,124 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.cache.CacheStats;
+import com.example.travelapp.cache.HotKey;
+import com.example.travelapp.cache.LfuCache;
+import com.example.travelapp.cache.OffHeapByteCache;
+import com.example.travelapp.exception.BadRequestException;
+import com.example.travelapp.exception.NotFoundException;
+import com.example.travelapp.model.dto.response.CacheStatsResponseDto;
+import com.example.travelapp.model.dto.response.HotKeyResponseDto;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+
+@Service
+public class CacheMetricsService {
+
+    private static final String CACHE_NOT_FOUND = "Cache not found";
+    static final int MAX_TOP_KEYS = 100;
+
+    private final List<LfuCache<?>> lfuCaches;
+    private final List<OffHeapByteCache<?>> offHeapCaches;
+    private final CacheManager cacheManager;
+
+    public CacheMetricsService(List<LfuCache<?>> lfuCaches,
+                               List<OffHeapByteCache<?>> offHeapCaches,
+                               CacheManager cacheManager) {
+        this.lfuCaches = lfuCaches;
+        this.offHeapCaches = offHeapCaches;
+        this.cacheManager = cacheManager;
+    }
+
+    public List<CacheStatsResponseDto> getAllStats() {
+        List<CacheStatsResponseDto> result = new ArrayList<>();
+        for (LfuCache<?> cache : lfuCaches) {
+            result.add(toResponseDto(cache.stats(), "lfu"));
+        }
+        for (OffHeapByteCache<?> cache : offHeapCaches) {
+            result.add(toResponseDto(cache.stats(), "off-heap"));
+        }
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CaffeineCache caffeineCache) {
+                result.add(toResponseDto(cacheName, caffeineCache));
+            }
+        }
+        return result;
+    }
+
+    public CacheStatsResponseDto getStats(String name) {
+        return getAllStats().stream()
+                .filter(stats -> stats.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException(CACHE_NOT_FOUND));
+    }
+
+    public List<HotKeyResponseDto> getTopKeys(String name, int limit) {
+        if (limit < 1 || limit > MAX_TOP_KEYS) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_TOP_KEYS);
+        }
+        LfuCache<?> cache = lfuCaches.stream()
+                .filter(candidate -> candidate.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException(CACHE_NOT_FOUND));
+        List<HotKeyResponseDto> result = new ArrayList<>();
+        for (HotKey hotKey : cache.topKeys(limit)) {
+            result.add(new HotKeyResponseDto(hotKey.getId(), hotKey.getCount(),
+                    hotKey.getError()));
+        }
+        return result;
+    }
+
+    private CacheStatsResponseDto toResponseDto(CacheStats stats, String type) {
+        return new CacheStatsResponseDto(
+                stats.getName(),
+                type,
+                stats.getSize(),
+                stats.getMaximumSize(),
+                stats.getWeightedSize(),
+                stats.getEffectiveMaximumSize(),
+                stats.getHits(),
+                stats.getMisses(),
+                stats.getHitRate(),
+                stats.getPuts(),
+                stats.getEvictions(),
+                stats.getAdmissionRejections(),
+                stats.getNegativeHits(),
+                stats.getFrequencyHistogram()
+        );
+    }
+
+    private CacheStatsResponseDto toResponseDto(String name, CaffeineCache cache) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                cache.getNativeCache();
+        com.github.benmanes.caffeine.cache.stats.CacheStats stats = nativeCache.stats();
+        Long maximumSize = nativeCache.policy().eviction()
+                .map(eviction -> eviction.getMaximum())
+                .orElse(null);
+        Long weightedSize = nativeCache.policy().eviction()
+                .filter(eviction -> eviction.isWeighted())
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(null);
+        return new CacheStatsResponseDto(
+                name,
+                "caffeine",
+                nativeCache.estimatedSize(),
+                maximumSize,
+                weightedSize,
+                null,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                null,
+                stats.evictionCount(),
+                null,
+                null,
+                null
+        );
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.cache.CacheSnapshot;
+import com.example.travelapp.cache.CacheStats;
+import com.example.travelapp.cache.LfuCache;
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.User;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.example.travelapp.service.mapper.UserMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Carries the entity caches' working sets across restarts.
+ *
+ * <p>On shutdown the hottest ids of each cache are written with their frequencies
+ * to {@code <directory>/<cache>.snapshot}. On startup, as an application runner and
+ * so before the application reports ready, those ids are loaded back with batched
+ * {@code findAllById} calls, hottest first. One minute later the hit ratio of that
+ * minute is logged, marked warm or cold, so deploys with and without a snapshot can
+ * be compared.
+ */
+@Service
+public class CacheWarmupService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupService.class);
+    private static final int BATCH_SIZE = 500;
+    private static final long REPORT_DELAY_MINUTES = 1;
+
+    private final UserCache userCache;
+    private final RouteCache routeCache;
+    private final PlaceCache placeCache;
+    private final UserRepository userRepository;
+    private final RouteRepository routeRepository;
+    private final PlaceRepository placeRepository;
+    private final UserMapper userMapper;
+    private final RouteMapper routeMapper;
+    private final PlaceMapper placeMapper;
+    private final Executor taskExecutor;
+    private final boolean enabled;
+    private final Path directory;
+    private final int maxEntries;
+
+    public CacheWarmupService(UserCache userCache, RouteCache routeCache, PlaceCache placeCache,
+                              UserRepository userRepository, RouteRepository routeRepository,
+                              PlaceRepository placeRepository, UserMapper userMapper,
+                              RouteMapper routeMapper, PlaceMapper placeMapper,
+                              @Qualifier("taskExecutor") Executor taskExecutor,
+                              @Value("${app.cache.snapshot.enabled:true}") boolean enabled,
+                              @Value("${app.cache.snapshot.directory:cache-snapshot}")
+                              String directory,
+                              @Value("${app.cache.snapshot.max-entries:10000}") int maxEntries) {
+        this.userCache = userCache;
+        this.routeCache = routeCache;
+        this.placeCache = placeCache;
+        this.userRepository = userRepository;
+        this.routeRepository = routeRepository;
+        this.placeRepository = placeRepository;
+        this.userMapper = userMapper;
+        this.routeMapper = routeMapper;
+        this.placeMapper = placeMapper;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        int restored = 0;
+        if (enabled) {
+            restored += warm(userCache, userRepository, User::getId, userMapper::toResponseDto);
+            restored += warm(routeCache, routeRepository, Route::getId,
+                    routeMapper::toResponseDto);
+            restored += warm(placeCache, placeRepository, Place::getId,
+                    placeMapper::toResponseDto);
+        }
+        long warmMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        boolean warm = restored > 0;
+        logger.info("Cache warm-up restored {} entries in {} ms", restored, warmMillis);
+        scheduleFirstMinuteReport(warm);
+    }
+
+    @PreDestroy
+    public void writeSnapshots() {
+        if (!enabled) {
+            return;
+        }
+        for (LfuCache<?> cache : List.of(userCache, routeCache, placeCache)) {
+            Path file = snapshotFile(cache);
+            try {
+                CacheSnapshot.write(file, cache.hottest(maxEntries));
+            } catch (IOException e) {
+                logger.warn("Could not write cache snapshot {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Restores one cache from its snapshot, hottest ids first. Ids deleted since
+     * the snapshot was taken are simply not returned by the repository.
+     */
+    <E, D> int warm(LfuCache<D> cache, JpaRepository<E, Long> repository,
+                    Function<E, Long> idOf, Function<E, D> mapper) {
+        Path file = snapshotFile(cache);
+        Map<Long, Integer> frequencies;
+        try {
+            frequencies = CacheSnapshot.read(file);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable cache snapshot {}: {}", file, e.getMessage());
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(frequencies.keySet());
+        int restored = 0;
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            for (E entity : repository.findAllById(batch)) {
+                Long id = idOf.apply(entity);
+                if (cache.restore(id, mapper.apply(entity), frequencies.get(id))) {
+                    restored++;
+                }
+            }
+        }
+        return restored;
+    }
+
+    private Path snapshotFile(LfuCache<?> cache) {
+        return directory.resolve(cache.getName() + ".snapshot");
+    }
+
+    private void scheduleFirstMinuteReport(boolean warm) {
+        List<LfuCache<?>> caches = List.of(userCache, routeCache, placeCache);
+        List<CacheStats> baseline = caches.stream().map(LfuCache::stats).toList();
+        Executor delayed = CompletableFuture.delayedExecutor(
+                REPORT_DELAY_MINUTES, TimeUnit.MINUTES, taskExecutor);
+        CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < caches.size(); i++) {
+                CacheStats before = baseline.get(i);
+                CacheStats after = caches.get(i).stats();
+                long hits = after.getHits() - before.getHits();
+                long misses = after.getMisses() - before.getMisses();
+                long requests = hits + misses;
+                logger.info("Cache {} first-minute hit ratio {} over {} lookups ({} start)",
+                        after.getName(),
+                        requests == 0 ? "n/a" : String.format("%.3f", (double) hits / requests),
+                        requests, warm ? "warm" : "cold");
+            }
+        }, delayed);
+    }
+}
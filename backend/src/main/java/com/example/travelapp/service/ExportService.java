@@ -0,0 +1,88 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes whole tables as one JSON array without holding them in memory. Rows come
+ * from a cursor-backed {@link Stream}, each entity is mapped to its response DTO,
+ * written and detached before the next row is read, so neither the persistence
+ * context nor the response buffer grows with the table.
+ *
+ * <p>The transaction is opened with a {@link TransactionTemplate} rather than
+ * {@code @Transactional} because the response body is written on the MVC async
+ * thread, after the controller method has returned.
+ */
+@Service
+public class ExportService {
+
+    private final RouteRepository routeRepository;
+    private final PlaceRepository placeRepository;
+    private final RouteMapper routeMapper;
+    private final PlaceMapper placeMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(RouteRepository routeRepository, PlaceRepository placeRepository,
+                         RouteMapper routeMapper, PlaceMapper placeMapper,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper) {
+        this.routeRepository = routeRepository;
+        this.placeRepository = placeRepository;
+        this.routeMapper = routeMapper;
+        this.placeMapper = placeMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /** Writes every route with its places; returns the number of routes written. */
+    public long exportRoutes(OutputStream out) {
+        return export(out, routeRepository::streamAll, routeMapper::toResponseDto);
+    }
+
+    /** Writes every place; returns the number of places written. */
+    public long exportPlaces(OutputStream out) {
+        return export(out, placeRepository::streamAll, placeMapper::toResponseDto);
+    }
+
+    private <E, D> long export(OutputStream out, Supplier<Stream<E>> rows,
+                               Function<E, D> mapper) {
+        Long written = transactionTemplate.execute(status -> {
+            try (Stream<E> stream = rows.get();
+                 JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.writeStartArray();
+                long count = 0;
+                for (Iterator<E> it = stream.iterator(); it.hasNext(); count++) {
+                    E entity = it.next();
+                    json.writeObject(mapper.apply(entity));
+                    entityManager.detach(entity);
+                }
+                json.writeEndArray();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written == null ? 0 : written;
+    }
+}
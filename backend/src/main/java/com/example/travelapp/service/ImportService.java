@@ -0,0 +1,283 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.exception.ErrorMessages;
+import com.example.travelapp.index.VisitedPlacesIndex;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.User;
+import com.example.travelapp.model.dto.request.PlaceRequestDto;
+import com.example.travelapp.model.dto.request.RouteRequestDto;
+import com.example.travelapp.model.dto.response.ImportErrorDto;
+import com.example.travelapp.model.dto.response.ImportReportDto;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports newline-delimited JSON, one request DTO per line, without reading the
+ * upload into memory. Lines are parsed and validated as they are read; valid ones
+ * are collected into chunks of {@code chunkSize} and each chunk is written in its
+ * own transaction before the next line is read. Reading blocks while a chunk is
+ * written, so a fast client is held back by TCP flow control rather than buffered.
+ * A chunk that fails to save rolls back on its own and is reported line by line;
+ * earlier chunks stay committed.
+ */
+@Service
+public class ImportService {
+
+    static final String INVALID_JSON = "Invalid JSON: ";
+    static final String VALIDATION_FAILED = "Validation failed: ";
+    static final String SAVE_FAILED = "Could not be saved";
+
+    private final PlaceBatchWriter placeBatchWriter;
+    private final PlaceMapper placeMapper;
+    private final PlaceRepository placeRepository;
+    private final RouteRepository routeRepository;
+    private final UserRepository userRepository;
+    private final RouteMapper routeMapper;
+    private final PlaceCache placeCache;
+    private final RouteCache routeCache;
+    private final UserCache userCache;
+    private final VisitedPlacesIndex visitedPlacesIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ImportService(PlaceBatchWriter placeBatchWriter, PlaceMapper placeMapper,
+                         PlaceRepository placeRepository, RouteRepository routeRepository,
+                         UserRepository userRepository, RouteMapper routeMapper,
+                         PlaceCache placeCache, RouteCache routeCache, UserCache userCache,
+                         VisitedPlacesIndex visitedPlacesIndex, EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper, Validator validator,
+                         @Value("${app.import.chunk-size:1000}") int chunkSize,
+                         @Value("${app.import.max-errors:1000}") int maxErrors) {
+        this.placeBatchWriter = placeBatchWriter;
+        this.placeMapper = placeMapper;
+        this.placeRepository = placeRepository;
+        this.routeRepository = routeRepository;
+        this.userRepository = userRepository;
+        this.routeMapper = routeMapper;
+        this.placeCache = placeCache;
+        this.routeCache = routeCache;
+        this.userCache = userCache;
+        this.visitedPlacesIndex = visitedPlacesIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ImportReportDto importPlaces(InputStream in) {
+        return importLines(in, PlaceRequestDto.class, this::savePlaces);
+    }
+
+    public ImportReportDto importRoutes(InputStream in) {
+        return importLines(in, RouteRequestDto.class, this::saveRoutes);
+    }
+
+    private <D> ImportReportDto importLines(InputStream in, Class<D> type,
+                                            ChunkWriter<D> writer) {
+        Report report = new Report(maxErrors);
+        List<Line<D>> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            long number = 0;
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                number++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                report.processed++;
+                D dto = parse(number, text, type, report);
+                if (dto != null) {
+                    chunk.add(new Line<>(number, dto));
+                    if (chunk.size() == chunkSize) {
+                        write(chunk, writer, report);
+                        chunk.clear();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, writer, report);
+        }
+        return report.toDto();
+    }
+
+    private <D> D parse(long number, String text, Class<D> type, Report report) {
+        D dto;
+        try {
+            dto = objectMapper.readValue(text, type);
+        } catch (JsonProcessingException e) {
+            report.reject(number, INVALID_JSON + e.getOriginalMessage());
+            return null;
+        }
+        Set<ConstraintViolation<D>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            report.reject(number, VALIDATION_FAILED + violations.stream()
+                    .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return dto;
+    }
+
+    private <D> void write(List<Line<D>> chunk, ChunkWriter<D> writer, Report report) {
+        try {
+            Map<Long, String> rejected =
+                    transactionTemplate.execute(status -> writer.write(chunk));
+            for (Line<D> line : chunk) {
+                String message = rejected == null ? null : rejected.get(line.number);
+                if (message == null) {
+                    report.imported++;
+                } else {
+                    report.reject(line.number, message);
+                }
+            }
+        } catch (DataAccessException | PersistenceException e) {
+            chunk.forEach(line -> report.reject(line.number, SAVE_FAILED));
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    private Map<Long, String> savePlaces(List<Line<PlaceRequestDto>> chunk) {
+        List<Place> places = placeBatchWriter.persistAll(chunk.stream()
+                .map(line -> placeMapper.toEntity(line.dto))
+                .toList());
+        places.forEach(place -> placeCache.remove(place.getId()));
+        visitedPlacesIndex.addPlaces(places.stream().map(Place::getId).toList());
+        return Map.of();
+    }
+
+    /**
+     * Saves the routes of a chunk whose author and places exist. Authors and places
+     * are looked up once per chunk rather than once per line.
+     */
+    private Map<Long, String> saveRoutes(List<Line<RouteRequestDto>> chunk) {
+        Set<Long> authorIds = new HashSet<>();
+        Set<Long> placeIds = new HashSet<>();
+        for (Line<RouteRequestDto> line : chunk) {
+            authorIds.add(line.dto.getAuthorId());
+            placeIds.addAll(placeIdsOf(line.dto));
+        }
+        Map<Long, User> authors = userRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Place> places = placeRepository.findAllById(placeIds).stream()
+                .collect(Collectors.toMap(Place::getId, Function.identity()));
+
+        Map<Long, String> rejected = new HashMap<>();
+        List<Route> routes = new ArrayList<>(chunk.size());
+        for (Line<RouteRequestDto> line : chunk) {
+            User author = authors.get(line.dto.getAuthorId());
+            List<Long> missing = placeIdsOf(line.dto).stream()
+                    .filter(id -> !places.containsKey(id))
+                    .toList();
+            if (author == null) {
+                rejected.put(line.number, ErrorMessages.USER_NOT_FOUND);
+            } else if (!missing.isEmpty()) {
+                rejected.put(line.number, ErrorMessages.PLACE_NOT_FOUND + ": " + missing);
+            } else {
+                routes.add(routeMapper.toEntity(line.dto, author, placeIdsOf(line.dto).stream()
+                        .map(places::get)
+                        .collect(Collectors.toCollection(ArrayList::new))));
+            }
+        }
+        routeRepository.saveAll(routes);
+        entityManager.flush();
+        routes.forEach(route -> routeCache.remove(route.getId()));
+        routes.stream()
+                .map(route -> route.getAuthor().getId())
+                .distinct()
+                .forEach(userCache::remove);
+        routes.forEach(route -> visitedPlacesIndex.addVisits(route.getAuthor().getId(),
+                route.getPlaces().stream().map(Place::getId).toList()));
+        return rejected;
+    }
+
+    private static List<Long> placeIdsOf(RouteRequestDto dto) {
+        return dto.getPlaceIds() == null ? List.of() : dto.getPlaceIds();
+    }
+
+    /** Writes a chunk inside a transaction; returns the rejected line numbers with reasons. */
+    @FunctionalInterface
+    private interface ChunkWriter<D> {
+        Map<Long, String> write(List<Line<D>> chunk);
+    }
+
+    private static final class Line<D> {
+        private final long number;
+        private final D dto;
+
+        private Line(long number, D dto) {
+            this.number = number;
+            this.dto = dto;
+        }
+    }
+
+    /** Counts and the first {@code maxErrors} rejections; later ones are only flagged. */
+    private static final class Report {
+        private final int maxErrors;
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private long processed;
+        private long imported;
+        private boolean truncated;
+
+        private Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long line, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportErrorDto(line, message));
+            } else {
+                truncated = true;
+            }
+        }
+
+        private ImportReportDto toDto() {
+            errors.sort(Comparator.comparingLong(ImportErrorDto::getLine));
+            return new ImportReportDto(processed, imported, errors, truncated);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helpers shared by the listing services. A cursor is the last id
+ * of the previous page, tagged with the listing it belongs to and Base64-encoded so
+ * that clients treat it as opaque and cannot hand a user cursor to the route listing.
+ */
+final class PageCursor {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final String INVALID_CURSOR = "Invalid cursor";
+    static final String INVALID_PAGE_SIZE = "Page size must be between 1 and " + MAX_PAGE_SIZE;
+
+    private PageCursor() {
+    }
+
+    static String encode(String listing, long lastId) {
+        byte[] bytes = (listing + ":" + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /** The id to continue after; zero, before every id, for a missing cursor. */
+    static long decode(String listing, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8);
+            String prefix = listing + ":";
+            if (!decoded.startsWith(prefix)) {
+                throw new BadRequestException(INVALID_CURSOR);
+            }
+            return Long.parseLong(decoded.substring(prefix.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(INVALID_CURSOR);
+        }
+    }
+
+    static void checkSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException(INVALID_PAGE_SIZE);
+        }
+    }
+
+    /** The rows of the page, fetched as {@code size + 1} to detect a next page. */
+    static <R> List<R> trim(List<R> rows, int size) {
+        return rows.size() > size ? rows.subList(0, size) : rows;
+    }
+
+    /** Cursor after the last row of the page, or null if the extra row was not found. */
+    static <R> String nextCursor(String listing, List<R> rows, int size, Function<R, Long> id) {
+        return rows.size() > size ? encode(listing, id.apply(rows.get(size - 1))) : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.model.Place;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persists many new places in one transaction. Hibernate groups the inserts into
+ * JDBC batches of {@code hibernate.jdbc.batch_size}; every {@code flushInterval}
+ * places the persistence context is flushed and cleared so it does not grow with
+ * the size of the import.
+ */
+@Component
+public class PlaceBatchWriter {
+
+    private final EntityManager entityManager;
+    private final int flushInterval;
+
+    public PlaceBatchWriter(EntityManager entityManager,
+                            @Value("${app.places.bulk.flush-interval:1000}") int flushInterval) {
+        if (flushInterval < 1) {
+            throw new IllegalArgumentException("Flush interval must be positive");
+        }
+        this.entityManager = entityManager;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Persists {@code places} in order and returns them, detached, with their ids
+     * assigned. Must be called inside a transaction.
+     */
+    public List<Place> persistAll(List<Place> places) {
+        for (int i = 0; i < places.size(); i++) {
+            entityManager.persist(places.get(i));
+            if ((i + 1) % flushInterval == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return places;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.repository.RouteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Repairs {@code Routes.place_count} where it no longer matches the route's
+ * {@code route_places} rows, for instance after a write outside the services or
+ * for routes stored before the column existed. Routes are checked in id ranges of
+ * {@code batchSize}, each in its own short transaction, so the job never holds
+ * locks on the whole table. It first runs at startup, then every interval.
+ */
+@Component
+public class PlaceCountReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceCountReconciler.class);
+
+    private final RouteRepository routeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public PlaceCountReconciler(RouteRepository routeRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.routes.place-count.reconcile-batch-size:10000}")
+                                int batchSize) {
+        this.routeRepository = routeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.routes.place-count.reconcile-initial-delay:PT0S}",
+            fixedDelayString = "${app.routes.place-count.reconcile-interval:PT1H}")
+    public void reconcileOnSchedule() {
+        reconcile();
+    }
+
+    /** Checks every route once; returns how many counts were repaired. */
+    public int reconcile() {
+        Long maxId = routeRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+        int repaired = 0;
+        for (long from = 0; from < maxId; from += batchSize) {
+            long start = from;
+            Integer fixed = transactionTemplate.execute(status ->
+                    routeRepository.reconcilePlaceCounts(start, start + batchSize));
+            repaired += fixed != null ? fixed : 0;
+        }
+        if (repaired > 0) {
+            logger.warn("Repaired place_count of {} routes", repaired);
+        }
+        return repaired;
+    }
+}
@@ -1,19 +1,27 @@
 package com.example.travelapp.service;
 
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.UserCache;
 import com.example.travelapp.exception.ErrorMessages;
 import com.example.travelapp.exception.NotFoundException;
+import com.example.travelapp.index.VisitedPlacesIndex;
 import com.example.travelapp.model.Place;
-import com.example.travelapp.model.Route;
 import com.example.travelapp.model.dto.request.PlaceRequestDto;
+import com.example.travelapp.model.dto.response.PageResponseDto;
 import com.example.travelapp.model.dto.response.PlaceResponseDto;
 import com.example.travelapp.model.dto.response.RouteResponseDto;
 import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RoutePlaceRepository;
 import com.example.travelapp.repository.RouteRepository;
 import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.repository.projection.PlaceRow;
+import com.example.travelapp.repository.projection.RouteRow;
 import com.example.travelapp.service.mapper.PlaceMapper;
 import com.example.travelapp.service.mapper.RouteMapper;
 import java.util.ArrayList;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,60 +30,140 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class PlaceService {
 
+    private static final String LISTING = "places";
+    static final int ROUTE_EVICTION_LIMIT = 1_000;
     private final PlaceRepository placeRepository;
     private final PlaceMapper placeMapper;
     private final RouteRepository routeRepository;
+    private final RoutePlaceRepository routePlaceRepository;
     private final RouteMapper routeMapper;
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final RouteCache routeCache;
+    private final PlaceCache placeCache;
+    private final PlaceBatchWriter placeBatchWriter;
+    private final VisitedPlacesIndex visitedPlacesIndex;
 
     public PlaceService(PlaceRepository placeRepository,
                         PlaceMapper placeMapper, RouteRepository routeRepository,
-                        RouteMapper routeMapper, UserRepository userRepository) {
+                        RoutePlaceRepository routePlaceRepository,
+                        RouteMapper routeMapper, UserRepository userRepository,
+                        UserCache userCache, RouteCache routeCache, PlaceCache placeCache,
+                        PlaceBatchWriter placeBatchWriter,
+                        VisitedPlacesIndex visitedPlacesIndex) {
         this.placeRepository = placeRepository;
         this.placeMapper = placeMapper;
         this.routeRepository = routeRepository;
+        this.routePlaceRepository = routePlaceRepository;
         this.routeMapper = routeMapper;
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.routeCache = routeCache;
+        this.placeCache = placeCache;
+        this.placeBatchWriter = placeBatchWriter;
+        this.visitedPlacesIndex = visitedPlacesIndex;
     }
 
     public List<PlaceResponseDto> getAllPlaces() {
-        return placeRepository.findAll().stream()
+        return placeRepository.findAllRows().stream()
                 .map(placeMapper::toResponseDto)
                 .toList();
     }
 
+    /** One keyset page of places ordered by id. */
+    public PageResponseDto<PlaceResponseDto> getPlacesPage(String cursor, int size) {
+        PageCursor.checkSize(size);
+        List<PlaceRow> rows = placeRepository.findRowsAfter(
+                PageCursor.decode(LISTING, cursor), Limit.of(size + 1));
+        return new PageResponseDto<>(
+                PageCursor.trim(rows, size).stream().map(placeMapper::toResponseDto).toList(),
+                PageCursor.nextCursor(LISTING, rows, size, PlaceRow::getId));
+    }
+
+    /**
+     * Takes the ids from the visited places index and reads the places between the
+     * lowest and the highest of them in one id-range scan, keeping the indexed ones.
+     * The scan only passes over the places the user did visit, where batches of
+     * primary-key lookups would cost a statement per thousand places. Only while the
+     * index cannot answer does the database work out which places are not visited.
+     */
     public List<PlaceResponseDto> findPlacesNotVisitedByUser(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException(ErrorMessages.USER_NOT_FOUND);
         }
-        return placeRepository.findPlacesNotVisitedByUser(userId)
-                .stream()
-                .map(placeMapper::toResponseDto).toList();
+        int[] placeIds = visitedPlacesIndex.findPlacesNotVisitedBy(userId);
+        if (placeIds == null) {
+            return placeRepository.findPlacesNotVisitedByUser(userId)
+                    .stream()
+                    .map(placeMapper::toResponseDto).toList();
+        }
+        if (placeIds.length == 0) {
+            return List.of();
+        }
+        List<PlaceResponseDto> places = new ArrayList<>(placeIds.length);
+        int next = 0;
+        for (PlaceRow row : placeRepository.findRowsByIdBetween(
+                (long) placeIds[0], (long) placeIds[placeIds.length - 1])) {
+            while (next < placeIds.length && placeIds[next] < row.getId()) {
+                next++;
+            }
+            if (next < placeIds.length && placeIds[next] == row.getId()) {
+                places.add(placeMapper.toResponseDto(row));
+            }
+        }
+        return places;
     }
 
     public PlaceResponseDto getPlaceById(Long id) {
-        Place place = placeRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(ErrorMessages.PLACE_NOT_FOUND));
-        return placeMapper.toResponseDto(place);
+        PlaceResponseDto place = placeCache.get(id, this::loadPlace);
+        if (place == null) {
+            throw NotFoundException.withoutStackTrace(ErrorMessages.PLACE_NOT_FOUND);
+        }
+        return place;
+    }
+
+    private PlaceResponseDto loadPlace(Long id) {
+        return placeRepository.findById(id)
+                .map(placeMapper::toResponseDto)
+                .orElse(null);
     }
 
     public List<RouteResponseDto> getRoutesByPlace(Long id) {
-        Place place = placeRepository.findById(id).orElseThrow(()
-                -> new NotFoundException(ErrorMessages.PLACE_NOT_FOUND));
-        return place.getRoutes().stream().map(routeMapper::toResponseDto).toList();
+        if (!placeRepository.existsById(id)) {
+            throw new NotFoundException(ErrorMessages.PLACE_NOT_FOUND);
+        }
+        return routeRepository.findAllByPlaceId(id).stream()
+                .map(routeMapper::toResponseDto)
+                .toList();
     }
 
     @Transactional
     public PlaceResponseDto createPlace(PlaceRequestDto dto) {
         Place place = placeMapper.toEntity(dto);
-        return placeMapper.toResponseDto(placeRepository.save(place));
+        Place savedPlace = placeRepository.save(place);
+        PlaceResponseDto response = placeMapper.toResponseDto(savedPlace);
+        placeCache.put(savedPlace.getId(), response);
+        visitedPlacesIndex.addPlaces(List.of(savedPlace.getId()));
+        return response;
     }
 
+    /**
+     * Inserts all places in JDBC batches within one transaction. New ids are only
+     * evicted from the cache, which drops any not-found entries for them, rather
+     * than admitting thousands of cold places.
+     */
     @Transactional
     public List<PlaceResponseDto> createPlaces(List<PlaceRequestDto> dtos) {
-        return dtos.stream()
-                .map(this::createPlace)
-                .toList();
+        List<Place> places = placeBatchWriter.persistAll(dtos.stream()
+                .map(placeMapper::toEntity)
+                .toList());
+        List<PlaceResponseDto> responses = new ArrayList<>(places.size());
+        for (Place place : places) {
+            placeCache.remove(place.getId());
+            responses.add(placeMapper.toResponseDto(place));
+        }
+        visitedPlacesIndex.addPlaces(places.stream().map(Place::getId).toList());
+        return responses;
     }
 
     @Transactional
@@ -85,20 +173,45 @@ public class PlaceService {
         place.setName(dto.getName());
         place.setAddress(dto.getAddress());
         place.setDescription(dto.getDescription());
-        return placeMapper.toResponseDto(placeRepository.save(place));
+        PlaceResponseDto response = placeMapper.toResponseDto(placeRepository.save(place));
+        placeCache.put(id, response);
+        evictRoutes(id);
+        return response;
     }
 
     @Transactional
     public void deletePlace(Long id) {
-
-        Place place = placeRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(ErrorMessages.PLACE_NOT_FOUND));
-
-        for (Route route : place.getRoutes()) {
-            route.getPlaces().remove(place);
-            routeRepository.save(route);
+        if (!placeRepository.existsById(id)) {
+            throw new NotFoundException(ErrorMessages.PLACE_NOT_FOUND);
         }
 
+        evictRoutes(id);
+        routeRepository.decrementPlaceCounts(id);
+        routePlaceRepository.deleteByPlaceId(id);
         placeRepository.deleteById(id);
+        placeCache.remove(id);
+        visitedPlacesIndex.removePlace(id);
+    }
+
+    /**
+     * Cached route and user responses embed place details, so every route
+     * containing the place and every author of such a route is dropped. A place
+     * on more routes than the route cache can hold clears both caches instead of
+     * reading every route id and evicting them one at a time.
+     */
+    private void evictRoutes(Long placeId) {
+        List<RouteRow> routes = routeRepository.findRowsByPlaceId(placeId,
+                Limit.of(ROUTE_EVICTION_LIMIT + 1));
+        if (routes.size() > ROUTE_EVICTION_LIMIT) {
+            routeCache.clear();
+            userCache.clear();
+            return;
+        }
+        for (RouteRow route : routes) {
+            routeCache.remove(route.getId());
+            if (route.getAuthorId() != null) {
+                userCache.remove(route.getAuthorId());
+            }
+        }
     }
 }
@@ -1,19 +1,40 @@
 package com.example.travelapp.service;
 
 
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.RouteJsonCache;
+import com.example.travelapp.cache.UserCache;
 import com.example.travelapp.exception.BadRequestException;
 import com.example.travelapp.exception.ErrorMessages;
 import com.example.travelapp.exception.NotFoundException;
+import com.example.travelapp.index.VisitedPlacesIndex;
 import com.example.travelapp.model.Place;
 import com.example.travelapp.model.Route;
+import com.example.travelapp.model.RoutePlace;
+import com.example.travelapp.model.RoutePlaceId;
 import com.example.travelapp.model.User;
 import com.example.travelapp.model.dto.request.RouteRequestDto;
+import com.example.travelapp.model.dto.response.PageResponseDto;
+import com.example.travelapp.model.dto.response.RoutePlaceResultDto;
+import com.example.travelapp.model.dto.response.RoutePlaceResultDto.Status;
 import com.example.travelapp.model.dto.response.RouteResponseDto;
 import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RoutePlaceRepository;
 import com.example.travelapp.repository.RouteRepository;
 import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.repository.projection.RoutePlaceRow;
+import com.example.travelapp.repository.projection.RouteRow;
 import com.example.travelapp.service.mapper.RouteMapper;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,24 +42,55 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class RouteService {
 
+    private static final String LISTING = "routes";
+    static final String PLACE_ALREADY_IN_ROUTE = "Place already exists in this route";
+    static final String PLACE_NOT_IN_ROUTE = "Place is not in this route";
+
     private final RouteRepository routeRepository;
     private final UserRepository userRepository;
     private final PlaceRepository placeRepository;
+    private final RoutePlaceRepository routePlaceRepository;
     private final RouteMapper routeMapper;
+    private final UserCache userCache;
+    private final RouteCache routeCache;
+    private final RouteJsonCache routeJsonCache;
+    private final VisitedPlacesIndex visitedPlacesIndex;
 
     public RouteService(RouteRepository routeRepository,
                         UserRepository userRepository,
-                        PlaceRepository placeRepository, RouteMapper routeMapper) {
+                        PlaceRepository placeRepository,
+                        RoutePlaceRepository routePlaceRepository, RouteMapper routeMapper,
+                        UserCache userCache, RouteCache routeCache,
+                        RouteJsonCache routeJsonCache,
+                        VisitedPlacesIndex visitedPlacesIndex) {
         this.routeRepository = routeRepository;
         this.userRepository = userRepository;
         this.placeRepository = placeRepository;
+        this.routePlaceRepository = routePlaceRepository;
         this.routeMapper = routeMapper;
+        this.userCache = userCache;
+        this.routeCache = routeCache;
+        this.routeJsonCache = routeJsonCache;
+        this.visitedPlacesIndex = visitedPlacesIndex;
     }
 
+    /** Two flat projections, routes and route places, instead of the eager graph. */
     public List<RouteResponseDto> getAllRoutes() {
-        return routeRepository.findAll().stream()
-                .map(routeMapper::toResponseDto)
-                .toList();
+        return routeMapper.toResponseDtos(routeRepository.findAllRows(),
+                routeRepository.findAllPlaceRows());
+    }
+
+    /** One keyset page of routes ordered by id, with the places of those routes only. */
+    public PageResponseDto<RouteResponseDto> getRoutesPage(String cursor, int size) {
+        PageCursor.checkSize(size);
+        List<RouteRow> rows = routeRepository.findRowsAfter(
+                PageCursor.decode(LISTING, cursor), Limit.of(size + 1));
+        List<RouteRow> routes = PageCursor.trim(rows, size);
+        List<RoutePlaceRow> places = routes.isEmpty() ? List.of()
+                : routeRepository.findPlaceRowsByRouteIds(
+                        routes.stream().map(RouteRow::getId).toList());
+        return new PageResponseDto<>(routeMapper.toResponseDtos(routes, places),
+                PageCursor.nextCursor(LISTING, rows, size, RouteRow::getId));
     }
 
     public List<RouteResponseDto> getAllRoutesWithMinimumPlaces(int minPlaces) {
@@ -49,18 +101,52 @@ public class RouteService {
     }
 
     public RouteResponseDto getRouteById(Long id) {
-        Route route = routeRepository.findById(id).orElseThrow(() ->
-                new NotFoundException(ErrorMessages.ROUTE_NOT_FOUND));
-        return routeMapper.toResponseDto(route);
+        RouteResponseDto route = routeCache.get(id, this::loadRoute);
+        if (route == null) {
+            throw NotFoundException.withoutStackTrace(ErrorMessages.ROUTE_NOT_FOUND);
+        }
+        return route;
+    }
+
+    /**
+     * The route as JSON bytes, served from off-heap memory when possible. A miss is
+     * encoded from the {@link RouteCache} copy if there is one, or else loaded without
+     * being put there, so serving JSON keeps no route object graph on the heap.
+     */
+    public byte[] getRouteJson(Long id) {
+        byte[] json = routeJsonCache.get(id, routeId -> {
+            RouteResponseDto cached = routeCache.get(routeId);
+            return cached != null ? cached : loadRoute(routeId);
+        });
+        if (json == null) {
+            throw NotFoundException.withoutStackTrace(ErrorMessages.ROUTE_NOT_FOUND);
+        }
+        return json;
+    }
+
+    private RouteResponseDto loadRoute(Long id) {
+        return routeRepository.findById(id)
+                .map(routeMapper::toResponseDto)
+                .orElse(null);
     }
 
     @Transactional
     public RouteResponseDto createRoute(RouteRequestDto dto) {
         User author = userRepository.findById(dto.getAuthorId()).orElseThrow(()
                 -> new NotFoundException(ErrorMessages.USER_NOT_FOUND));
-        List<Place> places = placeRepository.findAllById(dto.getPlaceIds());
+        Map<Long, Place> found = findPlaces(dto.getPlaceIds());
+        List<Place> places = dto.getPlaceIds().stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
         Route route = routeMapper.toEntity(dto, author, places);
-        return routeMapper.toResponseDto(routeRepository.save(route));
+        Route savedRoute = routeRepository.save(route);
+        RouteResponseDto response = routeMapper.toResponseDto(savedRoute);
+        routeCache.put(savedRoute.getId(), response);
+        userCache.remove(dto.getAuthorId());
+        visitedPlacesIndex.addVisits(author.getId(),
+                places.stream().map(Place::getId).toList());
+        return response;
     }
 
     @Transactional
@@ -70,6 +156,8 @@ public class RouteService {
 
         route.setName(dto.getName());
         route.setDescription(dto.getDescription());
+        evictAuthor(route);
+        Long previousAuthorId = route.getAuthor() != null ? route.getAuthor().getId() : null;
 
         if (dto.getAuthorId() != null) {
             User author = userRepository.findById(dto.getAuthorId())
@@ -78,40 +166,261 @@ public class RouteService {
         }
 
         route = routeRepository.save(route);
-        return routeMapper.toResponseDto(route);
+        evictAuthor(route);
+        if (route.getAuthor() != null
+                && !Objects.equals(previousAuthorId, route.getAuthor().getId())) {
+            visitedPlacesIndex.reloadUser(previousAuthorId);
+            visitedPlacesIndex.addVisits(route.getAuthor().getId(),
+                    route.getPlaces().stream().map(Place::getId).toList());
+        }
+        RouteResponseDto response = routeMapper.toResponseDto(route);
+        routeCache.put(id, response);
+        return response;
     }
 
+    /**
+     * Appends the place as one {@code route_places} insert; the duplicate check is a
+     * primary key lookup, so neither touches the route's other places.
+     */
     @Transactional
     public void addPlaceToRoute(Long routeId, Long placeId) {
-        Route route = routeRepository.findById(routeId).orElseThrow(() ->
-                new NotFoundException(ErrorMessages.ROUTE_NOT_FOUND));
-        Place place = placeRepository.findById(placeId).orElseThrow(() ->
-                new NotFoundException(ErrorMessages.PLACE_NOT_FOUND));
-        if (route.getPlaces().contains(place)) {
-            throw new BadRequestException("Place already exists in this route");
+        RouteRow route = findRouteRow(routeId);
+        if (!placeRepository.existsById(placeId)) {
+            throw new NotFoundException(ErrorMessages.PLACE_NOT_FOUND);
+        }
+        if (routePlaceRepository.existsById(new RoutePlaceId(routeId, placeId))) {
+            throw new BadRequestException(PLACE_ALREADY_IN_ROUTE);
         }
 
-        route.getPlaces().add(place);
-        routeRepository.save(route);
+        routePlaceRepository.append(routeId, placeId);
+        routeRepository.adjustPlaceCount(routeId, 1);
+        evictRoute(route);
+        visitedPlacesIndex.addVisits(route.getAuthorId(), List.of(placeId));
     }
 
     @Transactional
     public void deleteRoute(Long id) {
+        routeRepository.findById(id).ifPresent(route -> {
+            evictAuthor(route);
+            if (route.getAuthor() != null) {
+                visitedPlacesIndex.reloadUser(route.getAuthor().getId());
+            }
+        });
         routeRepository.deleteById(id);
+        routeCache.remove(id);
     }
 
     @Transactional
     public void removePlaceFromRoute(Long routeId, Long placeId) {
-        Route route = routeRepository.findById(routeId)
+        RouteRow route = findRouteRow(routeId);
+        if (!placeRepository.existsById(placeId)) {
+            throw new NotFoundException(ErrorMessages.PLACE_NOT_FOUND);
+        }
+
+        if (routePlaceRepository.deleteByRouteIdAndPlaceId(routeId, placeId) == 0) {
+            throw new BadRequestException(PLACE_NOT_IN_ROUTE);
+        }
+        routeRepository.adjustPlaceCount(routeId, -1);
+        evictRoute(route);
+        visitedPlacesIndex.reloadUser(route.getAuthorId());
+    }
+
+    /**
+     * Appends the places that exist and are not on the route yet, in request order.
+     * Existence is one {@code findAllById}, membership one query over the requested
+     * ids only, and the new rows are inserted in JDBC batches.
+     */
+    @Transactional
+    public List<RoutePlaceResultDto> addPlacesToRoute(Long routeId, List<Long> placeIds) {
+        RouteRow route = findRouteRow(routeId);
+        Map<Long, Place> places = findPlaces(placeIds);
+        Set<Long> onRoute = placesOnRoute(routeId, places.keySet());
+        Route reference = routeRepository.getReferenceById(routeId);
+        Long last = routePlaceRepository.findLastPosition(routeId);
+        long position = last != null ? last : 0;
+
+        List<RoutePlace> stops = new ArrayList<>();
+        List<RoutePlaceResultDto> results = new ArrayList<>(placeIds.size());
+        Set<Long> seen = new HashSet<>();
+        for (Long placeId : placeIds) {
+            Status status = check(placeId, seen, places);
+            if (status == null && onRoute.contains(placeId)) {
+                status = Status.ALREADY_IN_ROUTE;
+            } else if (status == null) {
+                position += RoutePlace.POSITION_GAP;
+                stops.add(new RoutePlace(reference, places.get(placeId), position));
+                status = Status.ADDED;
+            }
+            results.add(new RoutePlaceResultDto(placeId, status));
+        }
+
+        if (!stops.isEmpty()) {
+            routePlaceRepository.saveAll(stops);
+            routeRepository.adjustPlaceCount(routeId, stops.size());
+            evictRoute(route);
+            visitedPlacesIndex.addVisits(route.getAuthorId(),
+                    stops.stream().map(stop -> stop.getPlace().getId()).toList());
+        }
+        return results;
+    }
+
+    /** Removes the requested places that are on the route with one delete statement. */
+    @Transactional
+    public List<RoutePlaceResultDto> removePlacesFromRoute(Long routeId, List<Long> placeIds) {
+        RouteRow route = findRouteRow(routeId);
+        Map<Long, Place> places = findPlaces(placeIds);
+        Set<Long> onRoute = placesOnRoute(routeId, places.keySet());
+
+        List<RoutePlaceResultDto> results = new ArrayList<>(placeIds.size());
+        Set<Long> seen = new HashSet<>();
+        for (Long placeId : placeIds) {
+            Status status = check(placeId, seen, places);
+            if (status == null) {
+                status = onRoute.contains(placeId) ? Status.REMOVED : Status.NOT_IN_ROUTE;
+            }
+            results.add(new RoutePlaceResultDto(placeId, status));
+        }
+
+        if (!onRoute.isEmpty()) {
+            int removed = routePlaceRepository.deleteByRouteIdAndPlaceIdIn(routeId, onRoute);
+            routeRepository.adjustPlaceCount(routeId, -removed);
+            evictRoute(route);
+            visitedPlacesIndex.reloadUser(route.getAuthorId());
+        }
+        return results;
+    }
+
+    /**
+     * Makes the route's places exactly the requested ones that exist, in request
+     * order. Places no longer listed are deleted in one statement and reported as
+     * removed, new ones are inserted in batches, and kept ones are updated only
+     * when their position changes.
+     */
+    @Transactional
+    public List<RoutePlaceResultDto> replaceRoutePlaces(Long routeId, List<Long> placeIds) {
+        RouteRow route = findRouteRow(routeId);
+        Map<Long, Place> places = findPlaces(placeIds);
+        Map<Long, RoutePlace> current = new LinkedHashMap<>();
+        for (RoutePlace stop : routePlaceRepository.findStops(routeId)) {
+            current.put(stop.getId().getPlaceId(), stop);
+        }
+        Route reference = routeRepository.getReferenceById(routeId);
+
+        List<RoutePlace> added = new ArrayList<>();
+        List<RoutePlaceResultDto> results = new ArrayList<>(placeIds.size());
+        Set<Long> seen = new HashSet<>();
+        long position = 0;
+        for (Long placeId : placeIds) {
+            Status status = check(placeId, seen, places);
+            if (status == null) {
+                position += RoutePlace.POSITION_GAP;
+                RoutePlace stop = current.remove(placeId);
+                if (stop != null) {
+                    stop.setPosition(position);
+                    status = Status.KEPT;
+                } else {
+                    added.add(new RoutePlace(reference, places.get(placeId), position));
+                    status = Status.ADDED;
+                }
+            }
+            results.add(new RoutePlaceResultDto(placeId, status));
+        }
+        current.keySet().forEach(placeId ->
+                results.add(new RoutePlaceResultDto(placeId, Status.REMOVED)));
+
+        int removed = current.isEmpty() ? 0
+                : routePlaceRepository.deleteByRouteIdAndPlaceIdIn(routeId, current.keySet());
+        routePlaceRepository.saveAll(added);
+        routeRepository.adjustPlaceCount(routeId, added.size() - removed);
+        evictRoute(route);
+        if (removed > 0) {
+            visitedPlacesIndex.reloadUser(route.getAuthorId());
+        } else {
+            visitedPlacesIndex.addVisits(route.getAuthorId(),
+                    added.stream().map(stop -> stop.getPlace().getId()).toList());
+        }
+        return results;
+    }
+
+    private Map<Long, Place> findPlaces(List<Long> placeIds) {
+        return placeRepository.findAllById(new HashSet<>(placeIds)).stream()
+                .collect(Collectors.toMap(Place::getId, Function.identity()));
+    }
+
+    private Set<Long> placesOnRoute(Long routeId, Set<Long> placeIds) {
+        return placeIds.isEmpty() ? Set.of()
+                : new HashSet<>(routePlaceRepository.findPlaceIdsOnRoute(routeId, placeIds));
+    }
+
+    /** The status of a place id that cannot be applied, or null when it can. */
+    private static Status check(Long placeId, Set<Long> seen, Map<Long, Place> places) {
+        if (!seen.add(placeId)) {
+            return Status.DUPLICATE;
+        }
+        return places.containsKey(placeId) ? null : Status.NOT_FOUND;
+    }
+
+    /**
+     * Moves a place of the route in front of {@code beforePlaceId}, or to the end
+     * when that is null. Only the moved row is updated: it takes the midpoint
+     * between its new neighbours' positions. When two neighbours have no gap left
+     * the route is spaced out again first, which is rare enough to amortise.
+     */
+    @Transactional
+    public void movePlaceInRoute(Long routeId, Long placeId, Long beforePlaceId) {
+        RouteRow route = findRouteRow(routeId);
+        routePlaceRepository.findPosition(routeId, placeId)
+                .orElseThrow(() -> new BadRequestException(PLACE_NOT_IN_ROUTE));
+        if (placeId.equals(beforePlaceId)) {
+            return;
+        }
+
+        long position;
+        if (beforePlaceId == null) {
+            position = routePlaceRepository.findLastPosition(routeId) + RoutePlace.POSITION_GAP;
+        } else {
+            long next = positionOf(routeId, beforePlaceId);
+            long previous = positionBefore(routeId, next, placeId);
+            if (next - previous < 2) {
+                routePlaceRepository.respace(routeId);
+                next = positionOf(routeId, beforePlaceId);
+                previous = positionBefore(routeId, next, placeId);
+            }
+            position = previous + (next - previous) / 2;
+        }
+        routePlaceRepository.updatePosition(routeId, placeId, position);
+        evictRoute(route);
+    }
+
+    private long positionOf(Long routeId, Long placeId) {
+        return routePlaceRepository.findPosition(routeId, placeId)
+                .orElseThrow(() -> new BadRequestException(PLACE_NOT_IN_ROUTE));
+    }
+
+    private long positionBefore(Long routeId, long position, Long placeId) {
+        Long previous = routePlaceRepository.findPositionBefore(routeId, position, placeId);
+        return previous != null ? previous : 0;
+    }
+
+    private RouteRow findRouteRow(Long routeId) {
+        return routeRepository.findRowById(routeId)
                 .orElseThrow(() -> new NotFoundException(ErrorMessages.ROUTE_NOT_FOUND));
-        Place place = placeRepository.findById(placeId)
-                .orElseThrow(() -> new NotFoundException(ErrorMessages.PLACE_NOT_FOUND));
+    }
 
-        if (!route.getPlaces().contains(place)) {
-            throw new BadRequestException("Place is not in this route");
+    private void evictRoute(RouteRow route) {
+        routeCache.remove(route.getId());
+        if (route.getAuthorId() != null) {
+            userCache.remove(route.getAuthorId());
         }
+    }
 
-        route.getPlaces().remove(place);
-        routeRepository.save(route);
+    /**
+     * Cached user responses embed the user's routes, so any change to a route
+     * has to drop its author's entry.
+     */
+    private void evictAuthor(Route route) {
+        if (route != null && route.getAuthor() != null) {
+            userCache.remove(route.getAuthor().getId());
+        }
     }
 }
@@ -1,15 +1,23 @@
 package com.example.travelapp.service;
 
 
+import com.example.travelapp.cache.RouteCache;
 import com.example.travelapp.cache.UserCache;
 import com.example.travelapp.exception.ErrorMessages;
 import com.example.travelapp.exception.NotFoundException;
+import com.example.travelapp.index.VisitedPlacesIndex;
 import com.example.travelapp.model.User;
 import com.example.travelapp.model.dto.request.UserRequestDto;
+import com.example.travelapp.model.dto.response.PageResponseDto;
 import com.example.travelapp.model.dto.response.UserResponseDto;
+import com.example.travelapp.repository.RouteRepository;
 import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.repository.projection.RoutePlaceRow;
+import com.example.travelapp.repository.projection.RouteRow;
+import com.example.travelapp.repository.projection.UserRow;
 import com.example.travelapp.service.mapper.UserMapper;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,42 +26,79 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class UserService {
 
+    private static final String LISTING = "users";
+
     private final UserRepository userRepository;
+    private final RouteRepository routeRepository;
     private final UserMapper userMapper;
     private final UserCache userCache;
+    private final RouteCache routeCache;
+    private final VisitedPlacesIndex visitedPlacesIndex;
 
-    public UserService(UserRepository userRepository, UserMapper userMapper, UserCache userCache) {
+    public UserService(UserRepository userRepository, RouteRepository routeRepository,
+                       UserMapper userMapper, UserCache userCache, RouteCache routeCache,
+                       VisitedPlacesIndex visitedPlacesIndex) {
         this.userRepository = userRepository;
+        this.routeRepository = routeRepository;
         this.userMapper = userMapper;
         this.userCache = userCache;
+        this.routeCache = routeCache;
+        this.visitedPlacesIndex = visitedPlacesIndex;
     }
 
+    /**
+     * Reads users, routes and route places as three flat projections instead of
+     * loading the eager entity graph, so the statement count does not grow with
+     * the number of users or routes.
+     */
     public List<UserResponseDto> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(userMapper::toResponseDto)
-                .toList();
+        return userMapper.toResponseDtos(userRepository.findAllRows(),
+                routeRepository.findAllRows(), routeRepository.findAllPlaceRows());
     }
 
-    public UserResponseDto getUserById(Long id) {
-        User cachedUser = userCache.get(id);
+    /**
+     * One keyset page of users ordered by id. The page's routes and their places are
+     * read for the ids on the page only, so every page costs the same three queries.
+     */
+    public PageResponseDto<UserResponseDto> getUsersPage(String cursor, int size) {
+        PageCursor.checkSize(size);
+        List<UserRow> rows = userRepository.findRowsAfter(
+                PageCursor.decode(LISTING, cursor), Limit.of(size + 1));
+        List<UserRow> users = PageCursor.trim(rows, size);
+        List<RouteRow> routes = users.isEmpty() ? List.of()
+                : routeRepository.findRowsByAuthorIds(users.stream().map(UserRow::getId).toList());
+        List<RoutePlaceRow> places = routes.isEmpty() ? List.of()
+                : routeRepository.findPlaceRowsByRouteIds(
+                        routes.stream().map(RouteRow::getId).toList());
+        return new PageResponseDto<>(userMapper.toResponseDtos(users, routes, places),
+                PageCursor.nextCursor(LISTING, rows, size, UserRow::getId));
+    }
 
-        if (cachedUser != null) {
-            return userMapper.toResponseDto(cachedUser);
+    public UserResponseDto getUserById(Long id) {
+        UserResponseDto user = userCache.get(id, this::loadUser);
+        if (user == null) {
+            throw NotFoundException.withoutStackTrace(ErrorMessages.USER_NOT_FOUND);
         }
+        return user;
+    }
 
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException(ErrorMessages.USER_NOT_FOUND));
-
-        userCache.put(id, user);
-        return userMapper.toResponseDto(user);
+    private UserResponseDto loadUser(Long id) {
+        return userRepository.findById(id)
+                .map(userMapper::toResponseDto)
+                .orElse(null);
     }
 
+    /**
+     * The new user is evicted rather than cached, which also drops a not-found entry
+     * for its id; the cached copy is then always read from a committed row.
+     */
     @Transactional
     public UserResponseDto createUser(UserRequestDto dto) {
         User user = userMapper.toEntity(dto);
         User savedUser = userRepository.save(user);
-        userCache.put(savedUser.getId(), savedUser);
-        return userMapper.toResponseDto(savedUser);
+        UserResponseDto response = userMapper.toResponseDto(savedUser);
+        userCache.remove(savedUser.getId());
+        return response;
     }
 
     @Transactional
@@ -64,14 +109,18 @@ public class UserService {
         user.setEmail(dto.getEmail());
 
         User savedUser = userRepository.save(user);
-        userCache.put(savedUser.getId(), savedUser);
+        UserResponseDto response = userMapper.toResponseDto(savedUser);
+        userCache.remove(savedUser.getId());
 
-        return userMapper.toResponseDto(savedUser);
+        return response;
     }
 
     @Transactional
     public void deleteUser(Long id) {
+        userRepository.findById(id).ifPresent(user ->
+                user.getRoutes().forEach(route -> routeCache.remove(route.getId())));
         userRepository.deleteById(id);
         userCache.remove(id);
+        visitedPlacesIndex.removeUser(id);
     }
 }
@@ -3,6 +3,8 @@ package com.example.travelapp.service.mapper;
 import com.example.travelapp.model.Place;
 import com.example.travelapp.model.dto.request.PlaceRequestDto;
 import com.example.travelapp.model.dto.response.PlaceResponseDto;
+import com.example.travelapp.repository.projection.PlaceRow;
+import com.example.travelapp.repository.projection.RoutePlaceRow;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -17,11 +19,26 @@ public class PlaceMapper {
     }
 
     public PlaceResponseDto toResponseDto(Place place) {
-        PlaceResponseDto dto = new PlaceResponseDto();
-        dto.setId(place.getId());
-        dto.setName(place.getName());
-        dto.setAddress(place.getAddress());
-        dto.setDescription(place.getDescription());
-        return dto;
+        return new PlaceResponseDto(
+                place.getId(),
+                place.getName(),
+                place.getAddress(),
+                place.getDescription());
+    }
+
+    public PlaceResponseDto toResponseDto(PlaceRow row) {
+        return new PlaceResponseDto(
+                row.getId(),
+                row.getName(),
+                row.getAddress(),
+                row.getDescription());
+    }
+
+    public PlaceResponseDto toResponseDto(RoutePlaceRow row) {
+        return new PlaceResponseDto(
+                row.getId(),
+                row.getName(),
+                row.getAddress(),
+                row.getDescription());
     }
 }
@@ -5,9 +5,14 @@ import com.example.travelapp.model.Place;
 import com.example.travelapp.model.Route;
 import com.example.travelapp.model.User;
 import com.example.travelapp.model.dto.request.RouteRequestDto;
+import com.example.travelapp.model.dto.response.PlaceResponseDto;
 import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.example.travelapp.repository.projection.RoutePlaceRow;
+import com.example.travelapp.repository.projection.RouteRow;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.springframework.stereotype.Component;
 
 
@@ -29,7 +34,7 @@ public class RouteMapper {
                 route.getAuthor() != null ? route.getAuthor().getId() : null,
                 route.getPlaces().stream()
                         .map(placeMapper::toResponseDto)
-                        .collect(Collectors.toList())
+                        .toList()
         );
     }
 
@@ -41,5 +46,25 @@ public class RouteMapper {
         route.setPlaces(places);
         return route;
     }
-}
 
+    /**
+     * Assembles route DTOs from flat rows, attaching each place row to its route.
+     * Routes keep the order of {@code routes}, places the order of {@code places}.
+     */
+    public List<RouteResponseDto> toResponseDtos(List<RouteRow> routes,
+                                                 List<RoutePlaceRow> places) {
+        Map<Long, List<PlaceResponseDto>> placesByRoute = new HashMap<>();
+        for (RoutePlaceRow place : places) {
+            placesByRoute.computeIfAbsent(place.getRouteId(), id -> new ArrayList<>())
+                    .add(placeMapper.toResponseDto(place));
+        }
+        return routes.stream()
+                .map(route -> new RouteResponseDto(
+                        route.getId(),
+                        route.getName(),
+                        route.getDescription(),
+                        route.getAuthorId(),
+                        placesByRoute.getOrDefault(route.getId(), List.of())))
+                .toList();
+    }
+}
@@ -2,8 +2,15 @@ package com.example.travelapp.service.mapper;
 
 import com.example.travelapp.model.User;
 import com.example.travelapp.model.dto.request.UserRequestDto;
+import com.example.travelapp.model.dto.response.RouteResponseDto;
 import com.example.travelapp.model.dto.response.UserResponseDto;
-import java.util.stream.Collectors;
+import com.example.travelapp.repository.projection.RoutePlaceRow;
+import com.example.travelapp.repository.projection.RouteRow;
+import com.example.travelapp.repository.projection.UserRow;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.stereotype.Component;
 
 
@@ -24,13 +31,31 @@ public class UserMapper {
     }
 
     public UserResponseDto toResponseDto(User user) {
-        UserResponseDto dto = new UserResponseDto();
-        dto.setId(user.getId());
-        dto.setName(user.getName());
-        dto.setEmail(user.getEmail());
-        dto.setRoutes(user.getRoutes().stream()
-                .map(routeMapper::toResponseDto)
-                .collect(Collectors.toList()));
-        return dto;
+        return new UserResponseDto(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                user.getRoutes().stream()
+                        .map(routeMapper::toResponseDto)
+                        .toList());
+    }
+
+    /** Assembles user DTOs from flat rows, attaching each route to its author. */
+    public List<UserResponseDto> toResponseDtos(List<UserRow> users, List<RouteRow> routes,
+                                                List<RoutePlaceRow> places) {
+        Map<Long, List<RouteResponseDto>> routesByAuthor = new HashMap<>();
+        for (RouteResponseDto route : routeMapper.toResponseDtos(routes, places)) {
+            if (route.getAuthorId() != null) {
+                routesByAuthor.computeIfAbsent(route.getAuthorId(), id -> new ArrayList<>())
+                        .add(route);
+            }
+        }
+        return users.stream()
+                .map(user -> new UserResponseDto(
+                        user.getId(),
+                        user.getName(),
+                        user.getEmail(),
+                        routesByAuthor.getOrDefault(user.getId(), List.of())))
+                .toList();
     }
 }
@@ -0,0 +1,197 @@
+package com.example.travelapp.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheInvalidationBusTest {
+
+    private static final Duration MANUAL_FLUSH = Duration.ofHours(1);
+
+    private static LfuCache<String> cacheOn(CacheInvalidationBus bus) {
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.maximumSize(100).name("users")) {
+        };
+        cache.attach(bus);
+        return cache;
+    }
+
+    private static final class RecordingTransport implements InvalidationTransport {
+        private final List<List<Invalidation>> batches =
+                Collections.synchronizedList(new ArrayList<>());
+        private boolean failing;
+
+        @Override
+        public void publish(List<Invalidation> batch) {
+            if (failing) {
+                throw new IllegalStateException("transport down");
+            }
+            batches.add(batch);
+        }
+
+        @Override
+        public void subscribe(Consumer<List<Invalidation>> receiver) {
+        }
+    }
+
+    @Test
+    void put_ShouldInvalidateOtherNodeAfterFlush() {
+        // Arrange
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        CacheInvalidationBus busA = new CacheInvalidationBus(transport, MANUAL_FLUSH, 100);
+        CacheInvalidationBus busB = new CacheInvalidationBus(transport, MANUAL_FLUSH, 100);
+        LfuCache<String> nodeA = cacheOn(busA);
+        LfuCache<String> nodeB = cacheOn(busB);
+        nodeA.get(1L, id -> "old");
+        nodeB.get(1L, id -> "old");
+
+        // Act
+        nodeA.put(1L, "new");
+        boolean staleBeforeFlush = "old".equals(nodeB.get(1L));
+        busA.flush();
+
+        // Assert
+        assertTrue(staleBeforeFlush);
+        assertNull(nodeB.get(1L));
+        assertEquals("new", nodeA.get(1L));
+    }
+
+    @Test
+    void clear_ShouldClearOtherNodeButNotRepublish() {
+        // Arrange
+        RecordingTransport transport = new RecordingTransport();
+        CacheInvalidationBus bus = new CacheInvalidationBus(transport, MANUAL_FLUSH, 100);
+        LfuCache<String> cache = cacheOn(bus);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        bus.flush();
+        transport.batches.clear();
+
+        // Act
+        bus.receive(List.of(new Invalidation("other-node", "users", null)));
+        bus.flush();
+
+        // Assert
+        assertEquals(0, cache.size());
+        assertTrue(transport.batches.isEmpty());
+    }
+
+    @Test
+    void publish_ShouldCoalesceRepeatedKeysIntoOneBatch() {
+        // Arrange
+        RecordingTransport transport = new RecordingTransport();
+        CacheInvalidationBus bus = new CacheInvalidationBus(transport, MANUAL_FLUSH, 100);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            bus.publish("users", 1L);
+            bus.publish("users", 2L);
+        }
+        bus.publish("routes", 7L);
+        bus.flush();
+
+        // Assert
+        assertEquals(1, transport.batches.size());
+        assertEquals(3, transport.batches.get(0).size());
+    }
+
+    @Test
+    void publish_PendingClearShouldSwallowKeysOfSameCache() {
+        // Arrange
+        RecordingTransport transport = new RecordingTransport();
+        CacheInvalidationBus bus = new CacheInvalidationBus(transport, MANUAL_FLUSH, 100);
+
+        // Act
+        bus.publish("users", 1L);
+        bus.publish("users", null);
+        bus.publish("users", 2L);
+        bus.publish("routes", 3L);
+        bus.flush();
+
+        // Assert
+        List<Invalidation> batch = transport.batches.get(0);
+        assertEquals(2, batch.size());
+        assertEquals("users", batch.get(0).getCacheName());
+        assertNull(batch.get(0).getKey());
+        assertEquals(3L, batch.get(1).getKey().longValue());
+    }
+
+    @Test
+    void receive_ShouldIgnoreOwnMessages() {
+        // Arrange
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        CacheInvalidationBus bus = new CacheInvalidationBus(transport, MANUAL_FLUSH, 100);
+        LfuCache<String> cache = cacheOn(bus);
+
+        // Act
+        cache.put(1L, "one");
+        bus.flush();
+
+        // Assert
+        assertEquals("one", cache.get(1L));
+    }
+
+    @Test
+    void receive_WhenSubscriberFails_ShouldStillApplyRestOfBatch() {
+        // Arrange
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        CacheInvalidationBus bus = new CacheInvalidationBus(transport, MANUAL_FLUSH, 100);
+        LfuCache<String> cache = cacheOn(bus);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        bus.subscribe("routes", key -> {
+            throw new IllegalStateException("reload failed");
+        });
+
+        // Act
+        bus.receive(List.of(new Invalidation("other-node", "users", 1L),
+                new Invalidation("other-node", "routes", 5L),
+                new Invalidation("other-node", "users", 2L)));
+
+        // Assert
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void flush_WhenTransportFails_ShouldRetryWithNextBatch() {
+        // Arrange
+        RecordingTransport transport = new RecordingTransport();
+        CacheInvalidationBus bus = new CacheInvalidationBus(transport, MANUAL_FLUSH, 100);
+        bus.publish("users", 1L);
+        transport.failing = true;
+        bus.flush();
+        transport.failing = false;
+
+        // Act
+        bus.publish("users", 2L);
+        bus.flush();
+
+        // Assert
+        assertEquals(1, transport.batches.size());
+        assertEquals(2, transport.batches.get(0).size());
+    }
+
+    @Test
+    void publish_WhenBatchFull_ShouldFlushWithoutWaitingForInterval() throws InterruptedException {
+        // Arrange
+        RecordingTransport transport = new RecordingTransport();
+        CacheInvalidationBus bus = new CacheInvalidationBus(transport, MANUAL_FLUSH, 10);
+
+        // Act
+        for (long id = 0; id < 10; id++) {
+            bus.publish("users", id);
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (transport.batches.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Assert
+        assertEquals(1, transport.batches.size());
+        assertEquals(10, transport.batches.get(0).size());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.travelapp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheSnapshotTest {
+
+    private static LfuCache<String> cacheOf(int capacity) {
+        return new LfuCache<>(capacity) {
+        };
+    }
+
+    @Test
+    void writeAndRead_ShouldRoundTripHottestFirst() throws IOException {
+        // Arrange
+        Path file = Files.createTempDirectory("snapshot").resolve("users.snapshot");
+        LfuCache<String> cache = cacheOf(10);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.put(3L, "three");
+        cache.get(2L);
+        cache.get(2L);
+        cache.get(3L);
+
+        // Act
+        CacheSnapshot.write(file, cache.hottest(10));
+        Map<Long, Integer> restored = CacheSnapshot.read(file);
+
+        // Assert
+        assertEquals(List.of(2L, 3L, 1L), List.copyOf(restored.keySet()));
+        assertEquals(3, restored.get(2L).intValue());
+        assertEquals(3 * 12 + 12, Files.size(file));
+    }
+
+    @Test
+    void read_WhenFileMissing_ShouldReturnEmpty() throws IOException {
+        // Arrange
+        Path file = Files.createTempDirectory("snapshot").resolve("missing.snapshot");
+
+        // Act
+        Map<Long, Integer> restored = CacheSnapshot.read(file);
+
+        // Assert
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    void hottest_ShouldRespectLimit() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(10);
+        for (long id = 0; id < 10; id++) {
+            cache.put(id, "v" + id);
+            for (int i = 0; i < id; i++) {
+                cache.get(id);
+            }
+        }
+
+        // Act
+        Map<Long, Integer> hottest = cache.hottest(3);
+
+        // Assert
+        assertEquals(List.of(9L, 8L, 7L), List.copyOf(hottest.keySet()));
+    }
+
+    @Test
+    void restore_ShouldKeepFrequenciesAndNeverEvict() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(2);
+
+        // Act
+        boolean hot = cache.restore(1L, "hot", 50);
+        boolean warm = cache.restore(2L, "warm", 5);
+        boolean overflow = cache.restore(3L, "cold", 1);
+        cache.put(4L, "new");
+
+        // Assert
+        assertTrue(hot);
+        assertTrue(warm);
+        assertFalse(overflow);
+        assertEquals("hot", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals(51, cache.hottest(1).get(1L).intValue());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.travelapp.cache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeavyHittersTest {
+
+    @Test
+    void top_WithSkewedStream_ShouldReportTrueHottestIdsFirst() {
+        // Arrange
+        HeavyHitters tracker = new HeavyHitters(64, 4);
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            double u = random.nextDouble();
+            tracker.record((long) (u * u * u * 10_000));
+        }
+
+        // Act
+        List<HotKey> top = tracker.top(3);
+
+        // Assert
+        assertEquals(3, top.size());
+        assertEquals(0L, top.get(0).getId());
+        assertTrue(top.get(0).getCount() >= top.get(1).getCount());
+        assertTrue(top.get(1).getCount() >= top.get(2).getCount());
+    }
+
+    @Test
+    void top_ShouldBoundTrueCountBetweenCountMinusErrorAndCount() {
+        // Arrange
+        HeavyHitters tracker = new HeavyHitters(32, 2);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(10) == 0 ? random.nextInt(5) : random.nextInt(1_000);
+            tracker.record(id);
+            exact.merge(id, 1L, Long::sum);
+        }
+
+        // Act
+        List<HotKey> top = tracker.top(10);
+
+        // Assert
+        for (HotKey hotKey : top) {
+            long trueCount = exact.get(hotKey.getId());
+            assertTrue(trueCount <= hotKey.getCount());
+            assertTrue(trueCount >= hotKey.getCount() - hotKey.getError());
+        }
+    }
+
+    @Test
+    void topKeys_ShouldCountMissesAsWellAsHits() {
+        // Arrange
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.<String>maximumSize(10)
+                .trackHeavyHitters(16)) {
+        };
+        Function<Long, String> nothing = id -> null;
+        for (int i = 0; i < 5; i++) {
+            cache.get(404L, nothing);
+        }
+        cache.get(1L, id -> "one");
+
+        // Act
+        List<HotKey> top = cache.topKeys(2);
+
+        // Assert
+        assertEquals(404L, top.get(0).getId());
+        assertEquals(5L, top.get(0).getCount());
+        assertEquals(1L, top.get(1).getId());
+    }
+
+    @Test
+    void topKeys_WithoutTracking_ShouldBeEmpty() {
+        // Arrange
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.maximumSize(10)) {
+        };
+        cache.get(1L, id -> "one");
+
+        // Act
+        List<HotKey> top = cache.topKeys(5);
+
+        // Assert
+        assertTrue(top.isEmpty());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.travelapp.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JdbcInvalidationTransportTest {
+
+    private static final Duration MANUAL = Duration.ofHours(1);
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+    }
+
+    private JdbcInvalidationTransport transport() {
+        return new JdbcInvalidationTransport(jdbcTemplate, MANUAL, Duration.ofMinutes(10));
+    }
+
+    private static LfuCache<String> cacheOn(CacheInvalidationBus bus) {
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.maximumSize(100).name("users")) {
+        };
+        cache.attach(bus);
+        return cache;
+    }
+
+    @Test
+    void update_ShouldReachOtherNodeThroughTable() {
+        // Arrange
+        JdbcInvalidationTransport transportA = transport();
+        JdbcInvalidationTransport transportB = transport();
+        CacheInvalidationBus busA = new CacheInvalidationBus(transportA, MANUAL, 100);
+        CacheInvalidationBus busB = new CacheInvalidationBus(transportB, MANUAL, 100);
+        LfuCache<String> nodeA = cacheOn(busA);
+        LfuCache<String> nodeB = cacheOn(busB);
+        nodeA.get(1L, id -> "old");
+        nodeB.get(1L, id -> "old");
+        nodeB.get(2L, id -> "two");
+
+        // Act
+        nodeA.put(1L, "new");
+        busA.flush();
+        int deliveredToA = transportA.poll();
+        int deliveredToB = transportB.poll();
+
+        // Assert
+        assertEquals(1, deliveredToA);
+        assertEquals(1, deliveredToB);
+        assertEquals("new", nodeA.get(1L));
+        assertNull(nodeB.get(1L));
+        assertEquals("two", nodeB.get(2L));
+        transportA.close();
+        transportB.close();
+    }
+
+    @Test
+    void poll_ShouldNotReplayRowsWrittenBeforeStartup() {
+        // Arrange
+        JdbcInvalidationTransport early = transport();
+        early.publish(List.of(new Invalidation("n1", "users", 1L)));
+
+        // Act
+        JdbcInvalidationTransport late = transport();
+        int delivered = late.poll();
+
+        // Assert
+        assertEquals(0, delivered);
+        early.close();
+        late.close();
+    }
+
+    @Test
+    void poll_ShouldDeliverRowThatCommitsAfterHigherId() {
+        // Arrange
+        JdbcInvalidationTransport transport = transport();
+        List<Invalidation> received = new ArrayList<>();
+        transport.subscribe(received::addAll);
+        String insert = "INSERT INTO " + JdbcInvalidationTransport.TABLE
+                + " (id, origin, cache_name, cache_key) VALUES (?, 'n1', 'users', ?)";
+        jdbcTemplate.update(insert, 2L, 20L);
+        transport.poll();
+
+        // Act
+        jdbcTemplate.update(insert, 1L, 10L);
+        int delivered = transport.poll();
+
+        // Assert
+        assertEquals(1, delivered);
+        assertEquals(2, received.size());
+        assertEquals(10L, received.get(1).getKey().longValue());
+        transport.close();
+    }
+
+    @Test
+    void publish_ShouldStoreWholeCacheClearAsNullKey() {
+        // Arrange
+        JdbcInvalidationTransport transport = transport();
+        List<Invalidation> received = new ArrayList<>();
+        transport.subscribe(received::addAll);
+
+        // Act
+        transport.publish(List.of(new Invalidation("n1", "routes", null)));
+        transport.poll();
+
+        // Assert
+        assertEquals(1, received.size());
+        assertEquals("routes", received.get(0).getCacheName());
+        assertNull(received.get(0).getKey());
+        transport.close();
+    }
+
+    @Test
+    void purge_ShouldKeepRecentRows() {
+        // Arrange
+        JdbcInvalidationTransport transport = transport();
+        transport.publish(List.of(new Invalidation("n1", "users", 1L)));
+
+        // Act
+        int purged = transport.purge();
+
+        // Assert
+        assertEquals(0, purged);
+        transport.close();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.travelapp.cache;
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LfuCacheAdmissionTest {
+
+    private static final int CAPACITY = 500;
+    private static final int ACCESSES = 200_000;
+    private static final long SCAN_START = 1_000_000;
+
+    private static LfuCache<Long> plainCache() {
+        return new LfuCache<>(CAPACITY) {
+        };
+    }
+
+    private static LfuCache<Long> tinyLfuCache() {
+        return new LfuCache<>(LfuCacheSpec.maximumSize(CAPACITY).tinyLfuAdmission()) {
+        };
+    }
+
+    private static LfuCache<Long> tinyLfuCache(int capacity) {
+        return new LfuCache<>(LfuCacheSpec.maximumSize(capacity).tinyLfuAdmission()) {
+        };
+    }
+
+    /** Hit ratio over the lookups of ids below {@link #SCAN_START} only. */
+    private static double hotHitRatio(LfuCache<Long> cache, LongSupplier trace, int accesses) {
+        int hits = 0;
+        int lookups = 0;
+        for (int i = 0; i < accesses; i++) {
+            long id = trace.getAsLong();
+            boolean hot = id < SCAN_START;
+            if (cache.get(id) != null) {
+                hits += hot ? 1 : 0;
+            } else {
+                cache.put(id, id);
+            }
+            lookups += hot ? 1 : 0;
+        }
+        return (double) hits / lookups;
+    }
+
+    private static double hitRatio(LfuCache<Long> cache, LongSupplier trace, int accesses) {
+        int hits = 0;
+        for (int i = 0; i < accesses; i++) {
+            long id = trace.getAsLong();
+            if (cache.get(id) != null) {
+                hits++;
+            } else {
+                cache.put(id, id);
+            }
+        }
+        return (double) hits / accesses;
+    }
+
+    private static LongSupplier zipf(int keys, double exponent, long seed) {
+        double[] cumulative = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        double total = sum;
+        Random random = new Random(seed);
+        return () -> {
+            double target = random.nextDouble() * total;
+            int low = 0;
+            int high = keys - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        };
+    }
+
+    /**
+     * Zipf traffic where every 1,000 lookups are followed by a scan of 1,000 one-off
+     * ids, each read twice in a row, like a listing followed by its detail pages.
+     * The second read lifts every scanned id above the hot set's long tail, so plain
+     * LFU keeps them and evicts hot entries; a scan read only once would be evicted
+     * by the next scanned id and does not pollute plain LFU at all.
+     */
+    private static LongSupplier scanHeavy(long seed) {
+        LongSupplier hot = zipf(5_000, 0.9, seed);
+        long[] state = {0, SCAN_START};
+        return () -> {
+            long position = state[0]++ % 3_000;
+            if (position < 1_000) {
+                return hot.getAsLong();
+            }
+            return position % 2 == 0 ? state[1] : state[1]++;
+        };
+    }
+
+    /** Same popularity curve over a disjoint set of ids. */
+    private static LongSupplier shifted(LongSupplier trace) {
+        return () -> 10_000 + trace.getAsLong();
+    }
+
+    @Test
+    void zipfTrace_TinyLfuShouldMatchOrBeatPlainLfu() {
+        // Act
+        double plain = hitRatio(plainCache(), zipf(10_000, 0.9, 42), ACCESSES);
+        double tinyLfu = hitRatio(tinyLfuCache(), zipf(10_000, 0.9, 42), ACCESSES);
+
+        // Assert
+        assertTrue(tinyLfu >= plain - 0.005, "TinyLFU hit ratio " + tinyLfu + " vs " + plain);
+    }
+
+    @Test
+    void scanHeavyTrace_TinyLfuShouldKeepHotSetThatPlainLfuLoses() {
+        // Act
+        double plain = hotHitRatio(plainCache(), scanHeavy(7), ACCESSES);
+        double tinyLfu = hotHitRatio(tinyLfuCache(), scanHeavy(7), ACCESSES);
+
+        // Assert
+        assertTrue(tinyLfu >= plain + 0.10, "TinyLFU hot hit ratio " + tinyLfu + " vs " + plain);
+    }
+
+    @Test
+    void shiftingHotSet_TinyLfuShouldForgetFormerlyHotEntries() {
+        // Arrange
+        LfuCache<Long> plain = plainCache();
+        LfuCache<Long> tinyLfu = tinyLfuCache();
+        hitRatio(plain, zipf(2_000, 1.0, 1), ACCESSES);
+        hitRatio(tinyLfu, zipf(2_000, 1.0, 1), ACCESSES);
+
+        // Act
+        double plainRatio = hitRatio(plain, shifted(zipf(2_000, 1.0, 2)), ACCESSES);
+        double tinyRatio = hitRatio(tinyLfu, shifted(zipf(2_000, 1.0, 2)), ACCESSES);
+
+        // Assert
+        assertTrue(tinyRatio > plainRatio, "TinyLFU hit ratio " + tinyRatio + " vs " + plainRatio);
+    }
+
+    @Test
+    void aging_ShouldHalveEntryFrequencies() {
+        // Arrange
+        LfuCache<Long> cache = tinyLfuCache(100);
+        cache.put(1L, 1L);
+        for (int i = 0; i < 19; i++) {
+            cache.get(1L);
+        }
+        int beforeAging = cache.hottest(1).get(1L);
+
+        // Act
+        for (long id = 2; id < 1_002; id++) {
+            cache.get(id);
+        }
+
+        // Assert
+        assertEquals(20, beforeAging);
+        assertEquals(10, cache.hottest(1).get(1L).intValue());
+    }
+
+    @Test
+    void aging_ShouldLetRecentlyPopularCandidateDisplaceFormerlyHotEntry() {
+        // Arrange
+        LfuCache<Long> cache = tinyLfuCache(1);
+        cache.put(1L, 1L);
+        for (int i = 0; i < 12; i++) {
+            cache.get(1L);
+        }
+        for (int i = 0; i < 6; i++) {
+            cache.get(2L);
+        }
+
+        // Act
+        cache.put(2L, 2L);
+
+        // Assert
+        assertEquals(2L, cache.get(2L));
+        assertNull(cache.get(1L));
+    }
+}
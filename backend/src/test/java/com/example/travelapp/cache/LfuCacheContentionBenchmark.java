@@ -0,0 +1,70 @@
+package com.example.travelapp.cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput comparison of the single-lock and the lock-striped {@link LfuCache}
+ * under contention. Not a unit test; run it manually with
+ * {@code java -cp <test-classpath> com.example.travelapp.cache.LfuCacheContentionBenchmark}.
+ */
+public final class LfuCacheContentionBenchmark {
+
+    private static final int CAPACITY = 100_000;
+    private static final int KEY_SPACE = 150_000;
+    private static final long DURATION_MILLIS = 3_000;
+    private static final int[] THREAD_COUNTS = {8, 32, 64};
+
+    private LfuCacheContentionBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("cpus=%d capacity=%d keys=%d%n",
+                Runtime.getRuntime().availableProcessors(), CAPACITY, KEY_SPACE);
+        for (int threads : THREAD_COUNTS) {
+            double single = run(new LfuCache<Long>(CAPACITY) {
+            }, threads);
+            double striped = run(new LfuCache<Long>(CAPACITY, 64) {
+            }, threads);
+            System.out.printf("threads=%d single-lock=%.0f ops/s striped=%.0f ops/s (x%.2f)%n",
+                    threads, single, striped, striped / single);
+        }
+    }
+
+    private static double run(LfuCache<Long> cache, int threads) throws InterruptedException {
+        for (long id = 0; id < CAPACITY; id++) {
+            cache.put(id, id);
+        }
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.currentTimeMillis() + DURATION_MILLIS;
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    while (System.currentTimeMillis() < deadline) {
+                        for (int i = 0; i < 1_000; i++) {
+                            long id = random.nextLong(KEY_SPACE);
+                            if (cache.get(id) == null) {
+                                cache.put(id, id);
+                            }
+                        }
+                        operations.add(1_000);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        done.await();
+        return operations.sum() / ((System.nanoTime() - started) / 1e9);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.travelapp.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Latency and heap footprint of a heap-only {@link LfuCache}, the same cache with a
+ * memory-mapped second tier, and a heap-only cache large enough for every key, for a
+ * key space four times the heap capacity.
+ * Misses go to a loader that spins for {@link #LOAD_MICROS} to stand in for a
+ * database round trip. Not a unit test; run it manually with
+ * {@code java -cp <test-classpath> com.example.travelapp.cache.LfuCacheDiskTierBenchmark}.
+ */
+public final class LfuCacheDiskTierBenchmark {
+
+    private static final int HEAP_CAPACITY = 20_000;
+    private static final int KEY_SPACE = 80_000;
+    private static final int VALUE_BYTES = 512;
+    private static final int OPERATIONS = 200_000;
+    private static final long LOAD_MICROS = 200;
+    private static final int DISK_BYTES = 256 << 20;
+
+    private LfuCacheDiskTierBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LfuCache<String> heapOnly = new LfuCache<>(LfuCacheSpec.maximumSize(HEAP_CAPACITY)) {
+        };
+        report("L1 only", heapOnly);
+        heapOnly.clear();
+        LfuCache<String> tiered = new LfuCache<>(LfuCacheSpec.maximumSize(HEAP_CAPACITY)
+                .name("benchmark")
+                .diskTier(Files.createTempDirectory("l2-benchmark"), DISK_BYTES,
+                        LfuCacheDiskTierTest.UTF8, Runnable::run)) {
+        };
+        report("L1 + L2", tiered);
+        tiered.close();
+        tiered.clear();
+        LfuCache<String> allOnHeap = new LfuCache<>(LfuCacheSpec.maximumSize(KEY_SPACE)) {
+        };
+        report("L1 sized for all keys", allOnHeap);
+    }
+
+    private static void report(String label, LfuCache<String> cache) {
+        Function<Long, String> loader = id -> {
+            long until = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(LOAD_MICROS);
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+            return valueFor(id);
+        };
+        Random random = new Random(42);
+        for (long id = 0; id < KEY_SPACE; id++) {
+            cache.get(id, loader);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            cache.get(skewedKey(random), loader);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%s: mean %.2f us/get, heap %d MB, disk entries %d%n", label,
+                elapsed / 1_000.0 / OPERATIONS, usedHeapMegabytes(), cache.diskTierSize());
+    }
+
+    /** Roughly Zipfian: squaring a uniform draw favours low ids. */
+    private static long skewedKey(Random random) {
+        double u = random.nextDouble();
+        return (long) (u * u * KEY_SPACE);
+    }
+
+    private static String valueFor(long id) {
+        return ("entity-" + id + "-").repeat(VALUE_BYTES / 10);
+    }
+
+    private static long usedHeapMegabytes() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+    }
+}
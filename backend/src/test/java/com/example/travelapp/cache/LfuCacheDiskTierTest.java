@@ -0,0 +1,256 @@
+package com.example.travelapp.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LfuCacheDiskTierTest {
+
+    static final EntryCodec<String> UTF8 = new EntryCodec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private static LfuCache<String> tieredCacheOf(int capacity, int diskBytes) throws IOException {
+        Path directory = Files.createTempDirectory("l2");
+        return new LfuCache<>(LfuCacheSpec.maximumSize(capacity).name("tiered")
+                .diskTier(directory, diskBytes, UTF8, Runnable::run)) {
+        };
+    }
+
+    private static Function<Long, String> countingLoader(AtomicInteger loads) {
+        return id -> {
+            loads.incrementAndGet();
+            return "db" + id;
+        };
+    }
+
+    @Test
+    void evictedEntry_ShouldBePromotedFromDiskInsteadOfReloaded() throws IOException {
+        // Arrange
+        LfuCache<String> cache = tieredCacheOf(2, 1 << 16);
+        AtomicInteger loads = new AtomicInteger();
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.get(2L);
+        cache.put(3L, "three");
+        assertEquals(1, cache.diskTierSize());
+
+        // Act
+        String promoted = cache.get(1L, countingLoader(loads));
+
+        // Assert
+        assertEquals("one", promoted);
+        assertEquals(0, loads.get());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.diskTierSize());
+        cache.close();
+    }
+
+    @Test
+    void remove_ShouldAlsoDropDiskCopy() throws IOException {
+        // Arrange
+        LfuCache<String> cache = tieredCacheOf(1, 1 << 16);
+        AtomicInteger loads = new AtomicInteger();
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        // Act
+        cache.remove(1L);
+        String value = cache.get(1L, countingLoader(loads));
+
+        // Assert
+        assertEquals("db1", value);
+        assertEquals(1, loads.get());
+        cache.close();
+    }
+
+    @Test
+    void put_ShouldReplaceStaleDiskCopy() throws IOException {
+        // Arrange
+        LfuCache<String> cache = tieredCacheOf(1, 1 << 16);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        // Act
+        cache.put(1L, "uno");
+        cache.put(3L, "three");
+
+        // Assert
+        assertEquals("uno", cache.get(1L, id -> "db" + id));
+        cache.close();
+    }
+
+    @Test
+    void compaction_ShouldKeepLiveEntriesReadable() throws IOException {
+        // Arrange
+        LfuCache<String> cache = tieredCacheOf(1, 4_096);
+        AtomicInteger loads = new AtomicInteger();
+        for (int round = 0; round < 20; round++) {
+            for (long id = 1; id <= 10; id++) {
+                cache.put(id, "v" + round + "-" + id);
+            }
+        }
+
+        // Act
+        String[] values = new String[10];
+        for (long id = 1; id <= 9; id++) {
+            values[(int) id] = cache.get(id, countingLoader(loads));
+        }
+
+        // Assert
+        for (long id = 1; id <= 9; id++) {
+            assertEquals("v19-" + id, values[(int) id]);
+        }
+        assertEquals(0, loads.get());
+        cache.close();
+    }
+
+    @Test
+    void promote_WhenDiskCopyExpired_ShouldReload() throws IOException {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.maximumSize(1)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .ticker(nanos::get)
+                .diskTier(Files.createTempDirectory("l2"), 1 << 16, UTF8, Runnable::run)) {
+        };
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        // Act
+        String value = cache.get(1L, id -> "fresh");
+
+        // Assert
+        assertEquals("fresh", value);
+        cache.close();
+    }
+
+    @Test
+    void demote_WhenFileFullOfUnreadRecords_ShouldDropOldestAndKeepAccepting() throws IOException {
+        // Arrange
+        LfuCache<String> cache = tieredCacheOf(1, 4_096);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        for (long id = 1; id <= 1_000; id++) {
+            cache.put(id, "v" + id);
+        }
+        String recent = cache.get(999L, countingLoader(loads));
+        String oldest = cache.get(1L, countingLoader(loads));
+
+        // Assert
+        assertEquals("v999", recent);
+        assertEquals("db1", oldest);
+        assertEquals(1, loads.get());
+        cache.close();
+    }
+
+    @Test
+    void compaction_ShouldDropExpiredRecords() throws IOException {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.maximumSize(1)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .ticker(nanos::get)
+                .diskTier(Files.createTempDirectory("l2"), 4_096, UTF8, Runnable::run)) {
+        };
+        for (long id = 1; id <= 100; id++) {
+            cache.put(id, "v" + id);
+        }
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        // Act
+        for (long id = 101; id <= 200; id++) {
+            cache.put(id, "v" + id);
+        }
+
+        // Assert
+        assertEquals(99, cache.diskTierSize());
+        cache.close();
+    }
+
+    @Test
+    void demote_WhenCompactionRejected_ShouldKeepCacheWorkingAndRetryLater() throws IOException {
+        // Arrange
+        AtomicBoolean saturated = new AtomicBoolean(true);
+        Executor executor = task -> {
+            if (saturated.get()) {
+                throw new RejectedExecutionException("queue full");
+            }
+            task.run();
+        };
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.maximumSize(1).name("tiered")
+                .diskTier(Files.createTempDirectory("l2"), 4_096, UTF8, executor)) {
+        };
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        for (long id = 1; id <= 500; id++) {
+            cache.put(id, "v" + id);
+        }
+        String whileSaturated = cache.get(1_000L, countingLoader(loads));
+        saturated.set(false);
+        for (long id = 501; id <= 510; id++) {
+            cache.put(id, "v" + id);
+        }
+        String afterRetry = cache.get(509L, countingLoader(loads));
+
+        // Assert
+        assertEquals("db1000", whileSaturated);
+        assertEquals("v509", afterRetry);
+        assertEquals(1, loads.get());
+        cache.close();
+    }
+
+    @Test
+    void compaction_WhenTargetCannotBeOpened_ShouldDeleteItAndKeepServing() throws IOException {
+        // Arrange
+        Path directory = Files.createTempDirectory("l2");
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.maximumSize(1).name("tiered")
+                .diskTier(directory, 4_096, UTF8, Runnable::run)) {
+        };
+        Path target = Files.createDirectory(directory.resolve("tiered.1.l2"));
+
+        // Act
+        for (long id = 1; id <= 500; id++) {
+            cache.put(id, "v" + id);
+        }
+
+        // Assert
+        assertEquals("v499", cache.get(499L, id -> "db" + id));
+        assertFalse(Files.exists(target));
+        cache.close();
+    }
+
+    @Test
+    void diskTier_WhenCapacityExceedsIntOffsets_ShouldReject() throws IOException {
+        // Arrange
+        Path directory = Files.createTempDirectory("l2");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> LfuCacheSpec.maximumSize(1)
+                .diskTier(directory, 1L << 31, UTF8, Runnable::run));
+        assertThrows(IllegalArgumentException.class,
+                () -> new UserCache(Runnable::run, directory.toString(), 2_048));
+    }
+}
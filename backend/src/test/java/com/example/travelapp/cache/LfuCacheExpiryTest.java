@@ -0,0 +1,165 @@
+package com.example.travelapp.cache;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LfuCacheExpiryTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Queue<Runnable> pendingRefreshes = new ArrayDeque<>();
+    private final Executor manualExecutor = pendingRefreshes::add;
+
+    private LfuCache<String> cacheWith(LfuCacheSpec spec) {
+        return new LfuCache<>(spec.ticker(nanos::get)) {
+        };
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private void runPendingRefreshes() {
+        while (!pendingRefreshes.isEmpty()) {
+            pendingRefreshes.poll().run();
+        }
+    }
+
+    @Test
+    void get_WhenExpiredAfterWrite_ShouldMissAndReload() {
+        // Arrange
+        LfuCache<String> cache = cacheWith(LfuCacheSpec.maximumSize(10)
+                .expireAfterWrite(Duration.ofMinutes(10)));
+        cache.put(1L, "old");
+        advance(Duration.ofMinutes(9));
+        assertEquals("old", cache.get(1L));
+
+        // Act
+        advance(Duration.ofMinutes(1));
+        String afterExpiry = cache.get(1L);
+        String reloaded = cache.get(1L, id -> "new");
+
+        // Assert
+        assertNull(afterExpiry);
+        assertEquals("new", reloaded);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void put_ShouldRestartExpiryClock() {
+        // Arrange
+        LfuCache<String> cache = cacheWith(LfuCacheSpec.maximumSize(10)
+                .expireAfterWrite(Duration.ofMinutes(10)));
+        cache.put(1L, "v1");
+        advance(Duration.ofMinutes(8));
+
+        // Act
+        cache.put(1L, "v2");
+        advance(Duration.ofMinutes(8));
+
+        // Assert
+        assertEquals("v2", cache.get(1L));
+    }
+
+    @Test
+    void get_WhenRefreshDue_ShouldServeOldValueUntilReloadFinishes() {
+        // Arrange
+        LfuCache<String> cache = cacheWith(LfuCacheSpec.maximumSize(10)
+                .refreshAfterWrite(Duration.ofMinutes(1), manualExecutor));
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, String> loader = id -> "v" + loads.incrementAndGet();
+        assertEquals("v1", cache.get(1L, loader));
+        advance(Duration.ofMinutes(2));
+
+        // Act
+        String duringRefresh = cache.get(1L, loader);
+        String stillDuringRefresh = cache.get(1L, loader);
+        runPendingRefreshes();
+        String afterRefresh = cache.get(1L, loader);
+
+        // Assert
+        assertEquals("v1", duringRefresh);
+        assertEquals("v1", stillDuringRefresh);
+        assertEquals("v2", afterRefresh);
+        assertEquals(2, loads.get());
+        assertTrue(pendingRefreshes.isEmpty());
+    }
+
+    @Test
+    void get_WhenRefreshNotDue_ShouldNotReload() {
+        // Arrange
+        LfuCache<String> cache = cacheWith(LfuCacheSpec.maximumSize(10)
+                .refreshAfterWrite(Duration.ofMinutes(1), manualExecutor));
+        cache.put(1L, "v1");
+        advance(Duration.ofSeconds(30));
+
+        // Act
+        String value = cache.get(1L, id -> "v2");
+
+        // Assert
+        assertEquals("v1", value);
+        assertTrue(pendingRefreshes.isEmpty());
+    }
+
+    @Test
+    void refresh_WhenOvertakenByPut_ShouldKeepPutValue() {
+        // Arrange
+        LfuCache<String> cache = cacheWith(LfuCacheSpec.maximumSize(10)
+                .refreshAfterWrite(Duration.ofMinutes(1), manualExecutor));
+        cache.put(1L, "v1");
+        advance(Duration.ofMinutes(2));
+        cache.get(1L, id -> "refreshed");
+
+        // Act
+        cache.put(1L, "written");
+        runPendingRefreshes();
+
+        // Assert
+        assertEquals("written", cache.get(1L));
+    }
+
+    @Test
+    void refresh_WhenLoaderFails_ShouldKeepOldValueAndRetryLater() {
+        // Arrange
+        LfuCache<String> cache = cacheWith(LfuCacheSpec.maximumSize(10)
+                .refreshAfterWrite(Duration.ofMinutes(1), manualExecutor));
+        cache.put(1L, "v1");
+        advance(Duration.ofMinutes(2));
+        cache.get(1L, id -> {
+            throw new IllegalStateException("database down");
+        });
+
+        // Act
+        runPendingRefreshes();
+        String afterFailure = cache.get(1L, id -> "v2");
+        runPendingRefreshes();
+
+        // Assert
+        assertEquals("v1", afterFailure);
+        assertEquals("v2", cache.get(1L));
+    }
+
+    @Test
+    void refresh_WhenEntityDeleted_ShouldDropEntry() {
+        // Arrange
+        LfuCache<String> cache = cacheWith(LfuCacheSpec.maximumSize(10)
+                .refreshAfterWrite(Duration.ofMinutes(1), manualExecutor));
+        cache.put(1L, "v1");
+        advance(Duration.ofMinutes(2));
+
+        // Act
+        cache.get(1L, id -> null);
+        runPendingRefreshes();
+
+        // Assert
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,491 @@
+package com.example.travelapp.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LfuCacheTest {
+
+    private static LfuCache<String> cacheOf(int capacity) {
+        return new LfuCache<>(capacity) {
+        };
+    }
+
+    private static LfuCache<String> stripedCacheOf(int capacity, int concurrencyLevel) {
+        return new LfuCache<>(capacity, concurrencyLevel) {
+        };
+    }
+
+    private static LfuCache<String> negativeCacheOf(AtomicLong nanos) {
+        return new LfuCache<>(LfuCacheSpec.maximumSize(10)
+                .negativeCaching(100, Duration.ofSeconds(30))
+                .ticker(nanos::get)) {
+        };
+    }
+
+    @Test
+    void put_WhenFull_ShouldEvictLeastFrequentlyUsed() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(3);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.put(3L, "three");
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(3L);
+
+        // Act
+        cache.put(4L, "four");
+
+        // Assert
+        assertNull(cache.get(2L));
+        assertEquals("one", cache.get(1L));
+        assertEquals("three", cache.get(3L));
+        assertEquals("four", cache.get(4L));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void put_WhenFrequenciesTie_ShouldEvictLeastRecentlyUsedOfThem() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(3);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.put(3L, "three");
+        cache.get(2L);
+        cache.get(1L);
+
+        // Act
+        cache.put(4L, "four");
+        cache.put(5L, "five");
+
+        // Assert
+        assertNull(cache.get(3L));
+        assertNull(cache.get(4L));
+        assertEquals("one", cache.get(1L));
+        assertEquals("two", cache.get(2L));
+        assertEquals("five", cache.get(5L));
+    }
+
+    @Test
+    void put_WhenKeyExists_ShouldUpdateValueAndIncreaseFrequency() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(2);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        // Act
+        cache.put(1L, "uno");
+        cache.put(3L, "three");
+
+        // Assert
+        assertEquals("uno", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals("three", cache.get(3L));
+    }
+
+    @Test
+    void remove_ShouldKeepEvictionOrderConsistent() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(2);
+        cache.put(1L, "one");
+        cache.get(1L);
+        cache.put(2L, "two");
+
+        // Act
+        cache.remove(2L);
+        cache.put(3L, "three");
+        cache.put(4L, "four");
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertNull(cache.get(3L));
+        assertEquals("one", cache.get(1L));
+        assertEquals("four", cache.get(4L));
+    }
+
+    @Test
+    void clear_ShouldRemoveAllEntries() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(2);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        // Act
+        cache.clear();
+        cache.put(3L, "three");
+
+        // Assert
+        assertEquals(1, cache.size());
+        assertNull(cache.get(1L));
+        assertEquals("three", cache.get(3L));
+    }
+
+    @Test
+    void put_WithLargeCapacity_ShouldEvictOnlyColdEntries() {
+        // Arrange
+        int capacity = 100_000;
+        LfuCache<String> cache = cacheOf(capacity);
+        for (long id = 0; id < capacity; id++) {
+            cache.put(id, "v" + id);
+            if (id % 2 == 0) {
+                cache.get(id);
+            }
+        }
+
+        // Act
+        for (long id = capacity; id < capacity + capacity / 2; id++) {
+            cache.put(id, "v" + id);
+            cache.get(id);
+        }
+
+        // Assert
+        assertEquals(capacity, cache.size());
+        for (long id = 0; id < capacity; id += 2) {
+            assertNotNull(cache.get(id));
+        }
+    }
+
+    @Test
+    void stripedCache_ShouldNeverExceedTotalCapacity() {
+        // Arrange
+        LfuCache<String> cache = stripedCacheOf(64, 16);
+
+        // Act
+        for (long id = 0; id < 1_000; id++) {
+            cache.put(id, "v" + id);
+        }
+
+        // Assert
+        assertTrue(cache.size() <= 64);
+        assertEquals("v999", cache.get(999L));
+    }
+
+    @Test
+    void stripedCache_ShouldSupportGetPutRemoveAcrossSegments() {
+        // Arrange
+        LfuCache<String> cache = stripedCacheOf(1_000, 16);
+        for (long id = 0; id < 100; id++) {
+            cache.put(id, "v" + id);
+        }
+
+        // Act
+        for (long id = 0; id < 100; id += 2) {
+            cache.remove(id);
+        }
+
+        // Assert
+        assertEquals(50, cache.size());
+        for (long id = 0; id < 100; id++) {
+            if (id % 2 == 0) {
+                assertNull(cache.get(id));
+            } else {
+                assertEquals("v" + id, cache.get(id));
+            }
+        }
+    }
+
+    @Test
+    void stripedCache_WhenAccessedConcurrently_ShouldStayConsistent() throws Exception {
+        // Arrange
+        int capacity = 256;
+        LfuCache<String> cache = stripedCacheOf(capacity, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    long id = random.nextLong(1_024);
+                    if (cache.get(id) == null) {
+                        cache.put(id, "v" + id);
+                    }
+                    if (i % 100 == 0) {
+                        cache.remove(random.nextLong(1_024));
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertTrue(cache.size() <= capacity);
+        for (long id = 0; id < 1_024; id++) {
+            String value = cache.get(id);
+            if (value != null) {
+                assertEquals("v" + id, value);
+            }
+        }
+    }
+
+    @Test
+    void stats_ShouldCountHitsMissesPutsAndEvictions() {
+        // Arrange
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.maximumSize(2).name("test")) {
+        };
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(3L);
+
+        // Act
+        cache.put(3L, "three");
+        CacheStats stats = cache.stats();
+
+        // Assert
+        assertEquals("test", stats.getName());
+        assertEquals(2, stats.getSize());
+        assertEquals(2, stats.getMaximumSize());
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(3, stats.getPuts());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2.0 / 3, stats.getHitRate(), 1e-9);
+        assertEquals(Map.of("1", 1L, "2-3", 1L), stats.getFrequencyHistogram());
+    }
+
+    @Test
+    void getWithLoader_WhenMissedConcurrently_ShouldLoadOnce() throws Exception {
+        // Arrange
+        LfuCache<String> cache = stripedCacheOf(100, 16);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<String>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> cache.get(42L, id -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "loaded";
+            })));
+        }
+        assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<String> future : futures) {
+            assertEquals("loaded", future.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals("loaded", cache.get(42L));
+    }
+
+    @Test
+    void getWithLoader_WhenLoaderFails_ShouldPropagateAndNotCache() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(10);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> cache.get(1L, id -> {
+                    throw new IllegalStateException("boom");
+                }));
+        assertEquals("boom", exception.getMessage());
+        assertNull(cache.get(1L));
+        assertEquals("ok", cache.get(1L, id -> "ok"));
+    }
+
+    @Test
+    void getWithLoader_WhenRemovedDuringLoad_ShouldNotCacheStaleValue() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(10);
+
+        // Act
+        String value = cache.get(1L, id -> {
+            cache.remove(id);
+            return "stale";
+        });
+
+        // Assert
+        assertEquals("stale", value);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void getWithLoader_WhenIdUnknown_ShouldRememberMissUntilTtlExpires() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        LfuCache<String> cache = negativeCacheOf(nanos);
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, String> loader = id -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        // Act
+        String first = cache.get(1L, loader);
+        String second = cache.get(1L, loader);
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        String third = cache.get(1L, loader);
+
+        // Assert
+        assertNull(first);
+        assertNull(second);
+        assertNull(third);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().getNegativeHits());
+    }
+
+    @Test
+    void put_WhenIdIsNegativelyCached_ShouldForgetTheMiss() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        LfuCache<String> cache = negativeCacheOf(nanos);
+        cache.get(1L, id -> null);
+
+        // Act
+        cache.put(1L, "created");
+
+        // Assert
+        assertEquals("created", cache.get(1L, id -> null));
+        assertEquals(0, cache.stats().getNegativeHits());
+    }
+
+    @Test
+    void remove_WhenIdIsNegativelyCached_ShouldForgetTheMiss() {
+        // Arrange
+        LfuCache<String> cache = negativeCacheOf(new AtomicLong());
+        cache.get(1L, id -> null);
+
+        // Act
+        cache.remove(1L);
+
+        // Assert
+        assertEquals("loaded", cache.get(1L, id -> "loaded"));
+    }
+
+    @Test
+    void getWithLoader_WithoutNegativeCaching_ShouldCallLoaderOnEveryMiss() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidationListener_ShouldHearWritesButNotLoadsOrEvictions() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(1);
+        List<Long> invalidated = new ArrayList<>();
+        cache.addInvalidationListener(invalidated::add);
+
+        // Act
+        cache.get(1L, id -> "loaded");
+        cache.get(2L, id -> "evicts one");
+        cache.put(3L, "three");
+        cache.remove(3L);
+        cache.clear();
+
+        // Assert
+        assertEquals(3, invalidated.size());
+        assertEquals(3L, invalidated.get(0).longValue());
+        assertEquals(3L, invalidated.get(1).longValue());
+        assertNull(invalidated.get(2));
+    }
+
+    @Test
+    void put_InsideTransactionThatRollsBack_ShouldLeaveNothingCached() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(10);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cache.put(1L, "uncommitted");
+            String beforeCompletion = cache.get(1L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync ->
+                    sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Assert
+            assertNull(beforeCompletion);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_InsideTransaction_ShouldStoreOnlyAfterCommit() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(10);
+        cache.put(1L, "committed");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cache.put(1L, "updated");
+            String beforeCommit = cache.get(1L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            assertEquals("committed", beforeCommit);
+            assertEquals("updated", cache.get(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void remove_InsideTransaction_ShouldDropValueReloadedBeforeCommit() {
+        // Arrange
+        LfuCache<String> cache = cacheOf(10);
+        cache.put(1L, "old");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cache.remove(1L);
+            cache.get(1L, id -> "old row read before commit");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            assertNull(cache.get(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
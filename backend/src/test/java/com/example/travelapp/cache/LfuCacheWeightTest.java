@@ -0,0 +1,206 @@
+package com.example.travelapp.cache;
+
+import com.example.travelapp.model.dto.response.PlaceResponseDto;
+import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.example.travelapp.model.dto.response.UserResponseDto;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LfuCacheWeightTest {
+
+    private static LfuCache<String> weightedCacheOf(long maximumWeight) {
+        return new LfuCache<>(LfuCacheSpec.maximumWeight(maximumWeight,
+                (Long id, String value) -> value.length())) {
+        };
+    }
+
+    private static LfuCache<String> stripedWeightedCacheOf(long maximumWeight) {
+        return new LfuCache<>(LfuCacheSpec.maximumWeight(maximumWeight,
+                (Long id, String value) -> value.length()).concurrencyLevel(16)) {
+        };
+    }
+
+    private static UserResponseDto userWithRoutes(int routes, int placesPerRoute) {
+        List<RouteResponseDto> routeDtos = new ArrayList<>();
+        for (int r = 0; r < routes; r++) {
+            routeDtos.add(new RouteResponseDto((long) r, "Route", "", 1L,
+                    Collections.nCopies(placesPerRoute,
+                            new PlaceResponseDto(1L, "Place", "", ""))));
+        }
+        return new UserResponseDto(1L, "User", "user@example.com", routeDtos);
+    }
+
+    @Test
+    void put_WhenOverWeight_ShouldEvictUntilWithinBudget() {
+        // Arrange
+        LfuCache<String> cache = weightedCacheOf(10);
+        cache.put(1L, "aaaa");
+        cache.put(2L, "bbbb");
+        cache.get(2L);
+
+        // Act
+        cache.put(3L, "cccccc");
+
+        // Assert
+        assertNull(cache.get(1L));
+        assertEquals("bbbb", cache.get(2L));
+        assertEquals("cccccc", cache.get(3L));
+        assertEquals(10, cache.weightedSize());
+    }
+
+    @Test
+    void put_WhenHeavierThanBudget_ShouldNotCacheOrEvict() {
+        // Arrange
+        LfuCache<String> cache = weightedCacheOf(10);
+        cache.put(1L, "aaaa");
+
+        // Act
+        cache.put(2L, "bbbbbbbbbbb");
+
+        // Assert
+        assertNull(cache.get(2L));
+        assertEquals("aaaa", cache.get(1L));
+        assertEquals(4, cache.weightedSize());
+    }
+
+    @Test
+    void put_WhenUpdatedValueGrows_ShouldEvictOtherEntries() {
+        // Arrange
+        LfuCache<String> cache = weightedCacheOf(10);
+        cache.put(1L, "aaaa");
+        cache.put(2L, "bbbb");
+
+        // Act
+        cache.put(1L, "aaaaaaaa");
+
+        // Assert
+        assertNull(cache.get(2L));
+        assertEquals("aaaaaaaa", cache.get(1L));
+        assertEquals(8, cache.weightedSize());
+    }
+
+    @Test
+    void remove_ShouldReleaseWeight() {
+        // Arrange
+        LfuCache<String> cache = weightedCacheOf(10);
+        cache.put(1L, "aaaa");
+        cache.put(2L, "bbbb");
+
+        // Act
+        cache.remove(1L);
+        cache.put(3L, "cccccc");
+
+        // Assert
+        assertEquals("bbbb", cache.get(2L));
+        assertEquals("cccccc", cache.get(3L));
+        assertEquals(10, cache.weightedSize());
+    }
+
+    @Test
+    void put_UnderHeapPressure_ShouldShrinkBudget() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        AtomicReference<Double> occupancy = new AtomicReference<>(0.5);
+        HeapPressure pressure = new HeapPressure(0.75, occupancy::get, nanos::get);
+        LfuCache<String> cache = new LfuCache<>(LfuCacheSpec.maximumWeight(100,
+                (Long id, String value) -> 10).heapPressure(pressure)) {
+        };
+        for (long id = 0; id < 10; id++) {
+            cache.put(id, "v" + id);
+        }
+        assertEquals(100, cache.weightedSize());
+
+        // Act
+        occupancy.set(0.85);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        cache.put(10L, "v10");
+
+        // Assert
+        assertEquals(60, cache.weightedSize());
+        assertEquals(60, cache.stats().getEffectiveMaximumSize());
+        assertEquals("v10", cache.get(10L));
+    }
+
+    @Test
+    void heapPressure_ShouldNotDropBelowMinimumFactor() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        HeapPressure pressure = new HeapPressure(0.75, () -> 1.0, nanos::get);
+
+        // Act
+        double factor = pressure.budgetFactor();
+
+        // Assert
+        assertEquals(HeapPressure.MIN_FACTOR, factor, 1e-9);
+    }
+
+    @Test
+    void estimateWeight_ShouldCountUserRoutesAndPlaces() {
+        // Arrange
+        UserResponseDto light = userWithRoutes(0, 0);
+        UserResponseDto heavy = userWithRoutes(2_000, 5);
+
+        // Act
+        int lightWeight = UserCache.estimateWeight(1L, light);
+        int heavyWeight = UserCache.estimateWeight(1L, heavy);
+
+        // Assert
+        assertEquals(1, lightWeight);
+        assertEquals(1 + 2_000 * 6, heavyWeight);
+    }
+
+    @Test
+    void put_WhenHeavierThanOneSegmentShare_ShouldCacheWithinTotalBudget() {
+        // Arrange
+        LfuCache<String> cache = stripedWeightedCacheOf(1_000);
+        for (long id = 0; id < 200; id++) {
+            cache.put(id, "aaaaa");
+        }
+
+        // Act
+        cache.put(1_000L, "b".repeat(500));
+
+        // Assert
+        assertEquals("b".repeat(500), cache.get(1_000L));
+        assertTrue(cache.weightedSize() <= 1_000);
+    }
+
+    @Test
+    void put_OnStripedCache_ShouldNeverExceedTotalBudget() {
+        // Arrange
+        LfuCache<String> cache = stripedWeightedCacheOf(1_000);
+
+        // Act
+        for (long id = 0; id < 5_000; id++) {
+            cache.put(id, "c".repeat((int) (id % 7 == 0 ? 1 + id % 300 : 1 + id % 10)));
+        }
+
+        // Assert
+        assertTrue(cache.weightedSize() <= 1_000);
+        assertEquals("c".repeat(1 + 4_998 % 300), cache.get(4_998L));
+    }
+
+    @Test
+    void userCache_ShouldRetainHeavyUserUnderTotalBudget() {
+        // Arrange
+        UserCache cache = new UserCache(Runnable::run, "", 0);
+        for (long id = 100; id < 1_100; id++) {
+            cache.put(id, userWithRoutes(1, 1));
+        }
+        UserResponseDto heavy = userWithRoutes(2_000, 5);
+
+        // Act
+        cache.put(1L, heavy);
+
+        // Assert
+        assertSame(heavy, cache.get(1L));
+        assertTrue(cache.weightedSize() <= 20_000);
+    }
+}
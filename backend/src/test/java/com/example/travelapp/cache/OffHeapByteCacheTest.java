@@ -0,0 +1,152 @@
+package com.example.travelapp.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapByteCacheTest {
+
+    private static final int SLAB_BYTES = 64;
+
+    private static OffHeapByteCache<String> cacheOf(int slabs) {
+        return new OffHeapByteCache<>("test", (long) slabs * SLAB_BYTES, SLAB_BYTES, 1,
+                LfuCacheDiskTierTest.UTF8) {
+        };
+    }
+
+    /** 32 bytes, so two values fill a slab. */
+    private static String valueOf(long id) {
+        return String.format("%-32s", "value-" + id);
+    }
+
+    private static String text(byte[] bytes) {
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Function<Long, String> countingLoader(AtomicInteger loads) {
+        return id -> {
+            loads.incrementAndGet();
+            return valueOf(id);
+        };
+    }
+
+    @Test
+    void get_WithLoader_ShouldServeSecondReadFromSlab() {
+        // Arrange
+        OffHeapByteCache<String> cache = cacheOf(3);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, countingLoader(loads));
+
+        // Act
+        byte[] bytes = cache.get(1L, countingLoader(loads));
+
+        // Assert
+        assertEquals(valueOf(1), text(bytes));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getHits());
+    }
+
+    @Test
+    void get_WhenLoaderReturnsNull_ShouldReturnNullAndCacheNothing() {
+        // Arrange
+        OffHeapByteCache<String> cache = cacheOf(3);
+
+        // Act
+        byte[] bytes = cache.get(1L, id -> null);
+
+        // Assert
+        assertNull(bytes);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_WhenRemovedDuringLoad_ShouldNotCacheStaleBytes() {
+        // Arrange
+        OffHeapByteCache<String> cache = cacheOf(3);
+
+        // Act
+        byte[] bytes = cache.get(1L, id -> {
+            cache.remove(id);
+            return "stale";
+        });
+
+        // Assert
+        assertEquals("stale", text(bytes));
+        assertNull(cache.get(1L));
+        assertEquals(1, cache.stats().getAdmissionRejections());
+    }
+
+    @Test
+    void put_WhenSlabsFull_ShouldKeepReadEntriesAndEvictOthers() {
+        // Arrange
+        OffHeapByteCache<String> cache = cacheOf(3);
+        AtomicInteger loads = new AtomicInteger();
+        for (long id = 1; id <= 4; id++) {
+            cache.get(id, countingLoader(loads));
+        }
+        cache.get(1L);
+
+        // Act
+        cache.get(5L, countingLoader(loads));
+
+        // Assert
+        assertEquals(valueOf(1), text(cache.get(1L)));
+        assertNull(cache.get(2L));
+        assertEquals(valueOf(3), text(cache.get(3L)));
+        assertEquals(valueOf(5), text(cache.get(5L)));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void reclaim_ShouldDropGarbageLeftByOverwrites() {
+        // Arrange
+        OffHeapByteCache<String> cache = cacheOf(3);
+
+        // Act
+        for (int round = 0; round < 20; round++) {
+            cache.remove(1L);
+            cache.get(1L, OffHeapByteCacheTest::valueOf);
+            cache.get(1L);
+        }
+
+        // Assert
+        assertEquals(1, cache.size());
+        assertEquals(32, cache.usedBytes());
+        assertEquals(valueOf(1), text(cache.get(1L)));
+    }
+
+    @Test
+    void get_WhenValueLargerThanSlab_ShouldReturnItWithoutCaching() {
+        // Arrange
+        OffHeapByteCache<String> cache = cacheOf(3);
+        String large = "x".repeat(SLAB_BYTES + 1);
+
+        // Act
+        byte[] bytes = cache.get(1L, id -> large);
+
+        // Assert
+        assertEquals(large, text(bytes));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void clear_ShouldDropEverything() {
+        // Arrange
+        OffHeapByteCache<String> cache = cacheOf(3);
+        AtomicInteger loads = new AtomicInteger();
+        for (long id = 1; id <= 5; id++) {
+            cache.get(id, countingLoader(loads));
+        }
+
+        // Act
+        cache.clear();
+
+        // Assert
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.usedBytes());
+        assertNull(cache.get(1L));
+    }
+}
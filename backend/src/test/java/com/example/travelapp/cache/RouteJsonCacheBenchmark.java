@@ -0,0 +1,104 @@
+package com.example.travelapp.cache;
+
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.User;
+import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Cost per {@code GET /api/routes/{id}} body of three ways to produce it for a route
+ * with {@link #PLACES} places: mapping the entity and serializing, serializing a
+ * cached DTO, and copying pre-serialized bytes out of a {@link RouteJsonCache}.
+ * Reports mean time and heap allocation per call. Not a unit test; run it manually
+ * with {@code java -cp <test-classpath> com.example.travelapp.cache.RouteJsonCacheBenchmark}.
+ */
+public final class RouteJsonCacheBenchmark {
+
+    private static final int PLACES = 200;
+    private static final int ROUTES = 100;
+    private static final int WARMUP = 20_000;
+    private static final int OPERATIONS = 100_000;
+
+    private RouteJsonCacheBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        RouteMapper routeMapper = new RouteMapper(new PlaceMapper());
+        List<Route> routes = routes();
+        RouteCache routeCache = new RouteCache();
+        RouteJsonCache routeJsonCache = new RouteJsonCache(routeCache, objectMapper, 64);
+        for (Route route : routes) {
+            routeCache.put(route.getId(), routeMapper.toResponseDto(route));
+        }
+
+        report("map + serialize", id -> {
+            RouteResponseDto dto = routeMapper.toResponseDto(routes.get((int) id));
+            return serialize(objectMapper, dto).length;
+        });
+        report("cached DTO + serialize", id ->
+                serialize(objectMapper, routeCache.get(id)).length);
+        report("off-heap bytes", id -> routeJsonCache.get(id, routeCache::get).length);
+    }
+
+    private interface Operation {
+        int apply(long id);
+    }
+
+    private static void report(String label, Operation operation) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += operation.apply(i % ROUTES);
+        }
+        LongSupplier allocated = allocatedBytes();
+        long allocatedBefore = allocated.getAsLong();
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            sink += operation.apply(i % ROUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedBytes = allocated.getAsLong() - allocatedBefore;
+        System.out.printf("%-24s %8.2f us/op %10d B/op (checksum %d)%n", label,
+                elapsed / 1_000.0 / OPERATIONS, allocatedBytes / OPERATIONS, sink);
+    }
+
+    private static LongSupplier allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean()
+                instanceof com.sun.management.ThreadMXBean threads) {
+            long thread = Thread.currentThread().getId();
+            return () -> threads.getThreadAllocatedBytes(thread);
+        }
+        return () -> 0L;
+    }
+
+    private static byte[] serialize(ObjectMapper objectMapper, RouteResponseDto dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Route> routes() {
+        User author = new User(1L, "Author", "author@example.com", new ArrayList<>());
+        List<Route> routes = new ArrayList<>();
+        for (long routeId = 0; routeId < ROUTES; routeId++) {
+            List<Place> places = new ArrayList<>();
+            for (long placeId = 0; placeId < PLACES; placeId++) {
+                places.add(new Place(routeId * PLACES + placeId, "Place " + placeId,
+                        placeId + " Long Street Name, Some District",
+                        "A description of place " + placeId + " that is a sentence long."));
+            }
+            routes.add(new Route(routeId, "Route " + routeId, "A long route", author, places));
+        }
+        return routes;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.travelapp.index;
+
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntBitmapTest {
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void addAndRemove_ShouldMatchTreeSetAcrossContainerConversions() {
+        // Arrange
+        IntBitmap bitmap = new IntBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(3);
+
+        // Act & Assert
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(3 << 16);
+            boolean add = i < 100_000 || random.nextBoolean();
+            if (add) {
+                assertEquals(expected.add(value), bitmap.add(value));
+            } else {
+                assertEquals(expected.remove(value), bitmap.remove(value));
+            }
+        }
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertArrayEquals(toArray(expected), bitmap.toArray());
+        for (int value = 0; value < 3 << 16; value += 7) {
+            assertEquals(expected.contains(value), bitmap.contains(value));
+        }
+    }
+
+    @Test
+    void remove_WhenDenseChunkThinsOut_ShouldKeepRemainingValues() {
+        // Arrange
+        IntBitmap bitmap = new IntBitmap();
+        for (int value = 0; value < 2 * IntBitmap.ARRAY_MAX; value++) {
+            bitmap.add(value);
+        }
+
+        // Act
+        for (int value = 0; value < 2 * IntBitmap.ARRAY_MAX; value += 2) {
+            bitmap.remove(value);
+        }
+        bitmap.remove(1);
+
+        // Assert
+        assertEquals(IntBitmap.ARRAY_MAX - 1, bitmap.cardinality());
+        assertFalse(bitmap.contains(1));
+        assertTrue(bitmap.contains(3));
+        assertTrue(bitmap.add(1));
+    }
+
+    @Test
+    void remove_WhenChunkEmpties_ShouldDropIt() {
+        // Arrange
+        IntBitmap bitmap = new IntBitmap();
+        bitmap.add(5);
+        bitmap.add(1 << 20);
+
+        // Act
+        bitmap.remove(5);
+        bitmap.remove(1 << 20);
+
+        // Assert
+        assertTrue(bitmap.isEmpty());
+        assertFalse(bitmap.remove(5));
+        assertEquals(0, bitmap.toArray().length);
+    }
+
+    @Test
+    void andNot_ShouldMatchSetDifferenceForEveryContainerPair() {
+        // Arrange
+        Random random = new Random(5);
+        IntBitmap left = new IntBitmap();
+        IntBitmap right = new IntBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        TreeSet<Integer> removed = new TreeSet<>();
+        // chunk 0: dense minus dense, chunk 1: dense minus sparse,
+        // chunk 2: sparse minus dense, chunk 3: sparse minus sparse, chunk 4: left only
+        int[][] densities = {{60_000, 30_000}, {60_000, 100}, {100, 60_000}, {100, 50}, {200, 0}};
+        for (int chunk = 0; chunk < densities.length; chunk++) {
+            for (int i = 0; i < densities[chunk][0]; i++) {
+                int value = (chunk << 16) | random.nextInt(1 << 16);
+                left.add(value);
+                expected.add(value);
+            }
+            for (int i = 0; i < densities[chunk][1]; i++) {
+                int value = (chunk << 16) | random.nextInt(1 << 16);
+                right.add(value);
+                removed.add(value);
+            }
+        }
+        right.add(9 << 16);
+        expected.removeAll(removed);
+
+        // Act
+        IntBitmap difference = left.andNot(right);
+
+        // Assert
+        assertArrayEquals(toArray(expected), difference.toArray());
+        assertEquals(expected.size(), difference.cardinality());
+    }
+
+    @Test
+    void andNot_ShouldLeaveOperandsUnchanged() {
+        // Arrange
+        IntBitmap left = new IntBitmap();
+        IntBitmap right = new IntBitmap();
+        for (int value = 0; value < 10_000; value++) {
+            left.add(value);
+        }
+        right.add(42);
+
+        // Act
+        IntBitmap difference = left.andNot(right);
+        difference.add(42);
+        difference.remove(7);
+
+        // Assert
+        assertEquals(10_000, left.cardinality());
+        assertTrue(left.contains(7));
+        assertEquals(1, right.cardinality());
+    }
+
+    @Test
+    void toArray_ShouldOrderValuesAsUnsignedInts() {
+        // Arrange
+        IntBitmap bitmap = new IntBitmap();
+        bitmap.add(-1);
+        bitmap.add(Integer.MAX_VALUE);
+        bitmap.add(0);
+
+        // Act
+        int[] values = bitmap.toArray();
+
+        // Assert
+        assertArrayEquals(new int[] {0, Integer.MAX_VALUE, -1}, values);
+        assertTrue(bitmap.contains(-1));
+    }
+}
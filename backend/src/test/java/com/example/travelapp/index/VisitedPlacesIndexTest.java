@@ -0,0 +1,243 @@
+package com.example.travelapp.index;
+
+import com.example.travelapp.cache.CacheInvalidationBus;
+import com.example.travelapp.cache.Invalidation;
+import com.example.travelapp.cache.InvalidationTransport;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RoutePlaceRepository;
+import com.example.travelapp.repository.projection.VisitRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class VisitedPlacesIndexTest {
+
+    @Mock
+    private PlaceRepository placeRepository;
+
+    @Mock
+    private RoutePlaceRepository routePlaceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private VisitedPlacesIndex index;
+
+    /** Hands batches straight to the bus, as if another node had published them. */
+    private static final class OtherNodeTransport implements InvalidationTransport {
+        private Consumer<List<Invalidation>> receiver;
+
+        @Override
+        public void publish(List<Invalidation> batch) {
+        }
+
+        @Override
+        public void subscribe(Consumer<List<Invalidation>> receiver) {
+            this.receiver = receiver;
+        }
+
+        void deliver(String cacheName, Long key) {
+            receiver.accept(List.of(new Invalidation("other-node", cacheName, key)));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new VisitedPlacesIndex(placeRepository, routePlaceRepository, transactionManager);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(placeRepository.streamAllIds()).thenReturn(Stream.of(1L, 2L, 3L, 4L, 5L));
+        when(routePlaceRepository.streamVisits()).thenReturn(Stream.of(
+                new VisitRow(7L, 2L), new VisitRow(7L, 4L), new VisitRow(7L, 2L),
+                new VisitRow(8L, 1L)));
+    }
+
+    @Test
+    void findPlacesNotVisitedBy_BeforeRebuild_ShouldReturnNull() {
+        // Act & Assert
+        assertNull(index.findPlacesNotVisitedBy(7L));
+    }
+
+    @Test
+    void rebuild_ShouldSubtractPlacesOnUsersRoutesFromAllPlaces() {
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertArrayEquals(new int[] {1, 3, 5}, index.findPlacesNotVisitedBy(7L));
+        assertArrayEquals(new int[] {2, 3, 4, 5}, index.findPlacesNotVisitedBy(8L));
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, index.findPlacesNotVisitedBy(9L));
+    }
+
+    @Test
+    void rebuild_WhenPlaceIdExceedsInt_ShouldLeaveQueriesToDatabase() {
+        // Arrange
+        when(placeRepository.streamAllIds())
+                .thenReturn(Stream.of(1L, Integer.MAX_VALUE + 1L));
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertNull(index.findPlacesNotVisitedBy(7L));
+    }
+
+    @Test
+    void addPlacesAndVisits_ShouldUpdateBitmapsWithoutQueries() {
+        // Arrange
+        index.rebuild();
+        clearInvocations(placeRepository, routePlaceRepository);
+
+        // Act
+        index.addPlaces(List.of(6L, 7L));
+        index.addVisits(7L, List.of(6L, 1L));
+        index.removePlace(3L);
+
+        // Assert
+        assertArrayEquals(new int[] {5, 7}, index.findPlacesNotVisitedBy(7L));
+        verifyNoInteractions(placeRepository, routePlaceRepository);
+    }
+
+    @Test
+    void reloadUser_ShouldReplaceVisitsWithDatabaseRead() {
+        // Arrange
+        index.rebuild();
+        when(routePlaceRepository.findPlaceIdsVisitedBy(7L)).thenReturn(List.of(4L));
+
+        // Act
+        index.reloadUser(7L);
+
+        // Assert
+        assertArrayEquals(new int[] {1, 2, 3, 5}, index.findPlacesNotVisitedBy(7L));
+    }
+
+    @Test
+    void removeUser_ShouldForgetVisits() {
+        // Arrange
+        index.rebuild();
+
+        // Act
+        index.removeUser(7L);
+
+        // Assert
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, index.findPlacesNotVisitedBy(7L));
+    }
+
+    @Test
+    void addVisits_InsideTransaction_ShouldApplyOnlyAfterCommit() {
+        // Arrange
+        index.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            index.addVisits(7L, List.of(1L));
+            int[] beforeCommit = index.findPlacesNotVisitedBy(7L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            assertArrayEquals(new int[] {1, 3, 5}, beforeCommit);
+            assertArrayEquals(new int[] {3, 5}, index.findPlacesNotVisitedBy(7L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void attach_ShouldPublishChangedUsersAndPlaces() {
+        // Arrange
+        index.attach(invalidationBus);
+
+        // Act
+        index.addVisits(7L, List.of(1L));
+        index.removePlace(3L);
+
+        // Assert
+        verify(invalidationBus).subscribe(eq(VisitedPlacesIndex.USERS), any());
+        verify(invalidationBus).subscribe(eq(VisitedPlacesIndex.PLACES), any());
+        verify(invalidationBus).publish(VisitedPlacesIndex.USERS, 7L);
+        verify(invalidationBus).publish(VisitedPlacesIndex.PLACES, 3L);
+    }
+
+    @Test
+    void userInvalidatedByOtherNode_ShouldReloadOffThePollerThreadAndCoalesce()
+            throws InterruptedException {
+        // Arrange
+        ExecutorService reloader = Executors.newSingleThreadExecutor();
+        index = new VisitedPlacesIndex(placeRepository, routePlaceRepository,
+                transactionManager, reloader);
+        index.rebuild();
+        OtherNodeTransport transport = new OtherNodeTransport();
+        index.attach(new CacheInvalidationBus(transport, Duration.ofHours(1), 100));
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(routePlaceRepository.findPlaceIdsVisitedBy(7L)).thenAnswer(inv -> {
+            reloading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(4L);
+        });
+
+        // Act
+        transport.deliver(VisitedPlacesIndex.USERS, 7L);
+        assertTrue(reloading.await(5, TimeUnit.SECONDS));
+        transport.deliver(VisitedPlacesIndex.USERS, 7L);
+        transport.deliver(VisitedPlacesIndex.USERS, 7L);
+        release.countDown();
+        reloader.shutdown();
+        assertTrue(reloader.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        verify(routePlaceRepository, times(2)).findPlaceIdsVisitedBy(7L);
+        assertArrayEquals(new int[] {1, 2, 3, 5}, index.findPlacesNotVisitedBy(7L));
+    }
+
+    @Test
+    void invalidationsFromOtherNode_WhenOneReloadFails_ShouldApplyTheRest()
+            throws InterruptedException {
+        // Arrange
+        ExecutorService reloader = Executors.newSingleThreadExecutor();
+        index = new VisitedPlacesIndex(placeRepository, routePlaceRepository,
+                transactionManager, reloader);
+        index.rebuild();
+        OtherNodeTransport transport = new OtherNodeTransport();
+        index.attach(new CacheInvalidationBus(transport, Duration.ofHours(1), 100));
+        when(routePlaceRepository.findPlaceIdsVisitedBy(7L))
+                .thenThrow(new IllegalStateException("connection lost"));
+        when(routePlaceRepository.findPlaceIdsVisitedBy(8L)).thenReturn(List.of(5L));
+        when(placeRepository.existsById(3L)).thenReturn(false);
+
+        // Act
+        transport.deliver(VisitedPlacesIndex.USERS, 7L);
+        transport.deliver(VisitedPlacesIndex.USERS, 8L);
+        transport.deliver(VisitedPlacesIndex.PLACES, 3L);
+        reloader.shutdown();
+        assertTrue(reloader.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertArrayEquals(new int[] {1, 2, 4}, index.findPlacesNotVisitedBy(8L));
+    }
+}
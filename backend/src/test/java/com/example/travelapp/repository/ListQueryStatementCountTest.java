@@ -0,0 +1,274 @@
+package com.example.travelapp.repository;
+
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.RouteJsonCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.index.VisitedPlacesIndex;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.User;
+import com.example.travelapp.model.dto.response.PageResponseDto;
+import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.example.travelapp.model.dto.response.UserResponseDto;
+import com.example.travelapp.service.ExportService;
+import com.example.travelapp.service.PlaceBatchWriter;
+import com.example.travelapp.service.PlaceService;
+import com.example.travelapp.service.RouteService;
+import com.example.travelapp.service.UserService;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.example.travelapp.service.mapper.UserMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements behind each list endpoint on H2 with Hibernate
+ * statistics. The counts must not depend on how many users, routes or places exist.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ListQueryStatementCountTest {
+
+    private static final int USERS = 5;
+    private static final int ROUTES_PER_USER = 4;
+    private static final int PLACES = 10;
+    private static final int PLACES_PER_ROUTE = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private RoutePlaceRepository routePlaceRepository;
+
+    private UserService userService;
+    private RouteService routeService;
+    private PlaceService placeService;
+    private ExportService exportService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        PlaceMapper placeMapper = new PlaceMapper();
+        RouteMapper routeMapper = new RouteMapper(placeMapper);
+        UserMapper userMapper = new UserMapper(routeMapper);
+        UserCache userCache = new UserCache(Runnable::run, "", 0);
+        RouteCache routeCache = new RouteCache();
+        VisitedPlacesIndex visitedPlacesIndex = new VisitedPlacesIndex(placeRepository,
+                routePlaceRepository, transactionManager);
+        userService = new UserService(userRepository, routeRepository, userMapper, userCache,
+                routeCache, visitedPlacesIndex);
+        routeService = new RouteService(routeRepository, userRepository, placeRepository,
+                routePlaceRepository, routeMapper, userCache, routeCache,
+                new RouteJsonCache(routeCache, new ObjectMapper(), 1), visitedPlacesIndex);
+        placeService = new PlaceService(placeRepository, placeMapper, routeRepository,
+                routePlaceRepository, routeMapper, userRepository, userCache, routeCache, new PlaceCache(),
+                new PlaceBatchWriter(entityManager.getEntityManager(), 1_000), visitedPlacesIndex);
+        exportService = new ExportService(routeRepository, placeRepository, routeMapper,
+                placeMapper, entityManager.getEntityManager(), transactionManager,
+                new ObjectMapper());
+
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < PLACES; i++) {
+            places.add(entityManager.persist(
+                    new Place(null, "Place " + i, i + " Main Street", "")));
+        }
+        for (int u = 0; u < USERS; u++) {
+            User user = entityManager.persist(
+                    new User(null, "User " + u, "user" + u + "@example.com", new ArrayList<>()));
+            for (int r = 0; r < ROUTES_PER_USER; r++) {
+                List<Place> routePlaces = new ArrayList<>();
+                for (int p = 0; p < PLACES_PER_ROUTE; p++) {
+                    routePlaces.add(places.get((u + r + p) % PLACES));
+                }
+                entityManager.persist(new Route(null, "Route " + u + "-" + r, "", user,
+                        routePlaces));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllUsers_ShouldIssueThreeStatements() {
+        // Act
+        List<UserResponseDto> users = userService.getAllUsers();
+
+        // Assert
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(USERS, users.size());
+        for (UserResponseDto user : users) {
+            assertEquals(ROUTES_PER_USER, user.getRoutes().size());
+            for (RouteResponseDto route : user.getRoutes()) {
+                assertEquals(PLACES_PER_ROUTE, route.getPlaces().size());
+                assertEquals(user.getId(), route.getAuthorId());
+            }
+        }
+    }
+
+    @Test
+    void getAllRoutes_ShouldIssueTwoStatements() {
+        // Act
+        List<RouteResponseDto> routes = routeService.getAllRoutes();
+
+        // Assert
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(USERS * ROUTES_PER_USER, routes.size());
+        routes.forEach(route -> assertEquals(PLACES_PER_ROUTE, route.getPlaces().size()));
+    }
+
+    @Test
+    void getAllPlaces_ShouldIssueOneStatement() {
+        // Act
+        int places = placeService.getAllPlaces().size();
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(PLACES, places);
+    }
+
+    @Test
+    void deletePlace_ShouldIssueSixStatementsWhateverItsRouteCount() {
+        // Arrange
+        Long id = placeRepository.findAllRows().get(0).getId();
+        statistics.clear();
+
+        // Act
+        placeService.deletePlace(id);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(6, statistics.getPrepareStatementCount());
+        List<RouteResponseDto> routes = routeService.getAllRoutes();
+        assertEquals(USERS * ROUTES_PER_USER, routes.size());
+        assertTrue(routes.stream()
+                .flatMap(route -> route.getPlaces().stream())
+                .noneMatch(place -> place.getId().equals(id)));
+        assertFalse(placeRepository.existsById(id));
+    }
+
+    @Test
+    void getAllUsers_ShouldMatchEntityGraphMapping() {
+        // Arrange
+        UserMapper userMapper = new UserMapper(new RouteMapper(new PlaceMapper()));
+        List<UserResponseDto> expected = userRepository.findAll().stream()
+                .map(userMapper::toResponseDto)
+                .toList();
+        long entityStatements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        // Act
+        List<UserResponseDto> actual = userService.getAllUsers();
+
+        // Assert
+        assertTrue(entityStatements > 3);
+        assertEquals(summary(expected), summary(actual));
+    }
+
+    @Test
+    void getUsersPage_ShouldWalkAllUsersWithThreeStatementsPerPage() {
+        // Arrange
+        List<UserResponseDto> expected = userService.getAllUsers();
+        statistics.clear();
+        List<UserResponseDto> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        // Act
+        do {
+            PageResponseDto<UserResponseDto> page = userService.getUsersPage(cursor, 2);
+            walked.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals((USERS + 1) / 2, pages);
+        assertEquals(3L * pages, statistics.getPrepareStatementCount());
+        assertEquals(summary(expected), summary(walked));
+    }
+
+    @Test
+    void getRoutesPage_ShouldReturnRoutesInIdOrder() {
+        // Act
+        PageResponseDto<RouteResponseDto> first = routeService.getRoutesPage(null, 3);
+        PageResponseDto<RouteResponseDto> second =
+                routeService.getRoutesPage(first.getNextCursor(), 3);
+
+        // Assert
+        assertEquals(4, statistics.getPrepareStatementCount());
+        List<Long> ids = new ArrayList<>();
+        first.getItems().forEach(route -> ids.add(route.getId()));
+        second.getItems().forEach(route -> ids.add(route.getId()));
+        assertEquals(ids.stream().sorted().distinct().toList(), ids);
+        assertEquals(6, ids.size());
+        second.getItems().forEach(route ->
+                assertEquals(PLACES_PER_ROUTE, route.getPlaces().size()));
+    }
+
+    @Test
+    void exportRoutes_ShouldStreamEveryRouteOnceInOneStatement() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long written = exportService.exportRoutes(out);
+
+        // Assert
+        RouteResponseDto[] routes = new ObjectMapper().readValue(out.toByteArray(),
+                RouteResponseDto[].class);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(USERS * ROUTES_PER_USER, written);
+        assertEquals(USERS * ROUTES_PER_USER, routes.length);
+        for (RouteResponseDto route : routes) {
+            assertEquals(PLACES_PER_ROUTE, route.getPlaces().size());
+        }
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class)
+                .getStatistics().getEntityCount());
+    }
+
+    private static List<String> summary(List<UserResponseDto> users) {
+        return users.stream()
+                .flatMap(user -> user.getRoutes().stream()
+                        .map(route -> user.getId() + ":" + user.getEmail() + ":"
+                                + route.getId() + ":" + route.getName() + ":"
+                                + route.getPlaces().stream()
+                                        .map(place -> place.getId() + place.getName())
+                                        .sorted()
+                                        .toList()))
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.travelapp.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Rows per second for the two insert patterns Hibernate issues for a bulk place
+ * import: one round trip per row reading an identity key back, as with
+ * {@code GenerationType.IDENTITY}, and ids drawn 50 at a time from a pooled
+ * sequence with the inserts sent as JDBC batches of 50, as with the
+ * {@code places_seq} generator and {@code hibernate.jdbc.batch_size=50}.
+ *
+ * <p>Not a unit test; run it manually with
+ * {@code java -cp <test-classpath> com.example.travelapp.repository.PlaceBulkInsertBenchmark
+ * [jdbc-url [user password]]}. Without arguments it uses an in-memory H2 database.
+ * For PostgreSQL add {@code reWriteBatchedInserts=true} to the URL, as in production,
+ * so the driver sends each batch as one multi-row insert.
+ */
+public final class PlaceBulkInsertBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int BATCH_SIZE = 50;
+    private static final int ROUNDS = 3;
+    private static final String INSERT =
+            "INSERT INTO bench_places (id, name, address, description) VALUES (?, ?, ?, ?)";
+
+    private PlaceBulkInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+        String user = args.length > 2 ? args[1] : "sa";
+        String password = args.length > 2 ? args[2] : "";
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            boolean postgres = connection.getMetaData().getDatabaseProductName()
+                    .equals("PostgreSQL");
+            for (int round = 1; round <= ROUNDS; round++) {
+                recreateTables(connection);
+                report("identity, row at a time", round, insertWithIdentity(connection));
+                report("pooled sequence, batched", round,
+                        insertWithSequence(connection, postgres));
+            }
+            dropTables(connection);
+        }
+    }
+
+    private static long insertWithIdentity(Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_places_identity (name, address, description) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setString(1, "Place " + i);
+                insert.setString(2, i + " Main Street");
+                insert.setString(3, "Imported place");
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        connection.commit();
+        return System.nanoTime() - start;
+    }
+
+    private static long insertWithSequence(Connection connection, boolean postgres)
+            throws SQLException {
+        String nextValue = postgres ? "SELECT nextval('bench_places_seq')"
+                : "SELECT NEXT VALUE FOR bench_places_seq";
+        long start = System.nanoTime();
+        try (PreparedStatement sequence = connection.prepareStatement(nextValue);
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            long id = 0;
+            long hi = -1;
+            for (int i = 0; i < ROWS; i++) {
+                if (id > hi) {
+                    try (ResultSet next = sequence.executeQuery()) {
+                        next.next();
+                        hi = next.getLong(1);
+                    }
+                    id = hi - BATCH_SIZE + 1;
+                }
+                insert.setLong(1, id++);
+                insert.setString(2, "Place " + i);
+                insert.setString(3, i + " Main Street");
+                insert.setString(4, "Imported place");
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return System.nanoTime() - start;
+    }
+
+    private static void recreateTables(Connection connection) throws SQLException {
+        dropTables(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE bench_places_identity (id BIGINT GENERATED BY "
+                    + "DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(255), "
+                    + "address VARCHAR(255), description VARCHAR(255))");
+            statement.execute("CREATE TABLE bench_places (id BIGINT PRIMARY KEY, "
+                    + "name VARCHAR(255), address VARCHAR(255), description VARCHAR(255))");
+            statement.execute("CREATE SEQUENCE bench_places_seq START WITH " + BATCH_SIZE
+                    + " INCREMENT BY " + BATCH_SIZE);
+        }
+        connection.commit();
+    }
+
+    private static void dropTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_places_identity");
+            statement.execute("DROP TABLE IF EXISTS bench_places");
+            statement.execute("DROP SEQUENCE IF EXISTS bench_places_seq");
+        }
+        connection.commit();
+    }
+
+    private static void report(String label, int round, long nanos) {
+        System.out.printf("round %d, %s: %,.0f rows/s (%d ms)%n", round, label,
+                ROWS / (nanos / 1e9), nanos / 1_000_000);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.travelapp.repository;
+
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.RouteJsonCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.index.VisitedPlacesIndex;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.User;
+import com.example.travelapp.model.dto.request.RouteRequestDto;
+import com.example.travelapp.model.dto.response.RoutePlaceResultDto;
+import com.example.travelapp.model.dto.response.RoutePlaceResultDto.Status;
+import com.example.travelapp.repository.projection.RoutePlaceRow;
+import com.example.travelapp.service.PlaceCountReconciler;
+import com.example.travelapp.service.RouteService;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Adds, removes and moves places of a stored route on H2 and reads the order and
+ * the stored place count back. Each change must leave the route's other
+ * {@code route_places} rows untouched.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class RoutePlaceOrderTest {
+
+    private static final int PLACES = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private RoutePlaceRepository routePlaceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RouteService routeService;
+    private Statistics statistics;
+    private Long routeId;
+    private List<Long> placeIds;
+
+    @BeforeEach
+    void setUp() {
+        RouteCache routeCache = new RouteCache();
+        routeService = new RouteService(routeRepository, userRepository, placeRepository,
+                routePlaceRepository, new RouteMapper(new PlaceMapper()),
+                new UserCache(Runnable::run, "", 0), routeCache,
+                new RouteJsonCache(routeCache, new ObjectMapper(), 1),
+                new VisitedPlacesIndex(placeRepository, routePlaceRepository, transactionManager));
+
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < PLACES; i++) {
+            places.add(entityManager.persist(
+                    new Place(null, "Place " + i, i + " Main Street", "")));
+        }
+        placeIds = places.stream().map(Place::getId).toList();
+        User author = entityManager.persist(
+                new User(null, "Author", "author@example.com", new ArrayList<>()));
+        routeId = entityManager.persist(new Route(null, "Walk", "", author,
+                places.subList(0, 3))).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private List<Long> order() {
+        entityManager.flush();
+        entityManager.clear();
+        return routeRepository.findPlaceRowsByRouteIds(List.of(routeId)).stream()
+                .map(RoutePlaceRow::getId)
+                .toList();
+    }
+
+    /** The stored place_count, checked against the rows it counts. */
+    private int placeCount() {
+        List<Long> order = order();
+        int placeCount = routeRepository.findById(routeId).orElseThrow().getPlaceCount();
+        assertEquals(order.size(), placeCount);
+        return placeCount;
+    }
+
+    private Long place(int index) {
+        return placeIds.get(index);
+    }
+
+    @Test
+    void addPlaceToRoute_ShouldAppendWithoutRewritingRoute() {
+        // Act
+        routeService.addPlaceToRoute(routeId, place(3));
+
+        // Assert
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getEntityDeleteCount());
+        assertEquals(List.of(place(0), place(1), place(2), place(3)), order());
+        assertEquals(4, placeCount());
+    }
+
+    @Test
+    void removePlaceFromRoute_ShouldKeepOrderOfOtherPlaces() {
+        // Act
+        routeService.removePlaceFromRoute(routeId, place(1));
+
+        // Assert
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(List.of(place(0), place(2)), order());
+        assertEquals(2, placeCount());
+    }
+
+    @Test
+    void movePlaceInRoute_ShouldReorderPlaces() {
+        // Act
+        routeService.movePlaceInRoute(routeId, place(2), place(0));
+        routeService.movePlaceInRoute(routeId, place(0), null);
+
+        // Assert
+        assertEquals(List.of(place(2), place(1), place(0)), order());
+    }
+
+    @Test
+    void movePlaceInRoute_WhenGapUsedUp_ShouldRespaceAndKeepOrder() {
+        // Arrange
+        routeService.addPlaceToRoute(routeId, place(3));
+        routeService.addPlaceToRoute(routeId, place(4));
+
+        // Act: keep moving the last two places in front of place 1, halving that gap
+        for (int i = 0; i < 24; i++) {
+            routeService.movePlaceInRoute(routeId, place(3 + i % 2), place(1));
+        }
+
+        // Assert
+        assertEquals(List.of(place(0), place(4), place(3), place(1), place(2)), order());
+    }
+
+    @Test
+    void addPlacesToRoute_ShouldAppendExistingPlacesInOrder() {
+        // Act
+        List<RoutePlaceResultDto> results = routeService.addPlacesToRoute(routeId,
+                List.of(place(4), place(0), -1L, place(3)));
+
+        // Assert
+        assertEquals(List.of(Status.ADDED, Status.ALREADY_IN_ROUTE, Status.NOT_FOUND,
+                Status.ADDED), results.stream().map(RoutePlaceResultDto::getStatus).toList());
+        assertEquals(List.of(place(0), place(1), place(2), place(4), place(3)), order());
+        assertEquals(5, placeCount());
+    }
+
+    @Test
+    void replaceRoutePlaces_ShouldMatchRequestedOrder() {
+        // Act
+        routeService.replaceRoutePlaces(routeId, List.of(place(3), place(1), place(0)));
+
+        // Assert
+        assertEquals(List.of(place(3), place(1), place(0)), order());
+        assertEquals(3, placeCount());
+    }
+
+    @Test
+    void removePlacesFromRoute_ShouldKeepOtherPlaces() {
+        // Act
+        routeService.removePlacesFromRoute(routeId, List.of(place(0), place(2), place(4)));
+
+        // Assert
+        assertEquals(List.of(place(1)), order());
+        assertEquals(1, placeCount());
+    }
+
+    @Test
+    void createRoute_ShouldStorePlaceCount() {
+        // Assert
+        assertEquals(3, placeCount());
+        assertEquals(List.of(routeId), routeRepository.findRoutesWithMinimumPlaces(3).stream()
+                .map(Route::getId).toList());
+        assertTrue(routeRepository.findRoutesWithMinimumPlaces(4).isEmpty());
+    }
+
+    @Test
+    void createRoute_ShouldKeepRequestOrderAndStoreRepeatedPlaceOnce() {
+        // Arrange
+        Long authorId = routeRepository.findById(routeId).orElseThrow().getAuthor().getId();
+
+        // Act
+        Long hikeId = routeService.createRoute(new RouteRequestDto("Hike", "", authorId,
+                List.of(place(4), place(1), place(4), place(3)))).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(List.of(place(4), place(1), place(3)),
+                routeRepository.findPlaceRowsByRouteIds(List.of(hikeId)).stream()
+                        .map(RoutePlaceRow::getId)
+                        .toList());
+        assertEquals(3, routeRepository.findById(hikeId).orElseThrow().getPlaceCount());
+    }
+
+    @Test
+    void reconcile_ShouldRepairDriftedPlaceCount() {
+        // Arrange
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Route r SET r.placeCount = 42 WHERE r.id = :id")
+                .setParameter("id", routeId)
+                .executeUpdate();
+        PlaceCountReconciler reconciler =
+                new PlaceCountReconciler(routeRepository, transactionManager, 1);
+
+        // Act
+        int repaired = reconciler.reconcile();
+
+        // Assert
+        assertEquals(1, repaired);
+        assertEquals(3, placeCount());
+        assertEquals(0, reconciler.reconcile());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.travelapp.repository;
+
+import com.example.travelapp.model.RoutePlace;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latency of adding and removing one place on routes of 10, 1k and 50k places, for
+ * the statements Hibernate issued while {@code Route.places} was an unordered bag
+ * and for the single-row statements of {@link RoutePlaceRepository}. The bag path
+ * loads the route's place ids, scans them for the place, deletes every
+ * {@code route_places} row of the route and inserts them all again in batches of 50;
+ * the delta path checks the primary key and inserts or deletes one row.
+ *
+ * <p>Not a unit test; run it manually with
+ * {@code java -cp <test-classpath> com.example.travelapp.repository.RoutePlaceUpdateBenchmark
+ * [jdbc-url [user password]]}. Without arguments it uses an in-memory H2 database.
+ */
+public final class RoutePlaceUpdateBenchmark {
+
+    private static final int[] ROUTE_SIZES = {10, 1_000, 50_000};
+    private static final int BATCH_SIZE = 50;
+    private static final int ROUNDS = 3;
+    private static final long ROUTE_ID = 1;
+    private static final long NEW_PLACE_ID = Integer.MAX_VALUE;
+
+    private RoutePlaceUpdateBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+        String user = args.length > 2 ? args[1] : "sa";
+        String password = args.length > 2 ? args[2] : "";
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            for (int round = 1; round <= ROUNDS; round++) {
+                for (int size : ROUTE_SIZES) {
+                    int operations = Math.max(5, 50_000 / size);
+                    recreateTable(connection, size);
+                    report("bag rewrite", size, round, operations,
+                            bagRewrite(connection, operations));
+                    recreateTable(connection, size);
+                    report("single row", size, round, operations,
+                            singleRow(connection, operations));
+                }
+            }
+            dropTable(connection);
+        }
+    }
+
+    /** Adds and then removes the new place, rewriting the whole route both times. */
+    private static long bagRewrite(Connection connection, int operations) throws SQLException {
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            List<Long> places = loadPlaces(connection);
+            if (!places.contains(NEW_PLACE_ID)) {
+                places.add(NEW_PLACE_ID);
+            }
+            rewrite(connection, places);
+            connection.commit();
+
+            places = loadPlaces(connection);
+            places.remove(NEW_PLACE_ID);
+            rewrite(connection, places);
+            connection.commit();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /** Adds and then removes the new place with one insert and one delete. */
+    private static long singleRow(Connection connection, int operations) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement exists = connection.prepareStatement("SELECT 1 FROM "
+                + "bench_route_places WHERE route_id = ? AND place_id = ?");
+             PreparedStatement append = connection.prepareStatement("INSERT INTO "
+                + "bench_route_places (route_id, place_id, position_index) "
+                + "SELECT ?, ?, COALESCE(MAX(position_index), 0) + " + RoutePlace.POSITION_GAP
+                + " FROM bench_route_places WHERE route_id = ?");
+             PreparedStatement delete = connection.prepareStatement("DELETE FROM "
+                + "bench_route_places WHERE route_id = ? AND place_id = ?")) {
+            for (int i = 0; i < operations; i++) {
+                exists.setLong(1, ROUTE_ID);
+                exists.setLong(2, NEW_PLACE_ID);
+                try (ResultSet row = exists.executeQuery()) {
+                    row.next();
+                }
+                append.setLong(1, ROUTE_ID);
+                append.setLong(2, NEW_PLACE_ID);
+                append.setLong(3, ROUTE_ID);
+                append.executeUpdate();
+                connection.commit();
+
+                delete.setLong(1, ROUTE_ID);
+                delete.setLong(2, NEW_PLACE_ID);
+                delete.executeUpdate();
+                connection.commit();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static List<Long> loadPlaces(Connection connection) throws SQLException {
+        List<Long> places = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT place_id FROM bench_route_places WHERE route_id = ?")) {
+            select.setLong(1, ROUTE_ID);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    places.add(rows.getLong(1));
+                }
+            }
+        }
+        return places;
+    }
+
+    private static void rewrite(Connection connection, List<Long> places) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM bench_route_places WHERE route_id = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO "
+                     + "bench_route_places (route_id, place_id, position_index) "
+                     + "VALUES (?, ?, ?)")) {
+            delete.setLong(1, ROUTE_ID);
+            delete.executeUpdate();
+            for (int i = 0; i < places.size(); i++) {
+                insert.setLong(1, ROUTE_ID);
+                insert.setLong(2, places.get(i));
+                insert.setLong(3, RoutePlace.POSITION_GAP * (i + 1));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void recreateTable(Connection connection, int size) throws SQLException {
+        dropTable(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE bench_route_places (route_id BIGINT, "
+                    + "place_id BIGINT, position_index BIGINT, PRIMARY KEY (route_id, place_id))");
+            statement.execute("CREATE INDEX bench_route_places_position "
+                    + "ON bench_route_places (route_id, position_index)");
+        }
+        List<Long> places = new ArrayList<>(size);
+        for (long placeId = 1; placeId <= size; placeId++) {
+            places.add(placeId);
+        }
+        rewrite(connection, places);
+        connection.commit();
+    }
+
+    private static void dropTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_route_places");
+        }
+        connection.commit();
+    }
+
+    private static void report(String label, int size, int round, int operations,
+                               long nanos) {
+        System.out.printf("round %d, %,d places, %s: add + remove %,.1f us (%d ops)%n",
+                round, size, label, nanos / 1e3 / operations, operations);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.travelapp.repository;
+
+import com.example.travelapp.model.RoutePlace;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load test for deleting a place that is on 100k routes. It compares the
+ * statements the old {@code deletePlace} issued, which rewrote every affected
+ * route's {@code route_places} rows one route at a time, with the single
+ * {@code DELETE FROM route_places WHERE place_id = ?} that replaced them. The
+ * single delete is run with and without the place_id index. The per-route rewrite
+ * is timed over the first {@link #REWRITE_SAMPLE} routes and extrapolated, since
+ * the full run takes minutes.
+ *
+ * <p>Not a unit test; run it manually with
+ * {@code java -cp <test-classpath> com.example.travelapp.repository.SharedPlaceDeleteBenchmark
+ * [jdbc-url [user password]]}. Without arguments it uses an in-memory H2 database.
+ */
+public final class SharedPlaceDeleteBenchmark {
+
+    private static final int ROUTES = 100_000;
+    private static final int PLACES_PER_ROUTE = 5;
+    private static final int OTHER_PLACES = 1_000;
+    private static final int REWRITE_SAMPLE = 1_000;
+    private static final int BATCH_SIZE = 50;
+    private static final long SHARED_PLACE_ID = 0;
+
+    private SharedPlaceDeleteBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+        String user = args.length > 2 ? args[1] : "sa";
+        String password = args.length > 2 ? args[2] : "";
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+
+            recreateTables(connection, true);
+            long rewrite = perRouteRewrite(connection);
+            System.out.printf("per-route rewrite: %d ms for %,d routes, ~%,d ms for %,d%n",
+                    rewrite / 1_000_000, REWRITE_SAMPLE,
+                    rewrite / 1_000_000 * ROUTES / REWRITE_SAMPLE, ROUTES);
+
+            recreateTables(connection, true);
+            System.out.printf("single delete, place_id index: %d ms%n",
+                    singleDelete(connection) / 1_000_000);
+
+            recreateTables(connection, false);
+            System.out.printf("single delete, no place_id index: %d ms%n",
+                    singleDelete(connection) / 1_000_000);
+
+            dropTables(connection);
+        }
+    }
+
+    private static long singleDelete(Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement stops = connection.prepareStatement(
+                "DELETE FROM bench_route_places WHERE place_id = ?");
+             PreparedStatement place = connection.prepareStatement(
+                     "DELETE FROM bench_places WHERE id = ?")) {
+            stops.setLong(1, SHARED_PLACE_ID);
+            int deleted = stops.executeUpdate();
+            place.setLong(1, SHARED_PLACE_ID);
+            place.executeUpdate();
+            if (deleted != ROUTES) {
+                throw new IllegalStateException("deleted " + deleted + " rows");
+            }
+        }
+        connection.commit();
+        return System.nanoTime() - start;
+    }
+
+    /** Per affected route: load its places, delete all its rows, insert the rest again. */
+    private static long perRouteRewrite(Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement routes = connection.prepareStatement(
+                "SELECT route_id FROM bench_route_places WHERE place_id = ? ORDER BY route_id");
+             PreparedStatement load = connection.prepareStatement(
+                     "SELECT place_id FROM bench_route_places WHERE route_id = ?");
+             PreparedStatement delete = connection.prepareStatement(
+                     "DELETE FROM bench_route_places WHERE route_id = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO "
+                     + "bench_route_places (route_id, place_id, position_index) "
+                     + "VALUES (?, ?, ?)")) {
+            routes.setLong(1, SHARED_PLACE_ID);
+            routes.setMaxRows(REWRITE_SAMPLE);
+            List<Long> routeIds = new ArrayList<>();
+            try (ResultSet rows = routes.executeQuery()) {
+                while (rows.next()) {
+                    routeIds.add(rows.getLong(1));
+                }
+            }
+            for (long routeId : routeIds) {
+                List<Long> places = new ArrayList<>();
+                load.setLong(1, routeId);
+                try (ResultSet rows = load.executeQuery()) {
+                    while (rows.next()) {
+                        places.add(rows.getLong(1));
+                    }
+                }
+                places.remove(SHARED_PLACE_ID);
+                delete.setLong(1, routeId);
+                delete.executeUpdate();
+                for (int i = 0; i < places.size(); i++) {
+                    insert.setLong(1, routeId);
+                    insert.setLong(2, places.get(i));
+                    insert.setLong(3, RoutePlace.POSITION_GAP * (i + 1));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        connection.commit();
+        return System.nanoTime() - start;
+    }
+
+    private static void recreateTables(Connection connection, boolean placeIndex)
+            throws SQLException {
+        dropTables(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE bench_places (id BIGINT PRIMARY KEY, "
+                    + "name VARCHAR(255))");
+            statement.execute("CREATE TABLE bench_route_places (route_id BIGINT, "
+                    + "place_id BIGINT, position_index BIGINT, PRIMARY KEY (route_id, place_id))");
+            statement.execute("CREATE INDEX bench_route_places_position "
+                    + "ON bench_route_places (route_id, position_index)");
+            if (placeIndex) {
+                statement.execute("CREATE INDEX bench_route_places_place "
+                        + "ON bench_route_places (place_id)");
+            }
+        }
+        try (PreparedStatement place = connection.prepareStatement(
+                "INSERT INTO bench_places (id, name) VALUES (?, ?)")) {
+            for (long id = 0; id <= OTHER_PLACES; id++) {
+                place.setLong(1, id);
+                place.setString(2, "Place " + id);
+                place.addBatch();
+            }
+            place.executeBatch();
+        }
+        try (PreparedStatement stop = connection.prepareStatement("INSERT INTO "
+                + "bench_route_places (route_id, place_id, position_index) VALUES (?, ?, ?)")) {
+            int pending = 0;
+            for (long routeId = 1; routeId <= ROUTES; routeId++) {
+                for (int p = 0; p < PLACES_PER_ROUTE; p++) {
+                    long placeId = p == 0 ? SHARED_PLACE_ID
+                            : 1 + (routeId * PLACES_PER_ROUTE + p) % OTHER_PLACES;
+                    stop.setLong(1, routeId);
+                    stop.setLong(2, placeId);
+                    stop.setLong(3, RoutePlace.POSITION_GAP * (p + 1));
+                    stop.addBatch();
+                    if (++pending % BATCH_SIZE == 0) {
+                        stop.executeBatch();
+                    }
+                }
+            }
+            stop.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void dropTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_route_places");
+            statement.execute("DROP TABLE IF EXISTS bench_places");
+        }
+        connection.commit();
+    }
+}
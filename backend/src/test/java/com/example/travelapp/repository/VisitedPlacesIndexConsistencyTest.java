@@ -0,0 +1,222 @@
+package com.example.travelapp.repository;
+
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.RouteJsonCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.index.VisitedPlacesIndex;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.User;
+import com.example.travelapp.model.dto.request.PlaceRequestDto;
+import com.example.travelapp.model.dto.request.RouteRequestDto;
+import com.example.travelapp.service.PlaceBatchWriter;
+import com.example.travelapp.service.PlaceService;
+import com.example.travelapp.service.RouteService;
+import com.example.travelapp.service.UserService;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.example.travelapp.service.mapper.UserMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the visited places index against the JPQL query it replaces on H2,
+ * after a rebuild and after each kind of change made through the services. The
+ * index applies changes once they commit, so every change is committed with
+ * {@link TestTransaction} and the tables are emptied after each test.
+ */
+@DataJpaTest
+public class VisitedPlacesIndexConsistencyTest {
+
+    private static final int PLACES = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private RoutePlaceRepository routePlaceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private VisitedPlacesIndex index;
+    private RouteService routeService;
+    private PlaceService placeService;
+    private UserService userService;
+    private List<Long> placeIds;
+    private Long alice;
+    private Long bob;
+    private Long walkId;
+    private Long rideId;
+    private Long tourId;
+
+    @BeforeEach
+    void setUp() {
+        PlaceMapper placeMapper = new PlaceMapper();
+        RouteMapper routeMapper = new RouteMapper(placeMapper);
+        UserCache userCache = new UserCache(Runnable::run, "", 0);
+        RouteCache routeCache = new RouteCache();
+        index = new VisitedPlacesIndex(placeRepository, routePlaceRepository, transactionManager);
+        routeService = new RouteService(routeRepository, userRepository, placeRepository,
+                routePlaceRepository, routeMapper, userCache, routeCache,
+                new RouteJsonCache(routeCache, new ObjectMapper(), 1), index);
+        placeService = new PlaceService(placeRepository, placeMapper, routeRepository,
+                routePlaceRepository, routeMapper, userRepository, userCache, routeCache,
+                new PlaceCache(), new PlaceBatchWriter(entityManager.getEntityManager(), 1_000),
+                index);
+        userService = new UserService(userRepository, routeRepository,
+                new UserMapper(routeMapper), userCache, routeCache, index);
+
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < PLACES; i++) {
+            places.add(entityManager.persist(
+                    new Place(null, "Place " + i, i + " Main Street", "")));
+        }
+        placeIds = places.stream().map(Place::getId).toList();
+        User aliceUser = entityManager.persist(
+                new User(null, "Alice", "alice@example.com", new ArrayList<>()));
+        User bobUser = entityManager.persist(
+                new User(null, "Bob", "bob@example.com", new ArrayList<>()));
+        alice = aliceUser.getId();
+        bob = bobUser.getId();
+        walkId = entityManager.persist(new Route(null, "Walk", "", aliceUser,
+                List.of(places.get(0), places.get(1), places.get(2)))).getId();
+        rideId = entityManager.persist(new Route(null, "Ride", "", aliceUser,
+                List.of(places.get(2), places.get(3)))).getId();
+        tourId = entityManager.persist(new Route(null, "Tour", "", bobUser,
+                List.of(places.get(1)))).getId();
+        commit();
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        routePlaceRepository.deleteAllInBatch();
+        routeRepository.deleteAllInBatch();
+        placeRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    /** Commits the changes so far, which hands them to the index, and starts a new transaction. */
+    private void commit() {
+        entityManager.flush();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+    }
+
+    private void assertConsistent(Long... userIds) {
+        for (Long userId : userIds) {
+            List<Long> expected = placeRepository.findPlacesNotVisitedByUser(userId).stream()
+                    .map(Place::getId)
+                    .sorted()
+                    .toList();
+            List<Long> actual = Arrays.stream(index.findPlacesNotVisitedBy(userId))
+                    .asLongStream()
+                    .boxed()
+                    .toList();
+            assertEquals(expected, actual, "user " + userId);
+        }
+    }
+
+    private Long place(int index) {
+        return placeIds.get(index);
+    }
+
+    @Test
+    void rebuild_ShouldMatchQuery() {
+        // Assert
+        assertConsistent(alice, bob);
+        assertArrayEquals(new int[] {place(4).intValue(), place(5).intValue()},
+                index.findPlacesNotVisitedBy(alice));
+    }
+
+    @Test
+    void addAndRemovePlaces_ShouldMatchQuery() {
+        // Act & Assert
+        routeService.addPlaceToRoute(walkId, place(4));
+        commit();
+        assertConsistent(alice, bob);
+
+        routeService.removePlaceFromRoute(walkId, place(2));
+        commit();
+        assertConsistent(alice, bob);
+
+        routeService.removePlacesFromRoute(rideId, List.of(place(2), place(3)));
+        commit();
+        assertConsistent(alice, bob);
+    }
+
+    @Test
+    void batchChanges_ShouldMatchQuery() {
+        // Act & Assert
+        routeService.addPlacesToRoute(tourId, List.of(place(0), place(5)));
+        commit();
+        assertConsistent(alice, bob);
+
+        routeService.replaceRoutePlaces(walkId, List.of(place(5), place(1)));
+        commit();
+        assertConsistent(alice, bob);
+
+        routeService.replaceRoutePlaces(tourId, List.of(place(0), place(5), place(4)));
+        commit();
+        assertConsistent(alice, bob);
+    }
+
+    @Test
+    void routeChanges_ShouldMatchQuery() {
+        // Act & Assert
+        routeService.createRoute(new RouteRequestDto("Hike", "", bob, List.of(place(3))));
+        commit();
+        assertConsistent(alice, bob);
+
+        routeService.updateRoute(rideId, new RouteRequestDto("Ride", "", bob, null));
+        commit();
+        assertConsistent(alice, bob);
+
+        routeService.deleteRoute(walkId);
+        commit();
+        assertConsistent(alice, bob);
+    }
+
+    @Test
+    void placeAndUserChanges_ShouldMatchQuery() {
+        // Act & Assert
+        placeService.createPlace(new PlaceRequestDto("Harbour", "1 Quay Street", ""));
+        commit();
+        assertConsistent(alice, bob);
+
+        placeService.deletePlace(place(2));
+        commit();
+        assertConsistent(alice, bob);
+
+        userService.deleteUser(bob);
+        commit();
+        assertConsistent(alice, bob);
+    }
+}
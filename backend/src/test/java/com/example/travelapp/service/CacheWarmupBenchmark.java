@@ -0,0 +1,189 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.cache.CacheSnapshot;
+import com.example.travelapp.cache.LfuCache;
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.dto.response.PlaceResponseDto;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Time to warm and first-minute hit ratio of {@link PlaceCache} after a restart,
+ * cold and restored through {@link CacheWarmupService#warm} from the snapshot of
+ * a previous run. Traffic is Zipfian over {@link #PLACES} places; a first minute is
+ * {@link #FIRST_MINUTE_LOOKUPS} lookups, 1,000 per second. Misses spin for
+ * {@link #LOOKUP_MICROS} and every {@code findAllById} batch for
+ * {@link #BATCH_MICROS} plus {@link #ROW_MICROS} a row, standing in for database
+ * round trips. The cache counts as warm once a window of {@link #WINDOW} lookups
+ * reaches {@link #WARM_FRACTION} of the previous run's steady hit ratio. Not a unit
+ * test; run it manually with
+ * {@code java -cp <test-classpath> com.example.travelapp.service.CacheWarmupBenchmark}.
+ */
+public final class CacheWarmupBenchmark {
+
+    private static final int PLACES = 20_000;
+    private static final double ZIPF_EXPONENT = 0.9;
+    private static final int PREVIOUS_RUN_LOOKUPS = 200_000;
+    private static final int FIRST_MINUTE_LOOKUPS = 60_000;
+    private static final int SNAPSHOT_ENTRIES = 10_000;
+    private static final long LOOKUP_MICROS = 200;
+    private static final long BATCH_MICROS = 2_000;
+    private static final long ROW_MICROS = 5;
+    private static final int WINDOW = 1_000;
+    private static final double WARM_FRACTION = 0.95;
+
+    private CacheWarmupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("warmup-benchmark");
+        PlaceMapper placeMapper = new PlaceMapper();
+        CacheWarmupService warmupService = new CacheWarmupService(null, null, null, null,
+                null, null, null, null, placeMapper, Runnable::run, true, directory.toString(),
+                SNAPSHOT_ENTRIES);
+
+        PlaceCache previous = new PlaceCache();
+        double steady = serve(previous, zipf(1), PREVIOUS_RUN_LOOKUPS).steadyHitRatio();
+        CacheSnapshot.write(directory.resolve(previous.getName() + ".snapshot"),
+                previous.hottest(SNAPSHOT_ENTRIES));
+        System.out.printf("previous run: steady hit ratio %.3f, warm at %.3f%n",
+                steady, steady * WARM_FRACTION);
+
+        for (boolean withSnapshot : new boolean[] {false, true}) {
+            PlaceCache cache = new PlaceCache();
+            long start = System.nanoTime();
+            int restored = withSnapshot
+                    ? warmupService.warm(cache, places(), Place::getId,
+                            placeMapper::toResponseDto)
+                    : 0;
+            long restoreNanos = System.nanoTime() - start;
+            Run run = serve(cache, zipf(2), FIRST_MINUTE_LOOKUPS);
+            int warmWindow = run.firstWindowAtLeast(steady * WARM_FRACTION);
+            System.out.printf("%s: restored %d in %d ms, first-minute hit ratio %.3f, "
+                            + "warm after %s lookups, %s ms%n",
+                    withSnapshot ? "with snapshot" : "cold", restored,
+                    TimeUnit.NANOSECONDS.toMillis(restoreNanos), run.hitRatio(),
+                    warmWindow < 0 ? "> " + FIRST_MINUTE_LOOKUPS : (warmWindow + 1) * WINDOW,
+                    warmWindow < 0 ? "n/a" : TimeUnit.NANOSECONDS.toMillis(
+                            restoreNanos + run.elapsedUntil(warmWindow)));
+        }
+    }
+
+    /** Hits and elapsed time per window of {@link #WINDOW} lookups. */
+    private record Run(List<Integer> hits, List<Long> elapsed) {
+
+        double hitRatio() {
+            return hits.stream().mapToInt(Integer::intValue).sum()
+                    / (double) (hits.size() * WINDOW);
+        }
+
+        double steadyHitRatio() {
+            List<Integer> tail = hits.subList(hits.size() - hits.size() / 10, hits.size());
+            return tail.stream().mapToInt(Integer::intValue).sum()
+                    / (double) (tail.size() * WINDOW);
+        }
+
+        int firstWindowAtLeast(double hitRatio) {
+            for (int i = 0; i < hits.size(); i++) {
+                if (hits.get(i) >= hitRatio * WINDOW) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        long elapsedUntil(int window) {
+            return elapsed.get(window);
+        }
+    }
+
+    private static Run serve(LfuCache<PlaceResponseDto> cache, LongSupplier trace,
+                             int lookups) {
+        Function<Long, PlaceResponseDto> loader = id -> {
+            spin(LOOKUP_MICROS);
+            return new PlaceResponseDto(id, "Place " + id, id + " Main Street", "");
+        };
+        List<Integer> hits = new ArrayList<>();
+        List<Long> elapsed = new ArrayList<>();
+        long start = System.nanoTime();
+        int windowHits = 0;
+        for (int i = 1; i <= lookups; i++) {
+            long id = trace.getAsLong();
+            if (cache.get(id) != null) {
+                windowHits++;
+            } else {
+                cache.get(id, loader);
+            }
+            if (i % WINDOW == 0) {
+                hits.add(windowHits);
+                elapsed.add(System.nanoTime() - start);
+                windowHits = 0;
+            }
+        }
+        return new Run(hits, elapsed);
+    }
+
+    /** A repository whose {@code findAllById} returns every id it is given. */
+    @SuppressWarnings("unchecked")
+    private static JpaRepository<Place, Long> places() {
+        return (JpaRepository<Place, Long>) Proxy.newProxyInstance(
+                CacheWarmupBenchmark.class.getClassLoader(),
+                new Class<?>[] {JpaRepository.class},
+                (proxy, method, methodArgs) -> {
+                    if (!method.getName().equals("findAllById")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<Place> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) methodArgs[0]) {
+                        Long placeId = (Long) id;
+                        found.add(new Place(placeId, "Place " + placeId,
+                                placeId + " Main Street", ""));
+                    }
+                    spin(BATCH_MICROS + ROW_MICROS * found.size());
+                    return found;
+                });
+    }
+
+    private static LongSupplier zipf(long seed) {
+        double[] cumulative = new double[PLACES];
+        double sum = 0;
+        for (int i = 0; i < PLACES; i++) {
+            sum += 1.0 / Math.pow(i + 1, ZIPF_EXPONENT);
+            cumulative[i] = sum;
+        }
+        double total = sum;
+        Random random = new Random(seed);
+        return () -> {
+            double target = random.nextDouble() * total;
+            int low = 0;
+            int high = PLACES - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low + 1;
+        };
+    }
+
+    private static void spin(long micros) {
+        long until = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(micros);
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+}
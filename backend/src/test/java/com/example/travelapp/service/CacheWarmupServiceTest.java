@@ -0,0 +1,97 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.cache.CacheSnapshot;
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.example.travelapp.service.mapper.UserMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheWarmupServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private PlaceRepository placeRepository;
+
+    @TempDir
+    Path directory;
+
+    private CacheWarmupService serviceWith(PlaceCache placeCache) {
+        PlaceMapper placeMapper = new PlaceMapper();
+        RouteMapper routeMapper = new RouteMapper(placeMapper);
+        return new CacheWarmupService(new UserCache(Runnable::run, "", 0), new RouteCache(),
+                placeCache, userRepository, routeRepository, placeRepository,
+                new UserMapper(routeMapper), routeMapper, placeMapper, Runnable::run, true,
+                directory.toString(), 10_000);
+    }
+
+    @Test
+    void warm_ShouldPreloadSnapshotIdsInBatches() throws Exception {
+        // Arrange
+        Map<Long, Integer> frequencies = new LinkedHashMap<>();
+        List<Place> places = new ArrayList<>();
+        for (long id = 1; id <= 600; id++) {
+            frequencies.put(id, 10);
+            places.add(new Place(id, "Place " + id, "Address", ""));
+        }
+        CacheSnapshot.write(directory.resolve("places.snapshot"), frequencies);
+        when(placeRepository.findAllById(anyIterable())).thenAnswer(inv -> {
+            List<Place> found = new ArrayList<>();
+            inv.<Iterable<Long>>getArgument(0).forEach(id -> found.add(places.get((int) (id - 1))));
+            return found;
+        });
+        PlaceCache placeCache = new PlaceCache();
+        CacheWarmupService service = serviceWith(placeCache);
+
+        // Act
+        int restored = service.warm(placeCache, placeRepository, Place::getId,
+                new PlaceMapper()::toResponseDto);
+
+        // Assert
+        assertEquals(600, restored);
+        assertEquals("Place 42", placeCache.get(42L).getName());
+        verify(placeRepository, times(2)).findAllById(anyIterable());
+    }
+
+    @Test
+    void writeSnapshots_ShouldPersistHottestIds() throws Exception {
+        // Arrange
+        PlaceCache placeCache = new PlaceCache();
+        CacheWarmupService service = serviceWith(placeCache);
+        placeCache.put(7L, new PlaceMapper().toResponseDto(
+                new Place(7L, "Museum", "1 Museum Street", "")));
+
+        // Act
+        service.writeSnapshots();
+
+        // Assert
+        Map<Long, Integer> snapshot = CacheSnapshot.read(directory.resolve("places.snapshot"));
+        assertEquals(List.of(7L), List.copyOf(snapshot.keySet()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.User;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports a million synthetic routes in a child JVM capped at {@link #MAX_HEAP}.
+ * The rows, their DTOs and the JSON would need several hundred megabytes if any of
+ * them were retained, so finishing at all shows that the export streams.
+ */
+public class ExportMemoryTest {
+
+    private static final String MAX_HEAP = "32m";
+    private static final long ROWS = 1_000_000;
+    private static final int PLACES_PER_ROUTE = 3;
+
+    @Test
+    void exportRoutes_WithMillionRows_ShouldFitInSmallHeap() throws Exception {
+        // Act
+        String output = ForkedJvm.run(Export.class, MAX_HEAP);
+
+        // Assert
+        assertTrue(output.endsWith(String.valueOf(ROWS)), output);
+    }
+
+    /** Runs in the child JVM and prints the number of routes written. */
+    public static final class Export {
+
+        public static void main(String[] args) {
+            ExportService exportService = new ExportService(routeRepository(),
+                    ForkedJvm.stub(PlaceRepository.class, Map.of()),
+                    new RouteMapper(new PlaceMapper()), new PlaceMapper(),
+                    ForkedJvm.stub(EntityManager.class, Map.of()),
+                    new ForkedJvm.NoOpTransactionManager(), new ObjectMapper());
+            DiscardingOutputStream out = new DiscardingOutputStream();
+            long written = exportService.exportRoutes(out);
+            if (out.bytes < written * 100) {
+                throw new IllegalStateException("only " + out.bytes + " bytes written");
+            }
+            System.out.println(written);
+        }
+
+        private static RouteRepository routeRepository() {
+            User author = new User(1L, "Author", "author@example.com", new ArrayList<>());
+            return ForkedJvm.stub(RouteRepository.class, Map.of("streamAll", args ->
+                    LongStream.rangeClosed(1, ROWS).mapToObj(id -> {
+                        List<Place> places = new ArrayList<>();
+                        for (int p = 0; p < PLACES_PER_ROUTE; p++) {
+                            long placeId = id * PLACES_PER_ROUTE + p;
+                            places.add(new Place(placeId, "Place " + placeId,
+                                    placeId + " Main Street", "Synthetic place"));
+                        }
+                        return new Route(id, "Route " + id, "Synthetic route", author, places);
+                    })));
+        }
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.RoutePlace;
+import com.example.travelapp.model.dto.response.PlaceResponseDto;
+import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceUnitTest {
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private PlaceRepository placeRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        PlaceMapper placeMapper = new PlaceMapper();
+        exportService = new ExportService(routeRepository, placeRepository,
+                new RouteMapper(placeMapper), placeMapper, entityManager, transactionManager,
+                objectMapper);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void exportRoutes_ShouldWriteJsonArrayAndDetachEachRoute() throws IOException {
+        // Arrange
+        Place park = new Place(5L, "Park", "2 Park Avenue", "");
+        Route walk = new Route(1L, "Walk", "", null, new ArrayList<>(List.of(park)));
+        Route ride = new Route(2L, "Ride", "", null, new ArrayList<>());
+        AtomicBoolean closed = new AtomicBoolean();
+        when(routeRepository.streamAll())
+                .thenReturn(Stream.of(walk, ride).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long written = exportService.exportRoutes(out);
+
+        // Assert
+        RouteResponseDto[] routes = objectMapper.readValue(out.toByteArray(),
+                RouteResponseDto[].class);
+        assertEquals(2, written);
+        assertEquals(2, routes.length);
+        assertEquals("Park", routes[0].getPlaces().get(0).getName());
+        assertEquals(2L, routes[1].getId());
+        verify(entityManager).detach(walk);
+        verify(entityManager).detach(ride);
+        verify(transactionManager).commit(any());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportPlaces_WhenTableEmpty_ShouldWriteEmptyArray() throws IOException {
+        // Arrange
+        when(placeRepository.streamAll()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long written = exportService.exportPlaces(out);
+
+        // Assert
+        assertEquals(0, written);
+        assertEquals(0, objectMapper.readValue(out.toByteArray(),
+                PlaceResponseDto[].class).length);
+    }
+
+    @Test
+    void exportRoutes_WhenMappingFails_ShouldRollBackAndCloseStream() {
+        // Arrange
+        Route broken = new Route(1L, "Walk", "", null, new ArrayList<>());
+        broken.getStops().add(new RoutePlace());
+        AtomicBoolean closed = new AtomicBoolean();
+        when(routeRepository.streamAll())
+                .thenReturn(Stream.of(broken).onClose(() -> closed.set(true)));
+
+        // Act & Assert
+        assertThrows(NullPointerException.class,
+                () -> exportService.exportRoutes(new ByteArrayOutputStream()));
+        verify(transactionManager).rollback(any());
+        assertTrue(closed.get());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.travelapp.service;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a {@code main} class from the test classpath in a child JVM with a capped heap,
+ * and provides hand-written doubles for it. Mockito is not used there because it
+ * records every invocation, which would itself exhaust a small heap.
+ */
+final class ForkedJvm {
+
+    private ForkedJvm() {
+    }
+
+    /** Runs {@code mainClass} with {@code -Xmx<maxHeap>}; returns its trimmed output. */
+    static String run(Class<?> mainClass, String maxHeap) throws Exception {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Process process = new ProcessBuilder(java.toString(), "-Xmx" + maxHeap,
+                "-cp", System.getProperty("java.class.path"), mainClass.getName())
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8).trim();
+        assertTrue(process.waitFor(5, TimeUnit.MINUTES), mainClass.getSimpleName()
+                + " did not finish");
+        assertEquals(0, process.exitValue(), output);
+        return output;
+    }
+
+    /**
+     * Proxy answering the named methods with the given functions of their arguments;
+     * every other method returns null.
+     */
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName();
+                    default -> answers.containsKey(method.getName())
+                            ? answers.get(method.getName()).apply(args) : null;
+                }));
+    }
+
+    static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
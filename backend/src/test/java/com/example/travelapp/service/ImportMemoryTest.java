@@ -0,0 +1,101 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.index.VisitedPlacesIndex;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.dto.response.ImportReportDto;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RoutePlaceRepository;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Imports a million newline-delimited places in a child JVM capped at
+ * {@link #MAX_HEAP}, with every thousandth line invalid. The upload alone is over
+ * 80 MB, so finishing shows that lines are consumed as they are read.
+ */
+public class ImportMemoryTest {
+
+    private static final String MAX_HEAP = "32m";
+    private static final long LINES = 1_000_000;
+    private static final long INVALID_EVERY = 1_000;
+    private static final int MAX_ERRORS = 100;
+
+    @Test
+    void importPlaces_WithMillionLines_ShouldFitInSmallHeap() throws Exception {
+        // Act
+        String output = ForkedJvm.run(Import.class, MAX_HEAP);
+
+        // Assert
+        long invalid = LINES / INVALID_EVERY;
+        assertTrue(output.endsWith(LINES + " " + (LINES - invalid) + " " + MAX_ERRORS + " true"),
+                output);
+    }
+
+    /** Runs in the child JVM and prints processed, imported, listed errors, truncated. */
+    public static final class Import {
+
+        public static void main(String[] args) {
+            long[] nextId = {1};
+            EntityManager entityManager = ForkedJvm.stub(EntityManager.class, Map.of(
+                    "persist", persistArgs -> {
+                        ((Place) persistArgs[0]).setId(nextId[0]++);
+                        return null;
+                    }));
+            PlaceMapper placeMapper = new PlaceMapper();
+            ForkedJvm.NoOpTransactionManager transactionManager =
+                    new ForkedJvm.NoOpTransactionManager();
+            ImportService importService = new ImportService(
+                    new PlaceBatchWriter(entityManager, 1_000), placeMapper,
+                    ForkedJvm.stub(PlaceRepository.class, Map.of()),
+                    ForkedJvm.stub(RouteRepository.class, Map.of()),
+                    ForkedJvm.stub(UserRepository.class, Map.of()),
+                    new RouteMapper(placeMapper), new PlaceCache(), new RouteCache(),
+                    new UserCache(Runnable::run, "", 0),
+                    new VisitedPlacesIndex(ForkedJvm.stub(PlaceRepository.class, Map.of()),
+                            ForkedJvm.stub(RoutePlaceRepository.class, Map.of()),
+                            transactionManager),
+                    entityManager, transactionManager, new ObjectMapper(),
+                    Validation.buildDefaultValidatorFactory().getValidator(), 1_000, MAX_ERRORS);
+            ImportReportDto report = importService.importPlaces(new SyntheticPlaces());
+            System.out.println(report.getProcessed() + " " + report.getImported() + " "
+                    + report.getErrors().size() + " " + report.isErrorsTruncated());
+        }
+    }
+
+    /** Generates the upload one line at a time. */
+    private static final class SyntheticPlaces extends InputStream {
+        private long line;
+        private byte[] current = new byte[0];
+        private int position;
+
+        @Override
+        public int read() {
+            if (position == current.length) {
+                if (line == LINES) {
+                    return -1;
+                }
+                line++;
+                String name = line % INVALID_EVERY == 0 ? "x" : "Place " + line;
+                current = ("{\"name\":\"" + name + "\",\"address\":\"" + line
+                        + " Main Street\",\"description\":\"Synthetic place\"}\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            return current[position++];
+        }
+    }
+}
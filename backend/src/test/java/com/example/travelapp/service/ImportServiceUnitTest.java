@@ -0,0 +1,234 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.exception.ErrorMessages;
+import com.example.travelapp.index.VisitedPlacesIndex;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.User;
+import com.example.travelapp.model.dto.response.ImportErrorDto;
+import com.example.travelapp.model.dto.response.ImportReportDto;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ImportServiceUnitTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final int MAX_ERRORS = 3;
+
+    @Mock
+    private PlaceBatchWriter placeBatchWriter;
+
+    @Mock
+    private PlaceRepository placeRepository;
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlaceCache placeCache;
+
+    @Mock
+    private RouteCache routeCache;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private VisitedPlacesIndex visitedPlacesIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        PlaceMapper placeMapper = new PlaceMapper();
+        importService = new ImportService(placeBatchWriter, placeMapper, placeRepository,
+                routeRepository, userRepository, new RouteMapper(placeMapper), placeCache,
+                routeCache, userCache, visitedPlacesIndex, entityManager, transactionManager,
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), CHUNK_SIZE,
+                MAX_ERRORS);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        AtomicLong nextId = new AtomicLong(100);
+        when(placeBatchWriter.persistAll(anyList())).thenAnswer(inv -> {
+            List<Place> places = inv.getArgument(0);
+            places.forEach(place -> place.setId(nextId.getAndIncrement()));
+            return places;
+        });
+    }
+
+    private static InputStream lines(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String place(String name) {
+        return "{\"name\":\"" + name + "\",\"address\":\"2 Park Avenue\"}";
+    }
+
+    @Test
+    void importPlaces_ShouldReportInvalidLinesAndSaveTheRest() {
+        // Act
+        ImportReportDto report = importService.importPlaces(lines(
+                place("Park"),
+                "",
+                "{\"name\": ",
+                place("x"),
+                place("Museum")));
+
+        // Assert
+        assertEquals(4, report.getProcessed());
+        assertEquals(2, report.getImported());
+        assertFalse(report.isErrorsTruncated());
+        List<ImportErrorDto> errors = report.getErrors();
+        assertEquals(2, errors.size());
+        assertEquals(3, errors.get(0).getLine());
+        assertTrue(errors.get(0).getMessage().startsWith(ImportService.INVALID_JSON));
+        assertEquals(4, errors.get(1).getLine());
+        assertEquals(ImportService.VALIDATION_FAILED
+                + "Name must be between 3 and 25 characters", errors.get(1).getMessage());
+        verify(placeCache).remove(100L);
+        verify(placeCache).remove(101L);
+    }
+
+    @Test
+    void importPlaces_ShouldWriteOneTransactionPerChunk() {
+        // Act
+        ImportReportDto report = importService.importPlaces(lines(
+                place("Park"), place("Museum"), place("Library"), place("Garden"),
+                place("Castle")));
+
+        // Assert
+        assertEquals(5, report.getImported());
+        verify(placeBatchWriter, times(3)).persistAll(anyList());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void importPlaces_WhenChunkFails_ShouldReportItsLinesAndContinue() {
+        // Arrange
+        when(placeBatchWriter.persistAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        ImportReportDto report = importService.importPlaces(lines(
+                place("Park"), place("Museum"), place("Library")));
+
+        // Assert
+        assertEquals(1, report.getImported());
+        assertEquals(List.of(1L, 2L), report.getErrors().stream()
+                .map(ImportErrorDto::getLine).toList());
+        assertEquals(ImportService.SAVE_FAILED, report.getErrors().get(0).getMessage());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void importPlaces_WhenTooManyErrors_ShouldTruncateReport() {
+        // Act
+        ImportReportDto report = importService.importPlaces(lines(
+                "{", "{", "{", "{", place("Park")));
+
+        // Assert
+        assertEquals(MAX_ERRORS, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+        assertEquals(1, report.getImported());
+    }
+
+    @Test
+    void importRoutes_ShouldRejectUnknownAuthorsAndPlaces() {
+        // Arrange
+        User author = new User(1L, "Author", "author@example.com", new ArrayList<>());
+        Place park = new Place(10L, "Park", "2 Park Avenue", "");
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(author));
+        when(placeRepository.findAllById(anyIterable())).thenReturn(List.of(park));
+        when(routeRepository.saveAll(anyIterable())).thenAnswer(inv -> {
+            List<Route> routes = inv.getArgument(0);
+            routes.forEach(route -> route.setId(500L));
+            return routes;
+        });
+
+        // Act
+        ImportReportDto report = importService.importRoutes(lines(
+                "{\"name\":\"Walk\",\"authorId\":1,\"placeIds\":[10]}",
+                "{\"name\":\"Ride\",\"authorId\":2,\"placeIds\":[10]}",
+                "{\"name\":\"Tour\",\"authorId\":1,\"placeIds\":[10,11]}",
+                "{\"name\":\"Hike\"}"));
+
+        // Assert
+        assertEquals(4, report.getProcessed());
+        assertEquals(1, report.getImported());
+        List<ImportErrorDto> errors = report.getErrors();
+        assertEquals(ErrorMessages.USER_NOT_FOUND, errors.get(0).getMessage());
+        assertEquals(ErrorMessages.PLACE_NOT_FOUND + ": [11]", errors.get(1).getMessage());
+        assertEquals(ImportService.VALIDATION_FAILED + "authorId is required",
+                errors.get(2).getMessage());
+        verify(routeCache).remove(500L);
+        verify(userCache).remove(1L);
+    }
+
+    @Test
+    void importRoutes_WithRepeatedPlaceId_ShouldSaveThePlaceOnce() {
+        // Arrange
+        User author = new User(1L, "Author", "author@example.com", new ArrayList<>());
+        Place park = new Place(10L, "Park", "2 Park Avenue", "");
+        Place museum = new Place(11L, "Museum", "1 Museum Street", "");
+        List<Route> saved = new ArrayList<>();
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(author));
+        when(placeRepository.findAllById(anyIterable())).thenReturn(List.of(park, museum));
+        when(routeRepository.saveAll(anyIterable())).thenAnswer(inv -> {
+            List<Route> routes = inv.getArgument(0);
+            routes.forEach(route -> route.setId(500L));
+            saved.addAll(routes);
+            return routes;
+        });
+
+        // Act
+        ImportReportDto report = importService.importRoutes(lines(
+                "{\"name\":\"Walk\",\"authorId\":1,\"placeIds\":[10,11,10]}"));
+
+        // Assert
+        assertEquals(1, report.getImported());
+        assertTrue(report.getErrors().isEmpty());
+        assertEquals(List.of(park, museum), saved.get(0).getPlaces());
+        assertEquals(2, saved.get(0).getPlaceCount());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.exception.BadRequestException;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageCursorTest {
+
+    @Test
+    void decode_WhenCursorMissing_ShouldStartBeforeFirstId() {
+        // Act & Assert
+        assertEquals(0L, PageCursor.decode("users", null));
+        assertEquals(0L, PageCursor.decode("users", " "));
+    }
+
+    @Test
+    void decode_ShouldReturnEncodedId() {
+        // Arrange
+        String cursor = PageCursor.encode("routes", 1234L);
+
+        // Act
+        long id = PageCursor.decode("routes", cursor);
+
+        // Assert
+        assertEquals(1234L, id);
+        assertFalse(cursor.contains("routes"));
+    }
+
+    @Test
+    void decode_WhenCursorIsNotBase64_ShouldThrowBadRequest() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> PageCursor.decode("places", "%%%"));
+        assertEquals(PageCursor.INVALID_CURSOR, exception.getMessage());
+    }
+
+    @Test
+    void decode_WhenIdIsNotNumeric_ShouldThrowBadRequest() {
+        // Arrange
+        String cursor = Base64.getUrlEncoder().encodeToString("places:abc".getBytes());
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> PageCursor.decode("places", cursor));
+    }
+
+    @Test
+    void checkSize_WhenOutOfRange_ShouldThrowBadRequest() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> PageCursor.checkSize(0));
+        assertThrows(BadRequestException.class,
+                () -> PageCursor.checkSize(PageCursor.MAX_PAGE_SIZE + 1));
+        PageCursor.checkSize(PageCursor.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void nextCursor_ShouldPointAtLastRowOfTrimmedPage() {
+        // Arrange
+        List<Long> rows = List.of(3L, 5L, 8L);
+
+        // Act
+        List<Long> page = PageCursor.trim(rows, 2);
+        String next = PageCursor.nextCursor("places", rows, 2, id -> id);
+
+        // Assert
+        assertEquals(List.of(3L, 5L), page);
+        assertEquals(5L, PageCursor.decode("places", next));
+        assertNull(PageCursor.nextCursor("places", rows, 3, id -> id));
+    }
+}
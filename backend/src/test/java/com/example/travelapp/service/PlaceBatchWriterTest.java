@@ -0,0 +1,62 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.model.Place;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlaceBatchWriterTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    private static List<Place> places(int count) {
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            places.add(new Place(null, "Place " + i, i + " Main Street", ""));
+        }
+        return places;
+    }
+
+    @Test
+    void persistAll_ShouldFlushAndClearEveryInterval() {
+        // Arrange
+        PlaceBatchWriter writer = new PlaceBatchWriter(entityManager, 2);
+        List<Place> places = places(5);
+
+        // Act
+        List<Place> persisted = writer.persistAll(places);
+
+        // Assert
+        assertSame(places, persisted);
+        InOrder inOrder = inOrder(entityManager);
+        inOrder.verify(entityManager).persist(places.get(0));
+        inOrder.verify(entityManager).persist(places.get(1));
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).clear();
+        inOrder.verify(entityManager).persist(places.get(2));
+        inOrder.verify(entityManager).persist(places.get(3));
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).clear();
+        inOrder.verify(entityManager).persist(places.get(4));
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).clear();
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void constructor_WhenIntervalNotPositive_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new PlaceBatchWriter(entityManager, 0));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.repository.RouteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlaceCountReconcilerTest {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PlaceCountReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new PlaceCountReconciler(routeRepository, transactionManager, BATCH_SIZE);
+    }
+
+    @Test
+    void reconcile_ShouldRepairEachIdRangeInItsOwnTransaction() {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(routeRepository.findMaxId()).thenReturn(25_000L);
+        when(routeRepository.reconcilePlaceCounts(0L, 10_000L)).thenReturn(2);
+        when(routeRepository.reconcilePlaceCounts(10_000L, 20_000L)).thenReturn(0);
+        when(routeRepository.reconcilePlaceCounts(20_000L, 30_000L)).thenReturn(1);
+
+        // Act
+        int repaired = reconciler.reconcile();
+
+        // Assert
+        assertEquals(3, repaired);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void reconcile_WhenNoRoutes_ShouldDoNothing() {
+        // Arrange
+        when(routeRepository.findMaxId()).thenReturn(null);
+
+        // Act
+        int repaired = reconciler.reconcile();
+
+        // Assert
+        assertEquals(0, repaired);
+        verify(routeRepository, never()).reconcilePlaceCounts(any(), any());
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -1,26 +1,38 @@
 package com.example.travelapp.service;
 
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.exception.BadRequestException;
 import com.example.travelapp.exception.ErrorMessages;
 import com.example.travelapp.exception.NotFoundException;
+import com.example.travelapp.index.VisitedPlacesIndex;
 import com.example.travelapp.model.Place;
 import com.example.travelapp.model.Route;
 import com.example.travelapp.model.dto.request.PlaceRequestDto;
+import com.example.travelapp.model.dto.response.PageResponseDto;
 import com.example.travelapp.model.dto.response.PlaceResponseDto;
 import com.example.travelapp.model.dto.response.RouteResponseDto;
 import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RoutePlaceRepository;
 import com.example.travelapp.repository.RouteRepository;
 import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.repository.projection.PlaceRow;
+import com.example.travelapp.repository.projection.RouteRow;
 import com.example.travelapp.service.mapper.PlaceMapper;
 import com.example.travelapp.service.mapper.RouteMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,22 +49,45 @@ public class PlaceServiceUnitTest {
     @Mock
     private RouteRepository routeRepository;
 
+    @Mock
+    private RoutePlaceRepository routePlaceRepository;
+
     @Mock
     private RouteMapper routeMapper;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private RouteCache routeCache;
+
+    @Mock
+    private PlaceCache placeCache;
+
+    @Mock
+    private PlaceBatchWriter placeBatchWriter;
+
+    @Mock
+    private VisitedPlacesIndex visitedPlacesIndex;
+
     @InjectMocks
     private PlaceService placeService;
 
+    private void givenCacheMiss(Long id) {
+        when(placeCache.get(eq(id), any())).thenAnswer(inv ->
+                inv.<Function<Long, PlaceResponseDto>>getArgument(1).apply(id));
+    }
+
     @Test
     void getAllPlaces_ShouldReturnListOfPlaces() {
         // Arrange
-        Place place = new Place();
-        PlaceResponseDto dto = new PlaceResponseDto();
-        when(placeRepository.findAll()).thenReturn(List.of(place));
-        when(placeMapper.toResponseDto(place)).thenReturn(dto);
+        PlaceRow row = new PlaceRow(1L, "Park", "2 Park Avenue", "");
+        PlaceResponseDto dto = new PlaceResponseDto(1L, "Park", "2 Park Avenue", "");
+        when(placeRepository.findAllRows()).thenReturn(List.of(row));
+        when(placeMapper.toResponseDto(row)).thenReturn(dto);
 
         // Act
         List<PlaceResponseDto> result = placeService.getAllPlaces();
@@ -60,7 +95,53 @@ public class PlaceServiceUnitTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(dto, result.get(0));
-        verify(placeRepository).findAll();
+        verify(placeRepository, never()).findAll();
+    }
+
+    @Test
+    void getPlacesPage_WhenMoreRowsExist_ShouldReturnCursorAfterLastItem() {
+        // Arrange
+        PlaceRow first = new PlaceRow(4L, "Park", "", "");
+        PlaceRow second = new PlaceRow(7L, "Museum", "", "");
+        PlaceRow extra = new PlaceRow(9L, "Zoo", "", "");
+        when(placeRepository.findRowsAfter(0L, Limit.of(3)))
+                .thenReturn(List.of(first, second, extra));
+        when(placeMapper.toResponseDto(any(PlaceRow.class)))
+                .thenReturn(new PlaceResponseDto(1L, "Park", "2 Park Avenue", ""));
+
+        // Act
+        PageResponseDto<PlaceResponseDto> page = placeService.getPlacesPage(null, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals(PageCursor.encode("places", 7L), page.getNextCursor());
+        verify(placeMapper, never()).toResponseDto(extra);
+    }
+
+    @Test
+    void getPlacesPage_WhenLastPage_ShouldReturnNoCursor() {
+        // Arrange
+        String cursor = PageCursor.encode("places", 7L);
+        when(placeRepository.findRowsAfter(7L, Limit.of(3)))
+                .thenReturn(List.of(new PlaceRow(9L, "Zoo", "", "")));
+        when(placeMapper.toResponseDto(any(PlaceRow.class)))
+                .thenReturn(new PlaceResponseDto(1L, "Park", "2 Park Avenue", ""));
+
+        // Act
+        PageResponseDto<PlaceResponseDto> page = placeService.getPlacesPage(cursor, 2);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getPlacesPage_WhenSizeAboveCap_ShouldThrowBadRequest() {
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> placeService.getPlacesPage(null, PageCursor.MAX_PAGE_SIZE + 1));
+        assertEquals(PageCursor.INVALID_PAGE_SIZE, exception.getMessage());
+        verifyNoInteractions(placeRepository);
     }
 
     @Test
@@ -68,7 +149,7 @@ public class PlaceServiceUnitTest {
         // Arrange
         Long userId = 1L;
         Place place = new Place();
-        PlaceResponseDto dto = new PlaceResponseDto();
+        PlaceResponseDto dto = new PlaceResponseDto(1L, "Park", "2 Park Avenue", "");
 
         when(userRepository.existsById(userId)).thenReturn(true);
         when(placeRepository.findPlacesNotVisitedByUser(userId)).thenReturn(List.of(place));
@@ -83,6 +164,48 @@ public class PlaceServiceUnitTest {
         verify(userRepository).existsById(userId);
     }
 
+    @Test
+    void findPlacesNotVisitedByUser_WhenIndexReady_ShouldScanIdRangeOnce() {
+        // Arrange
+        Long userId = 1L;
+        PlaceRow park = new PlaceRow(1L, "Park", "2 Park Avenue", "");
+        PlaceRow visited = new PlaceRow(2L, "Museum", "1 Museum Street", "");
+        PlaceRow library = new PlaceRow(5_000L, "Library", "3 Book Lane", "");
+        PlaceResponseDto parkDto = new PlaceResponseDto(1L, "Park", "2 Park Avenue", "");
+        PlaceResponseDto libraryDto = new PlaceResponseDto(5_000L, "Library", "3 Book Lane", "");
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(visitedPlacesIndex.findPlacesNotVisitedBy(userId)).thenReturn(new int[] {1, 5_000});
+        when(placeRepository.findRowsByIdBetween(1L, 5_000L))
+                .thenReturn(List.of(park, visited, library));
+        when(placeMapper.toResponseDto(park)).thenReturn(parkDto);
+        when(placeMapper.toResponseDto(library)).thenReturn(libraryDto);
+
+        // Act
+        List<PlaceResponseDto> result = placeService.findPlacesNotVisitedByUser(userId);
+
+        // Assert
+        assertEquals(List.of(parkDto, libraryDto), result);
+        verify(placeRepository, times(1)).findRowsByIdBetween(1L, 5_000L);
+        verify(placeRepository, never()).findPlacesNotVisitedByUser(any());
+    }
+
+    @Test
+    void findPlacesNotVisitedByUser_WhenUserVisitedEverything_ShouldNotQuery() {
+        // Arrange
+        Long userId = 1L;
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(visitedPlacesIndex.findPlacesNotVisitedBy(userId)).thenReturn(new int[0]);
+
+        // Act
+        List<PlaceResponseDto> result = placeService.findPlacesNotVisitedByUser(userId);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(placeRepository, never()).findRowsByIdBetween(any(), any());
+        verify(placeRepository, never()).findPlacesNotVisitedByUser(any());
+    }
+
     @Test
     void findPlacesNotVisitedByUser_WhenUserNotExists_ShouldThrowException() {
         // Arrange
@@ -101,8 +224,9 @@ public class PlaceServiceUnitTest {
         // Arrange
         Long id = 1L;
         Place place = new Place();
-        PlaceResponseDto dto = new PlaceResponseDto();
+        PlaceResponseDto dto = new PlaceResponseDto(1L, "Park", "2 Park Avenue", "");
 
+        givenCacheMiss(id);
         when(placeRepository.findById(id)).thenReturn(Optional.of(place));
         when(placeMapper.toResponseDto(place)).thenReturn(dto);
 
@@ -118,6 +242,7 @@ public class PlaceServiceUnitTest {
     void getPlaceById_WhenPlaceNotExists_ShouldThrowException() {
         // Arrange
         Long id = 1L;
+        givenCacheMiss(id);
         when(placeRepository.findById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -131,12 +256,11 @@ public class PlaceServiceUnitTest {
     void getRoutesByPlace_WhenPlaceExists_ShouldReturnRoutes() {
         // Arrange
         Long id = 1L;
-        Place place = new Place();
         Route route = new Route();
-        RouteResponseDto dto = new RouteResponseDto();
-        place.setRoutes(List.of(route));
+        RouteResponseDto dto = new RouteResponseDto(3L, "Walk", "", 7L, List.of());
 
-        when(placeRepository.findById(id)).thenReturn(Optional.of(place));
+        when(placeRepository.existsById(id)).thenReturn(true);
+        when(routeRepository.findAllByPlaceId(id)).thenReturn(List.of(route));
         when(routeMapper.toResponseDto(route)).thenReturn(dto);
 
         // Act
@@ -145,7 +269,7 @@ public class PlaceServiceUnitTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(dto, result.get(0));
-        verify(placeRepository).findById(id);
+        verify(placeRepository, never()).findById(id);
     }
 
     @Test
@@ -154,7 +278,7 @@ public class PlaceServiceUnitTest {
         PlaceRequestDto requestDto = new PlaceRequestDto();
         Place place = new Place();
         Place savedPlace = new Place();
-        PlaceResponseDto responseDto = new PlaceResponseDto();
+        PlaceResponseDto responseDto = new PlaceResponseDto(51L, "Park", "2 Park Avenue", "");
 
         when(placeMapper.toEntity(requestDto)).thenReturn(place);
         when(placeRepository.save(place)).thenReturn(savedPlace);
@@ -168,13 +292,41 @@ public class PlaceServiceUnitTest {
         verify(placeRepository).save(place);
     }
 
+    @Test
+    void createPlaces_ShouldPersistAllInOneBatchAndEvictNewIds() {
+        // Arrange
+        PlaceRequestDto first = new PlaceRequestDto("Park", "2 Park Avenue", "");
+        PlaceRequestDto second = new PlaceRequestDto("Museum", "1 Museum Street", "");
+        Place park = new Place(51L, "Park", "2 Park Avenue", "");
+        Place museum = new Place(52L, "Museum", "1 Museum Street", "");
+        PlaceResponseDto parkDto = new PlaceResponseDto(51L, "Park", "2 Park Avenue", "");
+        PlaceResponseDto museumDto = new PlaceResponseDto(52L, "Museum", "1 Museum Street", "");
+        when(placeMapper.toEntity(first)).thenReturn(park);
+        when(placeMapper.toEntity(second)).thenReturn(museum);
+        when(placeBatchWriter.persistAll(List.of(park, museum))).thenReturn(List.of(park, museum));
+        when(placeMapper.toResponseDto(park)).thenReturn(parkDto);
+        when(placeMapper.toResponseDto(museum)).thenReturn(museumDto);
+
+        // Act
+        List<PlaceResponseDto> result = placeService.createPlaces(List.of(first, second));
+
+        // Assert
+        assertEquals(List.of(parkDto, museumDto), result);
+        verify(placeBatchWriter, times(1)).persistAll(anyList());
+        verify(placeRepository, never()).save(any(Place.class));
+        verify(placeCache).remove(51L);
+        verify(placeCache).remove(52L);
+        verify(placeCache, never()).put(anyLong(), any());
+    }
+
     @Test
     void updatePlace_WhenPlaceExists_ShouldUpdateAndReturnPlace() {
         // Arrange
         Long id = 1L;
         PlaceRequestDto requestDto = new PlaceRequestDto("New Name", "New Address", "New Desc");
         Place place = new Place();
-        PlaceResponseDto responseDto = new PlaceResponseDto();
+        PlaceResponseDto responseDto =
+                new PlaceResponseDto(1L, "New Name", "New Address", "New Desc");
 
         when(placeRepository.findById(id)).thenReturn(Optional.of(place));
         when(placeRepository.save(place)).thenReturn(place);
@@ -195,22 +347,67 @@ public class PlaceServiceUnitTest {
     void deletePlace_WhenPlaceExists_ShouldDeletePlace() {
         // Arrange
         Long id = 1L;
-        Place place = new Place();
-        Route route = new Route();
 
-        // Создаем изменяемые коллекции
-        place.setRoutes(new ArrayList<>(List.of(route)));
-        route.setPlaces(new ArrayList<>(List.of(place)));
+        when(placeRepository.existsById(id)).thenReturn(true);
+        when(routeRepository.findRowsByPlaceId(eq(id), any(Limit.class)))
+                .thenReturn(List.of(new RouteRow(3L, "Walk", "", 7L)));
 
-        when(placeRepository.findById(id)).thenReturn(Optional.of(place));
-        when(routeRepository.save(route)).thenReturn(route);
+        // Act
+        placeService.deletePlace(id);
+
+        // Assert
+        InOrder inOrder = inOrder(routeRepository, routePlaceRepository, placeRepository);
+        inOrder.verify(routeRepository).decrementPlaceCounts(id);
+        inOrder.verify(routePlaceRepository).deleteByPlaceId(id);
+        inOrder.verify(placeRepository).deleteById(id);
+        verify(routeCache).remove(3L);
+        verify(userCache).remove(7L);
+        verify(placeCache).remove(id);
+        verify(visitedPlacesIndex).removePlace(id);
+        verify(routeRepository, never()).save(any());
+    }
+
+    @Test
+    void deletePlace_WhenOnMoreRoutesThanEvictionLimit_ShouldClearRouteAndUserCaches() {
+        // Arrange
+        Long id = 1L;
+        List<RouteRow> routes = new ArrayList<>();
+        for (long routeId = 0; routeId <= PlaceService.ROUTE_EVICTION_LIMIT; routeId++) {
+            routes.add(new RouteRow(routeId, "Walk", "", routeId));
+        }
+
+        when(placeRepository.existsById(id)).thenReturn(true);
+        when(routeRepository.findRowsByPlaceId(id,
+                Limit.of(PlaceService.ROUTE_EVICTION_LIMIT + 1))).thenReturn(routes);
 
         // Act
         placeService.deletePlace(id);
 
         // Assert
-        verify(routeRepository).save(route);
-        verify(placeRepository).deleteById(id);
-        assertTrue(route.getPlaces().isEmpty());
+        verify(routeCache).clear();
+        verify(userCache).clear();
+        verify(routeCache, never()).remove(any());
+        verify(routePlaceRepository).deleteByPlaceId(id);
+    }
+
+    @Test
+    void updatePlace_ShouldEvictAuthorsOfRoutesContainingPlace() {
+        // Arrange
+        Long id = 1L;
+        PlaceRequestDto requestDto = new PlaceRequestDto("New Name", "New Address", "New Desc");
+        Place place = new Place();
+
+        when(placeRepository.findById(id)).thenReturn(Optional.of(place));
+        when(routeRepository.findRowsByPlaceId(eq(id), any(Limit.class)))
+                .thenReturn(List.of(new RouteRow(3L, "Walk", "", 7L)));
+        when(placeRepository.save(place)).thenReturn(place);
+        when(placeMapper.toResponseDto(place)).thenReturn(
+                new PlaceResponseDto(id, "New Name", "New Address", "New Desc"));
+
+        // Act
+        placeService.updatePlace(id, requestDto);
+
+        // Assert
+        verify(userCache).remove(7L);
     }
 }
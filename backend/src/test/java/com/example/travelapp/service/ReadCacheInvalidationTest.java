@@ -0,0 +1,340 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.cache.PlaceCache;
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.RouteJsonCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.exception.NotFoundException;
+import com.example.travelapp.index.VisitedPlacesIndex;
+import com.example.travelapp.model.Place;
+import com.example.travelapp.model.Route;
+import com.example.travelapp.model.RoutePlace;
+import com.example.travelapp.model.RoutePlaceId;
+import com.example.travelapp.model.User;
+import com.example.travelapp.model.dto.request.PlaceRequestDto;
+import com.example.travelapp.model.dto.response.PlaceResponseDto;
+import com.example.travelapp.model.dto.response.RouteResponseDto;
+import com.example.travelapp.model.dto.response.UserResponseDto;
+import com.example.travelapp.repository.PlaceRepository;
+import com.example.travelapp.repository.RoutePlaceRepository;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.repository.projection.RouteRow;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.example.travelapp.service.mapper.UserMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the services against real caches and mappers over an in-memory repository
+ * fake, reading through the caches before and after every mutation.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReadCacheInvalidationTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private PlaceRepository placeRepository;
+
+    @Mock
+    private RoutePlaceRepository routePlaceRepository;
+
+    private final Map<Long, Route> routes = new HashMap<>();
+    private final Map<Long, Place> places = new HashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RouteService routeService;
+    private PlaceService placeService;
+    private UserService userService;
+    private RouteCache routeCache;
+
+    private User author;
+    private Route route;
+    private Place museum;
+    private Place park;
+
+    @BeforeEach
+    void setUp() {
+        PlaceMapper placeMapper = new PlaceMapper();
+        RouteMapper routeMapper = new RouteMapper(placeMapper);
+        UserMapper userMapper = new UserMapper(routeMapper);
+        UserCache userCache = new UserCache(Runnable::run, "", 0);
+        routeCache = new RouteCache();
+        PlaceCache placeCache = new PlaceCache();
+        RouteJsonCache routeJsonCache = new RouteJsonCache(routeCache, objectMapper, 2);
+        VisitedPlacesIndex visitedPlacesIndex = mock(VisitedPlacesIndex.class);
+
+        routeService = new RouteService(routeRepository, userRepository, placeRepository,
+                routePlaceRepository, routeMapper, userCache, routeCache, routeJsonCache,
+                visitedPlacesIndex);
+        placeService = new PlaceService(placeRepository, placeMapper, routeRepository,
+                routePlaceRepository, routeMapper, userRepository, userCache, routeCache, placeCache,
+                mock(PlaceBatchWriter.class), visitedPlacesIndex);
+        userService = new UserService(userRepository, routeRepository, userMapper, userCache,
+                routeCache, visitedPlacesIndex);
+
+        author = new User(1L, "Author", "author@example.com", new ArrayList<>());
+        museum = new Place(10L, "Museum", "1 Museum Street", "");
+        park = new Place(11L, "Park", "2 Park Avenue", "");
+        route = new Route(100L, "City Walk", "", author, new ArrayList<>(List.of(museum)));
+        author.getRoutes().add(route);
+        places.put(museum.getId(), museum);
+        places.put(park.getId(), park);
+        routes.put(route.getId(), route);
+
+        when(userRepository.findById(author.getId())).thenReturn(Optional.of(author));
+        when(routeRepository.findById(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(routes.get(inv.<Long>getArgument(0))));
+        when(placeRepository.findById(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(places.get(inv.<Long>getArgument(0))));
+        when(placeRepository.existsById(anyLong()))
+                .thenAnswer(inv -> places.containsKey(inv.<Long>getArgument(0)));
+        when(routeRepository.findRowById(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(routes.get(inv.<Long>getArgument(0)))
+                        .map(ReadCacheInvalidationTest::row));
+        when(routeRepository.findRowsByPlaceId(anyLong(), any())).thenAnswer(inv ->
+                routes.values().stream()
+                        .filter(r -> r.getPlaces().contains(places.get(inv.<Long>getArgument(0))))
+                        .map(ReadCacheInvalidationTest::row)
+                        .toList());
+        when(routePlaceRepository.existsById(any(RoutePlaceId.class))).thenAnswer(inv -> {
+            RoutePlaceId id = inv.getArgument(0);
+            return routes.get(id.getRouteId()).getPlaces().contains(places.get(id.getPlaceId()));
+        });
+        when(routePlaceRepository.append(anyLong(), anyLong())).thenAnswer(inv -> {
+            Route target = routes.get(inv.<Long>getArgument(0));
+            target.getStops().add(new RoutePlace(target, places.get(inv.<Long>getArgument(1)),
+                    RoutePlace.POSITION_GAP * (target.getStops().size() + 1)));
+            return 1;
+        });
+        when(routePlaceRepository.deleteByRouteIdAndPlaceId(anyLong(), anyLong()))
+                .thenAnswer(inv -> routes.get(inv.<Long>getArgument(0)).getStops()
+                        .removeIf(stop -> stop.getPlace().getId()
+                                .equals(inv.<Long>getArgument(1))) ? 1 : 0);
+        when(routePlaceRepository.deleteByPlaceId(anyLong())).thenAnswer(inv -> {
+            int removed = 0;
+            for (Route r : routes.values()) {
+                removed += r.getStops().removeIf(stop ->
+                        stop.getPlace().getId().equals(inv.<Long>getArgument(0))) ? 1 : 0;
+            }
+            return removed;
+        });
+        when(routeRepository.save(any(Route.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(placeRepository.save(any(Place.class))).thenAnswer(inv -> inv.getArgument(0));
+        doAnswer(inv -> routes.remove(inv.<Long>getArgument(0)))
+                .when(routeRepository).deleteById(anyLong());
+        doAnswer(inv -> places.remove(inv.<Long>getArgument(0)))
+                .when(placeRepository).deleteById(anyLong());
+    }
+
+    private static RouteRow row(Route route) {
+        return new RouteRow(route.getId(), route.getName(), route.getDescription(),
+                route.getAuthor().getId());
+    }
+
+    private static List<String> placeNames(RouteResponseDto dto) {
+        return dto.getPlaces().stream().map(PlaceResponseDto::getName).toList();
+    }
+
+    private static List<String> placeNames(UserResponseDto dto) {
+        return dto.getRoutes().stream()
+                .flatMap(r -> r.getPlaces().stream())
+                .map(PlaceResponseDto::getName)
+                .toList();
+    }
+
+    private static void rollBack(Runnable transaction) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            transaction.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync ->
+                    sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void addPlaceToRoute_ShouldNotLeaveStaleRouteOrUser() {
+        // Arrange
+        routeService.getRouteById(route.getId());
+        userService.getUserById(author.getId());
+
+        // Act
+        routeService.addPlaceToRoute(route.getId(), park.getId());
+
+        // Assert
+        assertEquals(List.of("Museum", "Park"), placeNames(routeService.getRouteById(route.getId())));
+        assertEquals(List.of("Museum", "Park"), placeNames(userService.getUserById(author.getId())));
+    }
+
+    @Test
+    void removePlaceFromRoute_ShouldNotLeaveStaleRouteOrUser() {
+        // Arrange
+        routeService.getRouteById(route.getId());
+        userService.getUserById(author.getId());
+
+        // Act
+        routeService.removePlaceFromRoute(route.getId(), museum.getId());
+
+        // Assert
+        assertEquals(List.of(), placeNames(routeService.getRouteById(route.getId())));
+        assertEquals(List.of(), placeNames(userService.getUserById(author.getId())));
+    }
+
+    @Test
+    void updatePlace_ShouldNotLeaveStalePlaceRouteOrUser() {
+        // Arrange
+        placeService.getPlaceById(museum.getId());
+        routeService.getRouteById(route.getId());
+        userService.getUserById(author.getId());
+
+        // Act
+        placeService.updatePlace(museum.getId(),
+                new PlaceRequestDto("Gallery", "1 Museum Street", ""));
+
+        // Assert
+        assertEquals("Gallery", placeService.getPlaceById(museum.getId()).getName());
+        assertEquals(List.of("Gallery"), placeNames(routeService.getRouteById(route.getId())));
+        assertEquals(List.of("Gallery"), placeNames(userService.getUserById(author.getId())));
+    }
+
+    @Test
+    void updatePlace_ShouldNotLeaveStaleRouteJson() throws IOException {
+        // Arrange
+        routeService.getRouteJson(route.getId());
+
+        // Act
+        placeService.updatePlace(museum.getId(),
+                new PlaceRequestDto("Gallery", "1 Museum Street", ""));
+
+        // Assert
+        RouteResponseDto served = objectMapper.readValue(
+                routeService.getRouteJson(route.getId()), RouteResponseDto.class);
+        assertEquals(List.of("Gallery"), placeNames(served));
+    }
+
+    @Test
+    void getRouteJson_ShouldNotFillRouteCache() throws IOException {
+        // Act
+        byte[] json = routeService.getRouteJson(route.getId());
+
+        // Assert
+        assertEquals(List.of("Museum"),
+                placeNames(objectMapper.readValue(json, RouteResponseDto.class)));
+        assertEquals(0, routeCache.size());
+        assertThrows(NotFoundException.class, () -> routeService.getRouteJson(999L));
+    }
+
+    @Test
+    void deletePlace_ShouldNotLeaveStalePlaceRouteOrUser() {
+        // Arrange
+        placeService.getPlaceById(museum.getId());
+        routeService.getRouteById(route.getId());
+        userService.getUserById(author.getId());
+
+        // Act
+        placeService.deletePlace(museum.getId());
+
+        // Assert
+        assertThrows(NotFoundException.class, () -> placeService.getPlaceById(museum.getId()));
+        assertEquals(List.of(), placeNames(routeService.getRouteById(route.getId())));
+        assertEquals(List.of(), placeNames(userService.getUserById(author.getId())));
+    }
+
+    @Test
+    void deleteRoute_ShouldNotLeaveStaleRouteOrUser() {
+        // Arrange
+        routeService.getRouteById(route.getId());
+        userService.getUserById(author.getId());
+
+        // Act
+        routeService.deleteRoute(route.getId());
+        author.getRoutes().remove(route);
+
+        // Assert
+        assertThrows(NotFoundException.class, () -> routeService.getRouteById(route.getId()));
+        assertTrue(userService.getUserById(author.getId()).getRoutes().isEmpty());
+    }
+
+    @Test
+    void getPlaceById_WhenUnknownIdIsCreated_ShouldStopReportingNotFound() {
+        // Arrange
+        Long newId = 12L;
+        when(placeRepository.save(any(Place.class))).thenAnswer(inv -> {
+            Place saved = inv.getArgument(0);
+            saved.setId(newId);
+            places.put(newId, saved);
+            return saved;
+        });
+        assertThrows(NotFoundException.class, () -> placeService.getPlaceById(newId));
+        assertThrows(NotFoundException.class, () -> placeService.getPlaceById(newId));
+
+        // Act
+        placeService.createPlace(new PlaceRequestDto("Library", "3 Book Lane", ""));
+
+        // Assert
+        assertEquals("Library", placeService.getPlaceById(newId).getName());
+        verify(placeRepository, times(1)).findById(newId);
+    }
+
+    @Test
+    void updatePlace_WhenTransactionRollsBack_ShouldLeaveNoCachedValue() {
+        // Arrange
+        placeService.getPlaceById(museum.getId());
+
+        // Act
+        rollBack(() -> {
+            placeService.updatePlace(museum.getId(),
+                    new PlaceRequestDto("Gallery", "1 Museum Street", ""));
+            museum.setName("Museum");
+        });
+
+        // Assert
+        assertEquals("Museum", placeService.getPlaceById(museum.getId()).getName());
+    }
+
+    @Test
+    void createPlace_WhenTransactionRollsBack_ShouldLeaveNoCachedValue() {
+        // Arrange
+        Long newId = 12L;
+        when(placeRepository.save(any(Place.class))).thenAnswer(inv -> {
+            Place saved = inv.getArgument(0);
+            saved.setId(newId);
+            return saved;
+        });
+
+        // Act
+        rollBack(() -> placeService.createPlace(
+                new PlaceRequestDto("Library", "3 Book Lane", "")));
+
+        // Assert
+        assertThrows(NotFoundException.class, () -> placeService.getPlaceById(newId));
+    }
+}
@@ -1,20 +1,30 @@
 package com.example.travelapp.service;
 
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.UserCache;
 import com.example.travelapp.exception.BadRequestException;
 import com.example.travelapp.exception.ErrorMessages;
 import com.example.travelapp.exception.NotFoundException;
+import com.example.travelapp.index.VisitedPlacesIndex;
 import com.example.travelapp.model.*;
 import com.example.travelapp.model.dto.request.RouteRequestDto;
+import com.example.travelapp.model.dto.response.PageResponseDto;
+import com.example.travelapp.model.dto.response.RoutePlaceResultDto;
 import com.example.travelapp.model.dto.response.RouteResponseDto;
 import com.example.travelapp.repository.*;
+import com.example.travelapp.repository.projection.RoutePlaceRow;
+import com.example.travelapp.repository.projection.RouteRow;
 import com.example.travelapp.service.mapper.RouteMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,19 +41,38 @@ public class RouteServiceUnitTest {
     @Mock
     private PlaceRepository placeRepository;
 
+    @Mock
+    private RoutePlaceRepository routePlaceRepository;
+
     @Mock
     private RouteMapper routeMapper;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private RouteCache routeCache;
+
+    @Mock
+    private VisitedPlacesIndex visitedPlacesIndex;
+
     @InjectMocks
     private RouteService routeService;
 
+    private void givenCacheMiss(Long id) {
+        when(routeCache.get(eq(id), any())).thenAnswer(inv ->
+                inv.<Function<Long, RouteResponseDto>>getArgument(1).apply(id));
+    }
+
     @Test
     void getAllRoutes_ShouldReturnAllRoutes() {
         // Arrange
-        Route route = new Route();
-        RouteResponseDto dto = new RouteResponseDto();
-        when(routeRepository.findAll()).thenReturn(List.of(route));
-        when(routeMapper.toResponseDto(route)).thenReturn(dto);
+        List<RouteRow> routes = List.of(new RouteRow(1L, "Walk", "", 2L));
+        List<RoutePlaceRow> places = List.of(new RoutePlaceRow(1L, 3L, "Park", "", ""));
+        RouteResponseDto dto = new RouteResponseDto(1L, "Walk", "", 2L, List.of());
+        when(routeRepository.findAllRows()).thenReturn(routes);
+        when(routeRepository.findAllPlaceRows()).thenReturn(places);
+        when(routeMapper.toResponseDtos(routes, places)).thenReturn(List.of(dto));
 
         // Act
         List<RouteResponseDto> result = routeService.getAllRoutes();
@@ -51,7 +80,39 @@ public class RouteServiceUnitTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(dto, result.get(0));
-        verify(routeRepository).findAll();
+        verify(routeRepository, never()).findAll();
+    }
+
+    @Test
+    void getRoutesPage_ShouldLoadPlacesOfPageRoutesOnly() {
+        // Arrange
+        RouteRow walk = new RouteRow(3L, "Walk", "", 2L);
+        RouteRow extra = new RouteRow(8L, "Ride", "", 2L);
+        List<RoutePlaceRow> places = List.of(new RoutePlaceRow(3L, 5L, "Park", "", ""));
+        RouteResponseDto dto = new RouteResponseDto(3L, "Walk", "", 2L, List.of());
+        when(routeRepository.findRowsAfter(0L, Limit.of(2))).thenReturn(List.of(walk, extra));
+        when(routeRepository.findPlaceRowsByRouteIds(List.of(3L))).thenReturn(places);
+        when(routeMapper.toResponseDtos(List.of(walk), places)).thenReturn(List.of(dto));
+
+        // Act
+        PageResponseDto<RouteResponseDto> page = routeService.getRoutesPage("", 1);
+
+        // Assert
+        assertEquals(List.of(dto), page.getItems());
+        assertEquals(PageCursor.encode("routes", 3L), page.getNextCursor());
+        verify(routeRepository, never()).findAllPlaceRows();
+    }
+
+    @Test
+    void getRoutesPage_WhenCursorBelongsToAnotherListing_ShouldThrowBadRequest() {
+        // Arrange
+        String cursor = PageCursor.encode("users", 3L);
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> routeService.getRoutesPage(cursor, 20));
+        assertEquals(PageCursor.INVALID_CURSOR, exception.getMessage());
+        verifyNoInteractions(routeRepository);
     }
 
     @Test
@@ -60,7 +121,7 @@ public class RouteServiceUnitTest {
         int minPlaces = 2;
         Route route = new Route();
         route.setPlaces(Arrays.asList(new Place(), new Place()));
-        RouteResponseDto dto = new RouteResponseDto();
+        RouteResponseDto dto = new RouteResponseDto(1L, "Walk", "", 2L, List.of());
 
         when(routeRepository.findRoutesWithMinimumPlaces(minPlaces)).thenReturn(List.of(route));
         when(routeMapper.toResponseDto(route)).thenReturn(dto);
@@ -79,8 +140,9 @@ public class RouteServiceUnitTest {
         // Arrange
         Long id = 1L;
         Route route = new Route();
-        RouteResponseDto dto = new RouteResponseDto();
+        RouteResponseDto dto = new RouteResponseDto(1L, "Walk", "", 2L, List.of());
 
+        givenCacheMiss(id);
         when(routeRepository.findById(id)).thenReturn(Optional.of(route));
         when(routeMapper.toResponseDto(route)).thenReturn(dto);
 
@@ -96,6 +158,7 @@ public class RouteServiceUnitTest {
     void getRouteById_WhenNotExists_ShouldThrowException() {
         // Arrange
         Long id = 1L;
+        givenCacheMiss(id);
         when(routeRepository.findById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -106,21 +169,23 @@ public class RouteServiceUnitTest {
     }
 
     @Test
-    void createRoute_ShouldCreateNewRoute() {
+    void createRoute_ShouldCreateNewRouteWithPlacesInRequestOrder() {
         // Arrange
         Long authorId = 1L;
-        List<Long> placeIds = List.of(1L, 2L);
+        List<Long> placeIds = List.of(2L, 1L);
         RouteRequestDto dto = new RouteRequestDto("Test Route", "Description", authorId, placeIds);
 
         User author = new User();
-        List<Place> places = Arrays.asList(new Place(), new Place());
+        Place museum = new Place(1L, "Museum", "1 Museum Street", "");
+        Place park = new Place(2L, "Park", "2 Park Avenue", "");
         Route route = new Route();
         Route savedRoute = new Route();
-        RouteResponseDto responseDto = new RouteResponseDto();
+        RouteResponseDto responseDto =
+                new RouteResponseDto(5L, "Test Route", "Description", authorId, List.of());
 
         when(userRepository.findById(authorId)).thenReturn(Optional.of(author));
-        when(placeRepository.findAllById(placeIds)).thenReturn(places);
-        when(routeMapper.toEntity(dto, author, places)).thenReturn(route);
+        when(placeRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(museum, park));
+        when(routeMapper.toEntity(dto, author, List.of(park, museum))).thenReturn(route);
         when(routeRepository.save(route)).thenReturn(savedRoute);
         when(routeMapper.toResponseDto(savedRoute)).thenReturn(responseDto);
 
@@ -130,6 +195,7 @@ public class RouteServiceUnitTest {
         // Assert
         assertEquals(responseDto, result);
         verify(routeRepository).save(route);
+        verify(userCache).remove(authorId);
     }
 
     @Test
@@ -156,7 +222,8 @@ public class RouteServiceUnitTest {
         Route route = new Route();
         User newAuthor = new User();
         Route savedRoute = new Route();
-        RouteResponseDto responseDto = new RouteResponseDto();
+        RouteResponseDto responseDto =
+                new RouteResponseDto(id, "New Name", "New Desc", newAuthorId, List.of());
 
         when(routeRepository.findById(id)).thenReturn(Optional.of(route));
         when(userRepository.findById(newAuthorId)).thenReturn(Optional.of(newAuthor));
@@ -173,66 +240,322 @@ public class RouteServiceUnitTest {
         assertEquals(responseDto, result);
     }
 
+    private void givenRoute(Long routeId, Long authorId) {
+        when(routeRepository.findRowById(routeId))
+                .thenReturn(Optional.of(new RouteRow(routeId, "Walk", "", authorId)));
+    }
+
     @Test
-    void addPlaceToRoute_ShouldAddPlace() {
+    void addPlaceToRoute_ShouldInsertSingleRow() {
         // Arrange
         Long routeId = 1L;
-        Long placeId = 1L;
+        Long placeId = 2L;
+        givenRoute(routeId, 5L);
+        when(placeRepository.existsById(placeId)).thenReturn(true);
+        when(routePlaceRepository.existsById(new RoutePlaceId(routeId, placeId)))
+                .thenReturn(false);
 
-        Route route = new Route();
-        route.setPlaces(new ArrayList<>());
-        Place place = new Place();
+        // Act
+        routeService.addPlaceToRoute(routeId, placeId);
+
+        // Assert
+        verify(routePlaceRepository).append(routeId, placeId);
+        verify(routeRepository).adjustPlaceCount(routeId, 1);
+        verify(visitedPlacesIndex).addVisits(5L, List.of(placeId));
+        verify(routeRepository, never()).findById(any());
+        verify(routeRepository, never()).save(any());
+    }
 
-        when(routeRepository.findById(routeId)).thenReturn(Optional.of(route));
-        when(placeRepository.findById(placeId)).thenReturn(Optional.of(place));
+    @Test
+    void addPlaceToRoute_WhenPlaceAlreadyExists_ShouldThrowException() {
+        // Arrange
+        Long routeId = 1L;
+        Long placeId = 2L;
+        givenRoute(routeId, 5L);
+        when(placeRepository.existsById(placeId)).thenReturn(true);
+        when(routePlaceRepository.existsById(new RoutePlaceId(routeId, placeId)))
+                .thenReturn(true);
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> routeService.addPlaceToRoute(routeId, placeId));
+
+        assertEquals("Place already exists in this route", exception.getMessage());
+        verify(routePlaceRepository, never()).append(any(), any());
+    }
+
+    @Test
+    void removePlaceFromRoute_ShouldDeleteSingleRow() {
+        // Arrange
+        Long routeId = 1L;
+        Long placeId = 2L;
+        givenRoute(routeId, 5L);
+        when(placeRepository.existsById(placeId)).thenReturn(true);
+        when(routePlaceRepository.deleteByRouteIdAndPlaceId(routeId, placeId)).thenReturn(1);
+
+        // Act
+        routeService.removePlaceFromRoute(routeId, placeId);
+
+        // Assert
+        verify(routeRepository).adjustPlaceCount(routeId, -1);
+        verify(routeCache).remove(routeId);
+        verify(userCache).remove(5L);
+        verify(visitedPlacesIndex).reloadUser(5L);
+        verify(routeRepository, never()).save(any());
+    }
+
+    @Test
+    void removePlaceFromRoute_WhenPlaceNotInRoute_ShouldThrowException() {
+        // Arrange
+        Long routeId = 1L;
+        Long placeId = 2L;
+        givenRoute(routeId, 5L);
+        when(placeRepository.existsById(placeId)).thenReturn(true);
+        when(routePlaceRepository.deleteByRouteIdAndPlaceId(routeId, placeId)).thenReturn(0);
+
+        // Act & Assert
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> routeService.removePlaceFromRoute(routeId, placeId));
+
+        assertEquals("Place is not in this route", exception.getMessage());
+        verify(routeRepository, never()).adjustPlaceCount(any(), anyInt());
+        verify(routeCache, never()).remove(any());
+    }
+
+    @Test
+    void addPlaceToRoute_ShouldEvictAuthorFromUserCache() {
+        // Arrange
+        Long routeId = 1L;
+        Long placeId = 2L;
+        givenRoute(routeId, 5L);
+        when(placeRepository.existsById(placeId)).thenReturn(true);
 
         // Act
         routeService.addPlaceToRoute(routeId, placeId);
 
         // Assert
-        assertTrue(route.getPlaces().contains(place));
-        verify(routeRepository).save(route);
+        verify(routeCache).remove(routeId);
+        verify(userCache).remove(5L);
     }
 
     @Test
-    void addPlaceToRoute_WhenPlaceAlreadyExists_ShouldThrowException() {
+    void movePlaceInRoute_ShouldTakeMidpointOfNewNeighbours() {
         // Arrange
         Long routeId = 1L;
-        Long placeId = 1L;
+        givenRoute(routeId, 5L);
+        when(routePlaceRepository.findPosition(routeId, 2L)).thenReturn(Optional.of(3072L));
+        when(routePlaceRepository.findPosition(routeId, 3L)).thenReturn(Optional.of(2048L));
+        when(routePlaceRepository.findPositionBefore(routeId, 2048L, 2L)).thenReturn(1024L);
 
-        Route route = new Route();
-        Place place = new Place();
-        route.setPlaces(new ArrayList<>(List.of(place)));
+        // Act
+        routeService.movePlaceInRoute(routeId, 2L, 3L);
 
-        when(routeRepository.findById(routeId)).thenReturn(Optional.of(route));
-        when(placeRepository.findById(placeId)).thenReturn(Optional.of(place));
+        // Assert
+        verify(routePlaceRepository).updatePosition(routeId, 2L, 1536L);
+        verify(routePlaceRepository, never()).respace(any());
+        verify(routeCache).remove(routeId);
+    }
+
+    @Test
+    void movePlaceInRoute_WhenMovedToFront_ShouldTakeHalfOfFirstPosition() {
+        // Arrange
+        Long routeId = 1L;
+        givenRoute(routeId, 5L);
+        when(routePlaceRepository.findPosition(routeId, 2L)).thenReturn(Optional.of(2048L));
+        when(routePlaceRepository.findPosition(routeId, 3L)).thenReturn(Optional.of(1024L));
+        when(routePlaceRepository.findPositionBefore(routeId, 1024L, 2L)).thenReturn(null);
+
+        // Act
+        routeService.movePlaceInRoute(routeId, 2L, 3L);
+
+        // Assert
+        verify(routePlaceRepository).updatePosition(routeId, 2L, 512L);
+    }
+
+    @Test
+    void movePlaceInRoute_WhenNoGapLeft_ShouldRespaceRouteFirst() {
+        // Arrange
+        Long routeId = 1L;
+        givenRoute(routeId, 5L);
+        when(routePlaceRepository.findPosition(routeId, 2L)).thenReturn(Optional.of(9000L));
+        when(routePlaceRepository.findPosition(routeId, 3L))
+                .thenReturn(Optional.of(1025L), Optional.of(2048L));
+        when(routePlaceRepository.findPositionBefore(routeId, 1025L, 2L)).thenReturn(1024L);
+        when(routePlaceRepository.findPositionBefore(routeId, 2048L, 2L)).thenReturn(1024L);
+
+        // Act
+        routeService.movePlaceInRoute(routeId, 2L, 3L);
+
+        // Assert
+        InOrder inOrder = inOrder(routePlaceRepository);
+        inOrder.verify(routePlaceRepository).respace(routeId);
+        inOrder.verify(routePlaceRepository).updatePosition(routeId, 2L, 1536L);
+    }
+
+    @Test
+    void movePlaceInRoute_WithoutBefore_ShouldMoveToEnd() {
+        // Arrange
+        Long routeId = 1L;
+        givenRoute(routeId, 5L);
+        when(routePlaceRepository.findPosition(routeId, 2L)).thenReturn(Optional.of(1024L));
+        when(routePlaceRepository.findLastPosition(routeId)).thenReturn(4096L);
+
+        // Act
+        routeService.movePlaceInRoute(routeId, 2L, null);
+
+        // Assert
+        verify(routePlaceRepository).updatePosition(routeId, 2L, 4096L + RoutePlace.POSITION_GAP);
+    }
+
+    @Test
+    void movePlaceInRoute_WhenPlaceNotInRoute_ShouldThrowException() {
+        // Arrange
+        Long routeId = 1L;
+        givenRoute(routeId, 5L);
+        when(routePlaceRepository.findPosition(routeId, 2L)).thenReturn(Optional.empty());
 
         // Act & Assert
         BadRequestException exception = assertThrows(BadRequestException.class,
-                () -> routeService.addPlaceToRoute(routeId, placeId));
+                () -> routeService.movePlaceInRoute(routeId, 2L, 3L));
 
-        assertEquals("Place already exists in this route", exception.getMessage());
+        assertEquals("Place is not in this route", exception.getMessage());
+        verify(routePlaceRepository, never()).updatePosition(any(), any(), any());
+    }
+
+    private void givenPlaces(Long... ids) {
+        List<Place> places = Arrays.stream(ids)
+                .map(id -> new Place(id, "Place " + id, "", ""))
+                .toList();
+        when(placeRepository.findAllById(anyIterable())).thenReturn(places);
+    }
+
+    private static Map<Long, RoutePlaceResultDto.Status> statuses(
+            List<RoutePlaceResultDto> results) {
+        Map<Long, RoutePlaceResultDto.Status> statuses = new LinkedHashMap<>();
+        results.forEach(result -> statuses.putIfAbsent(result.getPlaceId(), result.getStatus()));
+        return statuses;
     }
 
     @Test
-    void removePlaceFromRoute_ShouldRemovePlace() {
+    void addPlacesToRoute_ShouldAppendNewPlacesAndReportEachItem() {
         // Arrange
         Long routeId = 1L;
-        Long placeId = 1L;
+        givenRoute(routeId, 5L);
+        givenPlaces(2L, 3L, 4L);
+        Route reference = new Route(routeId, "Walk", "", null, List.of());
+        when(routeRepository.getReferenceById(routeId)).thenReturn(reference);
+        when(routePlaceRepository.findPlaceIdsOnRoute(eq(routeId), anyCollection()))
+                .thenReturn(List.of(3L));
+        when(routePlaceRepository.findLastPosition(routeId)).thenReturn(2048L);
 
-        Route route = new Route();
-        Place place = new Place();
-        route.setPlaces(new ArrayList<>(List.of(place)));
+        // Act
+        List<RoutePlaceResultDto> results =
+                routeService.addPlacesToRoute(routeId, List.of(2L, 3L, 9L, 4L, 2L));
+
+        // Assert
+        assertEquals(List.of(RoutePlaceResultDto.Status.ADDED,
+                RoutePlaceResultDto.Status.ALREADY_IN_ROUTE,
+                RoutePlaceResultDto.Status.NOT_FOUND,
+                RoutePlaceResultDto.Status.ADDED,
+                RoutePlaceResultDto.Status.DUPLICATE),
+                results.stream().map(RoutePlaceResultDto::getStatus).toList());
+        verify(placeRepository, times(1)).findAllById(anyIterable());
+        verify(routePlaceRepository).saveAll(argThat((List<RoutePlace> stops) ->
+                stops.size() == 2
+                        && stops.get(0).getId().equals(new RoutePlaceId(routeId, 2L))
+                        && stops.get(0).getPosition() == 3072L
+                        && stops.get(1).getId().equals(new RoutePlaceId(routeId, 4L))
+                        && stops.get(1).getPosition() == 4096L));
+        verify(routeRepository).adjustPlaceCount(routeId, 2);
+        verify(routeCache).remove(routeId);
+        verify(userCache).remove(5L);
+    }
+
+    @Test
+    void addPlacesToRoute_WhenNothingToAdd_ShouldNotWriteOrEvict() {
+        // Arrange
+        Long routeId = 1L;
+        givenRoute(routeId, 5L);
+        givenPlaces();
 
-        when(routeRepository.findById(routeId)).thenReturn(Optional.of(route));
-        when(placeRepository.findById(placeId)).thenReturn(Optional.of(place));
+        // Act
+        List<RoutePlaceResultDto> results = routeService.addPlacesToRoute(routeId, List.of(9L));
+
+        // Assert
+        assertEquals(RoutePlaceResultDto.Status.NOT_FOUND, results.get(0).getStatus());
+        verify(routePlaceRepository, never()).saveAll(any());
+        verify(routePlaceRepository, never()).findPlaceIdsOnRoute(any(), any());
+        verify(routeCache, never()).remove(any());
+    }
+
+    @Test
+    void removePlacesFromRoute_ShouldDeleteOnlyPlacesOnRouteInOneStatement() {
+        // Arrange
+        Long routeId = 1L;
+        givenRoute(routeId, 5L);
+        givenPlaces(2L, 3L);
+        when(routePlaceRepository.findPlaceIdsOnRoute(eq(routeId), anyCollection()))
+                .thenReturn(List.of(2L));
+        when(routePlaceRepository.deleteByRouteIdAndPlaceIdIn(routeId, Set.of(2L)))
+                .thenReturn(1);
 
         // Act
-        routeService.removePlaceFromRoute(routeId, placeId);
+        List<RoutePlaceResultDto> results =
+                routeService.removePlacesFromRoute(routeId, List.of(2L, 3L, 9L));
 
         // Assert
-        assertFalse(route.getPlaces().contains(place));
-        verify(routeRepository).save(route);
+        assertEquals(Map.of(2L, RoutePlaceResultDto.Status.REMOVED,
+                3L, RoutePlaceResultDto.Status.NOT_IN_ROUTE,
+                9L, RoutePlaceResultDto.Status.NOT_FOUND), statuses(results));
+        verify(routePlaceRepository).deleteByRouteIdAndPlaceIdIn(routeId, Set.of(2L));
+        verify(routeRepository).adjustPlaceCount(routeId, -1);
+        verify(routeCache).remove(routeId);
+    }
+
+    @Test
+    void replaceRoutePlaces_ShouldKeepAddAndRemoveInRequestOrder() {
+        // Arrange
+        Long routeId = 1L;
+        givenRoute(routeId, 5L);
+        givenPlaces(2L, 3L, 4L);
+        Route route = new Route(routeId, "Walk", "", null, List.of(
+                new Place(2L, "Place 2", "", ""), new Place(7L, "Place 7", "", "")));
+        when(routeRepository.getReferenceById(routeId)).thenReturn(route);
+        when(routePlaceRepository.findStops(routeId)).thenReturn(List.copyOf(route.getStops()));
+        when(routePlaceRepository.deleteByRouteIdAndPlaceIdIn(routeId, Set.of(7L)))
+                .thenReturn(1);
+
+        // Act
+        List<RoutePlaceResultDto> results =
+                routeService.replaceRoutePlaces(routeId, List.of(4L, 2L, 9L));
+
+        // Assert
+        assertEquals(Map.of(4L, RoutePlaceResultDto.Status.ADDED,
+                2L, RoutePlaceResultDto.Status.KEPT,
+                9L, RoutePlaceResultDto.Status.NOT_FOUND,
+                7L, RoutePlaceResultDto.Status.REMOVED), statuses(results));
+        assertEquals(2 * RoutePlace.POSITION_GAP, route.getStops().get(0).getPosition());
+        verify(routePlaceRepository).deleteByRouteIdAndPlaceIdIn(routeId, Set.of(7L));
+        verify(routePlaceRepository).saveAll(argThat((List<RoutePlace> stops) ->
+                stops.size() == 1 && stops.get(0).getPosition() == RoutePlace.POSITION_GAP));
+        verify(routeRepository).adjustPlaceCount(routeId, 0);
+        verify(routeCache).remove(routeId);
+    }
+
+    @Test
+    void deleteRoute_ShouldEvictAuthorFromUserCache() {
+        // Arrange
+        Long id = 1L;
+        Route route = new Route();
+        route.setAuthor(new User(5L, "Author", "author@example.com", List.of()));
+        when(routeRepository.findById(id)).thenReturn(Optional.of(route));
+
+        // Act
+        routeService.deleteRoute(id);
+
+        // Assert
+        verify(userCache).remove(5L);
+        verify(routeRepository).deleteById(id);
     }
 
     @Test
@@ -253,7 +576,7 @@ public class RouteServiceUnitTest {
         Long nonExistentRouteId = 999L;
         Long placeId = 1L;
 
-        when(routeRepository.findById(nonExistentRouteId))
+        when(routeRepository.findRowById(nonExistentRouteId))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -261,7 +584,7 @@ public class RouteServiceUnitTest {
                 () -> routeService.addPlaceToRoute(nonExistentRouteId, placeId));
 
         assertEquals(ErrorMessages.ROUTE_NOT_FOUND, exception.getMessage());
-        verify(routeRepository, never()).save(any());
+        verify(routePlaceRepository, never()).append(any(), any());
     }
 
     @Test
@@ -269,19 +592,16 @@ public class RouteServiceUnitTest {
         // Arrange
         Long routeId = 1L;
         Long nonExistentPlaceId = 999L;
-        Route existingRoute = new Route();
+        givenRoute(routeId, 5L);
 
-        when(routeRepository.findById(routeId))
-                .thenReturn(Optional.of(existingRoute));
-        when(placeRepository.findById(nonExistentPlaceId))
-                .thenReturn(Optional.empty());
+        when(placeRepository.existsById(nonExistentPlaceId)).thenReturn(false);
 
         // Act & Assert
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> routeService.addPlaceToRoute(routeId, nonExistentPlaceId));
 
         assertEquals(ErrorMessages.PLACE_NOT_FOUND, exception.getMessage());
-        verify(routeRepository, never()).save(any());
+        verify(routePlaceRepository, never()).append(any(), any());
     }
 
     @Test
@@ -290,14 +610,14 @@ public class RouteServiceUnitTest {
         Long routeId = 1L;
         Long placeId = 1L;
 
-        when(routeRepository.findById(routeId)).thenReturn(Optional.empty());
+        when(routeRepository.findRowById(routeId)).thenReturn(Optional.empty());
 
         // Act & Assert
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> routeService.removePlaceFromRoute(routeId, placeId));
 
         assertEquals(ErrorMessages.ROUTE_NOT_FOUND, exception.getMessage());
-        verify(routeRepository, never()).save(any());
+        verify(routePlaceRepository, never()).deleteByRouteIdAndPlaceId(any(), any());
     }
 
     @Test
@@ -305,16 +625,15 @@ public class RouteServiceUnitTest {
         // Arrange
         Long routeId = 1L;
         Long placeId = 1L;
+        givenRoute(routeId, 5L);
 
-        Route route = new Route();
-        when(routeRepository.findById(routeId)).thenReturn(Optional.of(route));
-        when(placeRepository.findById(placeId)).thenReturn(Optional.empty());
+        when(placeRepository.existsById(placeId)).thenReturn(false);
 
         // Act & Assert
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> routeService.removePlaceFromRoute(routeId, placeId));
 
         assertEquals(ErrorMessages.PLACE_NOT_FOUND, exception.getMessage());
-        verify(routeRepository, never()).save(any());
+        verify(routePlaceRepository, never()).deleteByRouteIdAndPlaceId(any(), any());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.example.travelapp.service;
+
+import com.example.travelapp.cache.RouteCache;
+import com.example.travelapp.cache.UserCache;
+import com.example.travelapp.index.VisitedPlacesIndex;
+import com.example.travelapp.model.User;
+import com.example.travelapp.model.dto.response.UserResponseDto;
+import com.example.travelapp.repository.RouteRepository;
+import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.service.mapper.PlaceMapper;
+import com.example.travelapp.service.mapper.RouteMapper;
+import com.example.travelapp.service.mapper.UserMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceSingleFlightTest {
+
+    private static final int THREADS = 32;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Test
+    void getUserById_WhenMissedConcurrently_ShouldQueryRepositoryOnce() throws Exception {
+        // Arrange
+        UserMapper userMapper = new UserMapper(new RouteMapper(new PlaceMapper()));
+        UserService userService = new UserService(userRepository, routeRepository, userMapper,
+                new UserCache(Runnable::run, "", 0), new RouteCache(),
+                mock(VisitedPlacesIndex.class));
+        User user = new User(1L, "Popular User", "popular@example.com", new ArrayList<>());
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findById(1L)).thenAnswer(inv -> {
+            queryStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(user);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UserResponseDto>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return userService.getUserById(1L);
+            }));
+        }
+        start.countDown();
+        assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<UserResponseDto> future : futures) {
+            assertEquals("Popular User", future.get(5, TimeUnit.SECONDS).getName());
+        }
+        executor.shutdown();
+
+        // Assert
+        verify(userRepository, times(1)).findById(1L);
+    }
+}
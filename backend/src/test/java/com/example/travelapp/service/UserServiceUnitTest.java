@@ -1,21 +1,30 @@
 package com.example.travelapp.service;
 
+import com.example.travelapp.cache.RouteCache;
 import com.example.travelapp.cache.UserCache;
 import com.example.travelapp.exception.ErrorMessages;
 import com.example.travelapp.exception.NotFoundException;
+import com.example.travelapp.index.VisitedPlacesIndex;
 import com.example.travelapp.model.User;
 import com.example.travelapp.model.dto.request.UserRequestDto;
+import com.example.travelapp.model.dto.response.PageResponseDto;
 import com.example.travelapp.model.dto.response.UserResponseDto;
+import com.example.travelapp.repository.RouteRepository;
 import com.example.travelapp.repository.UserRepository;
+import com.example.travelapp.repository.projection.RoutePlaceRow;
+import com.example.travelapp.repository.projection.RouteRow;
+import com.example.travelapp.repository.projection.UserRow;
 import com.example.travelapp.service.mapper.UserMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,22 +35,40 @@ public class UserServiceUnitTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private RouteRepository routeRepository;
+
     @Mock
     private UserMapper userMapper;
 
     @Mock
     private UserCache userCache;
 
+    @Mock
+    private RouteCache routeCache;
+
+    @Mock
+    private VisitedPlacesIndex visitedPlacesIndex;
+
     @InjectMocks
     private UserService userService;
 
+    private void givenCacheMiss(Long id) {
+        when(userCache.get(eq(id), any())).thenAnswer(inv ->
+                inv.<Function<Long, UserResponseDto>>getArgument(1).apply(id));
+    }
+
     @Test
     void getAllUsers_ShouldReturnAllUsers() {
         // Arrange
-        User user = new User(1L, "Test User", "test@example.com", List.of());
+        List<UserRow> users = List.of(new UserRow(1L, "Test User", "test@example.com"));
+        List<RouteRow> routes = List.of(new RouteRow(5L, "Walk", "", 1L));
+        List<RoutePlaceRow> places = List.of(new RoutePlaceRow(5L, 9L, "Park", "", ""));
         UserResponseDto dto = new UserResponseDto(1L, "Test User", "test@example.com", List.of());
-        when(userRepository.findAll()).thenReturn(List.of(user));
-        when(userMapper.toResponseDto(user)).thenReturn(dto);
+        when(userRepository.findAllRows()).thenReturn(users);
+        when(routeRepository.findAllRows()).thenReturn(routes);
+        when(routeRepository.findAllPlaceRows()).thenReturn(places);
+        when(userMapper.toResponseDtos(users, routes, places)).thenReturn(List.of(dto));
 
         // Act
         List<UserResponseDto> result = userService.getAllUsers();
@@ -49,26 +76,61 @@ public class UserServiceUnitTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(dto, result.get(0));
-        verify(userRepository).findAll();
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void getUsersPage_ShouldLoadRoutesAndPlacesForPageUsersOnly() {
+        // Arrange
+        List<UserRow> users = List.of(new UserRow(1L, "Test User", "test@example.com"));
+        List<RouteRow> routes = List.of(new RouteRow(5L, "Walk", "", 1L));
+        List<RoutePlaceRow> places = List.of(new RoutePlaceRow(5L, 9L, "Park", "", ""));
+        UserResponseDto dto = new UserResponseDto(1L, "Test User", "test@example.com", List.of());
+        when(userRepository.findRowsAfter(0L, Limit.of(21))).thenReturn(users);
+        when(routeRepository.findRowsByAuthorIds(List.of(1L))).thenReturn(routes);
+        when(routeRepository.findPlaceRowsByRouteIds(List.of(5L))).thenReturn(places);
+        when(userMapper.toResponseDtos(users, routes, places)).thenReturn(List.of(dto));
+
+        // Act
+        PageResponseDto<UserResponseDto> page = userService.getUsersPage(null, 20);
+
+        // Assert
+        assertEquals(List.of(dto), page.getItems());
+        assertNull(page.getNextCursor());
+        verify(routeRepository, never()).findAllRows();
+    }
+
+    @Test
+    void getUsersPage_WhenPastLastUser_ShouldSkipRouteQueries() {
+        // Arrange
+        String cursor = PageCursor.encode("users", 42L);
+        when(userRepository.findRowsAfter(42L, Limit.of(21))).thenReturn(List.of());
+        when(userMapper.toResponseDtos(List.of(), List.of(), List.of())).thenReturn(List.of());
+
+        // Act
+        PageResponseDto<UserResponseDto> page = userService.getUsersPage(cursor, 20);
+
+        // Assert
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        verifyNoInteractions(routeRepository);
     }
 
     @Test
     void getUserById_WhenCached_ShouldReturnFromCache() {
         // Arrange
         Long id = 1L;
-        User cachedUser = new User(id, "Cached User", "cached@example.com", List.of());
         UserResponseDto dto = new UserResponseDto(id, "Cached User", "cached@example.com", List.of());
 
-        when(userCache.get(id)).thenReturn(cachedUser);
-        when(userMapper.toResponseDto(cachedUser)).thenReturn(dto);
+        when(userCache.get(eq(id), any())).thenReturn(dto);
 
         // Act
         UserResponseDto result = userService.getUserById(id);
 
         // Assert
-        assertEquals(dto, result);
-        verify(userCache).get(id);
+        assertSame(dto, result);
         verify(userRepository, never()).findById(any());
+        verify(userMapper, never()).toResponseDto(any());
     }
 
     @Test
@@ -78,7 +140,7 @@ public class UserServiceUnitTest {
         User dbUser = new User(id, "DB User", "db@example.com", List.of());
         UserResponseDto dto = new UserResponseDto(id, "DB User", "db@example.com", List.of());
 
-        when(userCache.get(id)).thenReturn(null);
+        givenCacheMiss(id);
         when(userRepository.findById(id)).thenReturn(Optional.of(dbUser));
         when(userMapper.toResponseDto(dbUser)).thenReturn(dto);
 
@@ -87,7 +149,7 @@ public class UserServiceUnitTest {
 
         // Assert
         assertEquals(dto, result);
-        verify(userCache).put(id, dbUser);
+        verify(userCache).get(eq(id), any());
         verify(userRepository).findById(id);
     }
 
@@ -95,7 +157,7 @@ public class UserServiceUnitTest {
     void getUserById_WhenUserNotFound_ShouldThrowException() {
         // Arrange
         Long id = 1L;
-        when(userCache.get(id)).thenReturn(null);
+        givenCacheMiss(id);
         when(userRepository.findById(id)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -106,7 +168,7 @@ public class UserServiceUnitTest {
     }
 
     @Test
-    void createUser_ShouldSaveAndCacheUser() {
+    void createUser_ShouldSaveAndEvictUser() {
         // Arrange
         UserRequestDto requestDto = new UserRequestDto("New User", "new@example.com");
         User user = new User(null, "New User", "new@example.com", List.of());
@@ -123,11 +185,12 @@ public class UserServiceUnitTest {
         // Assert
         assertEquals(responseDto, result);
         verify(userRepository).save(user);
-        verify(userCache).put(savedUser.getId(), savedUser);
+        verify(userCache).remove(savedUser.getId());
+        verify(userCache, never()).put(any(), any());
     }
 
     @Test
-    void updateUser_ShouldUpdateAndCacheUser() {
+    void updateUser_ShouldUpdateAndEvictUser() {
         // Arrange
         Long id = 1L;
         UserRequestDto requestDto = new UserRequestDto("Updated User", "updated@example.com");
@@ -145,7 +208,8 @@ public class UserServiceUnitTest {
         assertEquals("Updated User", existingUser.getName());
         assertEquals("updated@example.com", existingUser.getEmail());
         assertEquals(responseDto, result);
-        verify(userCache).put(id, existingUser);
+        verify(userCache).remove(id);
+        verify(userCache, never()).put(any(), any());
     }
 
     @Test